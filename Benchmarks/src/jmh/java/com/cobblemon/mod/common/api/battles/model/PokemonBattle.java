@@ -0,0 +1,27 @@
+package com.cobblemon.mod.common.api.battles.model;
+
+import com.cobblemon.mod.common.api.battles.model.actor.BattleActor;
+
+import vazkii.neat.CobblemonFixture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class PokemonBattle {
+	private final UUID battleId = UUID.randomUUID();
+	private final List<BattleActor> actors = new ArrayList<>();
+
+	public UUID getBattleId() {
+		return battleId;
+	}
+
+	public Iterable<BattleActor> getActors() {
+		CobblemonFixture.check("PokemonBattle.getActors");
+		return actors;
+	}
+
+	public List<BattleActor> actors() {
+		return actors;
+	}
+}
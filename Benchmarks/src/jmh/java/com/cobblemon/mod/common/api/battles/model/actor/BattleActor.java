@@ -0,0 +1,17 @@
+package com.cobblemon.mod.common.api.battles.model.actor;
+
+import com.cobblemon.mod.common.battles.pokemon.BattlePokemon;
+
+import vazkii.neat.CobblemonFixture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BattleActor {
+	private final List<BattlePokemon> pokemonList = new ArrayList<>();
+
+	public List<BattlePokemon> getPokemonList() {
+		CobblemonFixture.check("BattleActor.getPokemonList");
+		return pokemonList;
+	}
+}
@@ -0,0 +1,35 @@
+package com.cobblemon.mod.common.battles;
+
+import com.cobblemon.mod.common.api.battles.model.PokemonBattle;
+
+import vazkii.neat.CobblemonFixture;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stand-in for Cobblemon's BattleRegistry Kotlin object.
+ */
+public class BattleRegistry {
+	public static final BattleRegistry INSTANCE = new BattleRegistry();
+
+	private final Map<UUID, PokemonBattle> battles = new HashMap<>();
+
+	public PokemonBattle getBattle(UUID battleId) {
+		CobblemonFixture.check("BattleRegistry.getBattle");
+		return battles.get(battleId);
+	}
+
+	public void register(PokemonBattle battle) {
+		battles.put(battle.getBattleId(), battle);
+	}
+
+	public void unregister(UUID battleId) {
+		battles.remove(battleId);
+	}
+
+	public void clear() {
+		battles.clear();
+	}
+}
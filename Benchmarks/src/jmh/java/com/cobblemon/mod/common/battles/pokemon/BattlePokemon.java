@@ -0,0 +1,28 @@
+package com.cobblemon.mod.common.battles.pokemon;
+
+import com.cobblemon.mod.common.pokemon.Pokemon;
+
+import vazkii.neat.CobblemonFixture;
+
+public class BattlePokemon {
+	private final Pokemon originalPokemon;
+	private final Pokemon effectedPokemon;
+
+	/**
+	 * @param effectedPokemon the battle clone damage goes to, as Cobblemon does for wild and NPC Pokemon
+	 */
+	public BattlePokemon(Pokemon originalPokemon, Pokemon effectedPokemon) {
+		this.originalPokemon = originalPokemon;
+		this.effectedPokemon = effectedPokemon;
+	}
+
+	public Pokemon getOriginalPokemon() {
+		CobblemonFixture.check("BattlePokemon.getOriginalPokemon");
+		return originalPokemon;
+	}
+
+	public Pokemon getEffectedPokemon() {
+		CobblemonFixture.check("BattlePokemon.getEffectedPokemon");
+		return effectedPokemon;
+	}
+}
@@ -0,0 +1,23 @@
+package com.cobblemon.mod.common.client;
+
+import com.cobblemon.mod.common.client.battle.ClientBattle;
+
+import vazkii.neat.CobblemonFixture;
+
+/**
+ * Stand-in for Cobblemon's CobblemonClient Kotlin object.
+ */
+public class CobblemonClient {
+	public static final CobblemonClient INSTANCE = new CobblemonClient();
+
+	private ClientBattle battle;
+
+	public ClientBattle getBattle() {
+		CobblemonFixture.check("CobblemonClient.getBattle");
+		return battle;
+	}
+
+	public void setBattle(ClientBattle battle) {
+		this.battle = battle;
+	}
+}
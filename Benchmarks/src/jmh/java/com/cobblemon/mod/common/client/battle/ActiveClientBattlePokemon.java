@@ -0,0 +1,16 @@
+package com.cobblemon.mod.common.client.battle;
+
+import vazkii.neat.CobblemonFixture;
+
+public class ActiveClientBattlePokemon {
+	private final ClientBattlePokemon battlePokemon;
+
+	public ActiveClientBattlePokemon(ClientBattlePokemon battlePokemon) {
+		this.battlePokemon = battlePokemon;
+	}
+
+	public ClientBattlePokemon getBattlePokemon() {
+		CobblemonFixture.check("ActiveClientBattlePokemon.getBattlePokemon");
+		return battlePokemon;
+	}
+}
@@ -0,0 +1,18 @@
+package com.cobblemon.mod.common.client.battle;
+
+import vazkii.neat.CobblemonFixture;
+
+public class ClientBattle {
+	private final ClientBattleSide side1 = new ClientBattleSide();
+	private final ClientBattleSide side2 = new ClientBattleSide();
+
+	public ClientBattleSide getSide1() {
+		CobblemonFixture.check("ClientBattle.getSide1");
+		return side1;
+	}
+
+	public ClientBattleSide getSide2() {
+		CobblemonFixture.check("ClientBattle.getSide2");
+		return side2;
+	}
+}
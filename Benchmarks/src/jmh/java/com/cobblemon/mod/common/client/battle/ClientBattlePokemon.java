@@ -0,0 +1,46 @@
+package com.cobblemon.mod.common.client.battle;
+
+import vazkii.neat.CobblemonFixture;
+
+import java.util.UUID;
+
+public class ClientBattlePokemon {
+	private final UUID uuid;
+	private float hpValue;
+	private final float maxHp;
+	private final boolean hpFlat;
+
+	/**
+	 * @param hpValue exact HP if hpFlat (allies), otherwise a 0-1 ratio (enemies)
+	 */
+	public ClientBattlePokemon(UUID uuid, float hpValue, float maxHp, boolean hpFlat) {
+		this.uuid = uuid;
+		this.hpValue = hpValue;
+		this.maxHp = maxHp;
+		this.hpFlat = hpFlat;
+	}
+
+	public UUID getUuid() {
+		CobblemonFixture.check("ClientBattlePokemon.getUuid");
+		return uuid;
+	}
+
+	public float getHpValue() {
+		CobblemonFixture.check("ClientBattlePokemon.getHpValue");
+		return hpValue;
+	}
+
+	public void setHpValue(float hpValue) {
+		this.hpValue = hpValue;
+	}
+
+	public float getMaxHp() {
+		CobblemonFixture.check("ClientBattlePokemon.getMaxHp");
+		return maxHp;
+	}
+
+	public boolean isHpFlat() {
+		CobblemonFixture.check("ClientBattlePokemon.isHpFlat");
+		return hpFlat;
+	}
+}
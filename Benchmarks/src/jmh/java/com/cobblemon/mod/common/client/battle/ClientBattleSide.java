@@ -0,0 +1,15 @@
+package com.cobblemon.mod.common.client.battle;
+
+import vazkii.neat.CobblemonFixture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClientBattleSide {
+	private final List<ActiveClientBattlePokemon> activeClientBattlePokemon = new ArrayList<>();
+
+	public List<ActiveClientBattlePokemon> getActiveClientBattlePokemon() {
+		CobblemonFixture.check("ClientBattleSide.getActiveClientBattlePokemon");
+		return activeClientBattlePokemon;
+	}
+}
@@ -0,0 +1,34 @@
+package com.cobblemon.mod.common.entity.pokemon;
+
+import com.cobblemon.mod.common.pokemon.Pokemon;
+
+import vazkii.neat.CobblemonFixture;
+
+import java.util.UUID;
+
+/**
+ * Stand-in for Cobblemon's PokemonEntity. Not a LivingEntity, so it's driven through
+ * CobblemonIntegration's unchecked entry points.
+ */
+public class PokemonEntity {
+	private final Pokemon pokemon;
+	private UUID battleId;
+
+	public PokemonEntity(Pokemon pokemon) {
+		this.pokemon = pokemon;
+	}
+
+	public Pokemon getPokemon() {
+		CobblemonFixture.check("PokemonEntity.getPokemon");
+		return pokemon;
+	}
+
+	public UUID getBattleId() {
+		CobblemonFixture.check("PokemonEntity.getBattleId");
+		return battleId;
+	}
+
+	public void setBattleId(UUID battleId) {
+		this.battleId = battleId;
+	}
+}
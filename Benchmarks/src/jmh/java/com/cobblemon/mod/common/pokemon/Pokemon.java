@@ -0,0 +1,39 @@
+package com.cobblemon.mod.common.pokemon;
+
+import vazkii.neat.CobblemonFixture;
+
+import java.util.UUID;
+
+/**
+ * Stand-in for Cobblemon's Pokemon, exposing only what CobblemonIntegration binds to.
+ */
+public class Pokemon {
+	private final UUID uuid;
+	private int currentHealth;
+	private final int maxHealth;
+
+	public Pokemon(UUID uuid, int currentHealth, int maxHealth) {
+		this.uuid = uuid;
+		this.currentHealth = currentHealth;
+		this.maxHealth = maxHealth;
+	}
+
+	public UUID getUuid() {
+		CobblemonFixture.check("Pokemon.getUuid");
+		return uuid;
+	}
+
+	public int getCurrentHealth() {
+		CobblemonFixture.check("Pokemon.getCurrentHealth");
+		return currentHealth;
+	}
+
+	public void setCurrentHealth(int currentHealth) {
+		this.currentHealth = currentHealth;
+	}
+
+	public int getMaxHealth() {
+		CobblemonFixture.check("Pokemon.getMaxHealth");
+		return maxHealth;
+	}
+}
@@ -0,0 +1,426 @@
+package vazkii.neat;
+
+import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.MeshData;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormatElement;
+
+import org.joml.Matrix4f;
+
+import vazkii.neat.core.DepthOrder;
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.HealthText;
+import vazkii.neat.core.TypeFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Fails the build when a stage of the steady-state render path allocates more than its budget.
+ * Each stage is driven for many identical frames against stand-in entities, and the bytes the thread
+ * allocated while measuring are divided by frames and entities.
+ *
+ * <p>
+ * Budgets are per entity per frame. Stages that are allocation-free have a budget of zero and must
+ * stay that way; raise a budget only together with a comment saying what allocates.
+ *
+ * <p>
+ * A few correctness checks that need the same stand-ins run first, and fail the gate the same way.
+ *
+ * <p>
+ * Run with {@code ./gradlew :Benchmarks:allocationGate}; it's also part of {@code check}.
+ */
+public class AllocationGate {
+
+	private static final int ENTITIES = 256;
+	private static final int WARMUP_FRAMES = 20_000;
+	private static final int MEASURED_FRAMES = 5_000;
+	private static final VertexFormat BAR_FORMAT = DefaultVertexFormat.POSITION_COLOR_TEX_LIGHTMAP;
+	// PlateVertexWriter transforms positions in a different order than Matrix4f, so they may differ in the last bits
+	private static final float POSITION_TOLERANCE = 1.0E-4F;
+
+	private record Stage(String name, long budget, int entities, Runnable frame) {}
+
+	public static void main(String[] args) {
+		BenchmarkConfig config = BenchmarkConfig.install();
+		SplittableRandom random = new SplittableRandom(42);
+		boolean failed = !checkRecentDamageOverCap(random);
+		failed |= !checkPlateVertexWriter(random);
+		failed |= !checkSceneRoundTrip(random);
+
+		List<Stage> stages = new ArrayList<>();
+		stages.add(animationTick(random, "animation tick", ENTITIES, NeatCaches.DEFAULT_ENTITY_CAPACITY));
+		stages.add(animationTick(random, "animation tick over cap", 4 * ENTITIES, ENTITIES));
+		stages.add(plateFilter(random, config));
+		stages.add(plateGeometry(random));
+		stages.add(plateVertexWriter(random));
+		stages.add(plateOrder(random));
+		stages.add(healthText(random, config));
+		stages.add(platePipeline(random, config));
+		stages.addAll(cobblemonLookups());
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			throw new IllegalStateException("This JVM can't measure thread allocation");
+		}
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		for (Stage stage : stages) {
+			for (int i = 0; i < WARMUP_FRAMES; i++) {
+				stage.frame.run();
+			}
+			long before = threads.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < MEASURED_FRAMES; i++) {
+				stage.frame.run();
+			}
+			long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+			double perEntity = (double) allocated / MEASURED_FRAMES / stage.entities;
+			boolean over = perEntity > stage.budget;
+			failed |= over;
+			report("%-24s %8.2f bytes per entity per frame (budget %d)%s", stage.name, perEntity, stage.budget, over ? "  OVER BUDGET" : "");
+		}
+		if (failed) {
+			report("Allocation gate failed");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @param capacity the animation cache cap, below {@code entities} to cover a level with more entities than it
+	 */
+	private static Stage animationTick(SplittableRandom random, String name, int entities, int capacity) {
+		HealthAnimationManager.clear();
+		UUID[] ids = new UUID[entities];
+		float[] health = new float[entities];
+		for (int i = 0; i < entities; i++) {
+			ids[i] = new UUID(random.nextLong(), random.nextLong());
+			health[i] = 1 + random.nextInt(300);
+		}
+		return new Stage(name, 0, entities, () -> {
+			// Both stages share the animator, so each sets its cap
+			HealthAnimationManager.cache().setCapacity(capacity);
+			for (int i = 0; i < entities; i++) {
+				HealthAnimationManager.track(ids[i], health[i], false, (i & 3) == 0, (i & 7) == 0);
+			}
+			HealthAnimationManager.sweep();
+		});
+	}
+
+	/**
+	 * Recent damage mode reads damage ticks from the animation cache, so they have to survive a level
+	 * with more entities than its cap. Not an allocation stage, but it needs the same stand-ins.
+	 *
+	 * @return whether every damaged entity and only those counted as recently damaged
+	 */
+	private static boolean checkRecentDamageOverCap(SplittableRandom random) {
+		int entities = 4 * ENTITIES;
+		HealthAnimationManager.clear();
+		HealthAnimationManager.cache().setCapacity(ENTITIES);
+		UUID[] ids = new UUID[entities];
+		for (int i = 0; i < entities; i++) {
+			ids[i] = new UUID(random.nextLong(), random.nextLong());
+		}
+		for (int tick = 0; tick < 3; tick++) {
+			for (int i = 0; i < entities; i++) {
+				// Every 16th entity takes damage on the last tick
+				float health = tick == 2 && (i & 15) == 0 ? 50 : 100;
+				HealthAnimationManager.track(ids[i], health, false, false, false);
+			}
+			HealthAnimationManager.sweep();
+		}
+		int wrong = 0;
+		for (int i = 0; i < entities; i++) {
+			if (HealthAnimationManager.wasDamagedWithin(ids[i], 20) != ((i & 15) == 0)) {
+				wrong++;
+			}
+		}
+		HealthAnimationManager.clear();
+		report("%-24s %8d of %d entities wrong%s", "recent damage over cap", wrong, entities, wrong > 0 ? "  FAILED" : "");
+		return wrong == 0;
+	}
+
+	private static Stage plateFilter(SplittableRandom random, BenchmarkConfig config) {
+		PlateSnapshot[] plates = plates(random);
+		TypeFilter typeFilter = PlateFilter.typeFilter(config);
+		return new Stage("plate filter", 0, ENTITIES, () -> {
+			for (PlateSnapshot plate : plates) {
+				if (PlateFilter.rejectByType(plate, typeFilter) == null) {
+					PlateFilter.rejectByHealth(plate, config);
+				}
+			}
+		});
+	}
+
+	private static Stage plateGeometry(SplittableRandom random) {
+		PlateSnapshot[] plates = plates(random);
+		Matrix4f pose = new Matrix4f().scale(-0.0267F, -0.0267F, 0.0267F);
+		CountingVertexConsumer consumer = new CountingVertexConsumer();
+		return new Stage("plate geometry", 0, ENTITIES, () -> {
+			for (PlateSnapshot plate : plates) {
+				PlateGeometry.background(pose, consumer, 25, 2, 6, 4, 1.0F);
+				PlateGeometry.bar(pose, consumer, plate, 25, 4, 1.0F, false);
+			}
+		});
+	}
+
+	/**
+	 * PlateGeometry's bulk path, through PlateVertexWriter into a real BufferBuilder.
+	 */
+	private static Stage plateVertexWriter(SplittableRandom random) {
+		PlateSnapshot[] plates = plates(random);
+		Matrix4f pose = vertexWriterPose();
+		ByteBufferBuilder bytes = new ByteBufferBuilder(ENTITIES * 12 * BAR_FORMAT.getVertexSize());
+		// The builder and the mesh it's built into, once per frame rather than per entity
+		return new Stage("plate vertex writer", 1, ENTITIES, () -> {
+			BufferBuilder builder = new ReflectiveBufferBuilder(bytes, VertexFormat.Mode.QUADS, BAR_FORMAT);
+			for (PlateSnapshot plate : plates) {
+				PlateGeometry.background(pose, builder, 25, 2, 6, 4, 1.0F);
+				PlateGeometry.bar(pose, builder, plate, 25, 4, 1.0F, false);
+			}
+			try (MeshData mesh = builder.build()) {
+				Objects.requireNonNull(mesh);
+			}
+		});
+	}
+
+	/**
+	 * PlateVertexWriter writes plate quads straight into a BufferBuilder's memory, so it has to write the
+	 * same vertices as the per-vertex path does into a plain BufferBuilder, positions up to rounding.
+	 *
+	 * @return whether every vertex matches
+	 */
+	private static boolean checkPlateVertexWriter(SplittableRandom random) {
+		PlateSnapshot[] plates = plates(random);
+		Matrix4f pose = vertexWriterPose();
+		int capacity = ENTITIES * 12 * BAR_FORMAT.getVertexSize();
+		try (ByteBufferBuilder perVertexBytes = new ByteBufferBuilder(capacity);
+				ByteBufferBuilder bulkBytes = new ByteBufferBuilder(capacity)) {
+			BufferBuilder perVertex = new BufferBuilder(perVertexBytes, VertexFormat.Mode.QUADS, BAR_FORMAT);
+			BufferBuilder bulk = new ReflectiveBufferBuilder(bulkBytes, VertexFormat.Mode.QUADS, BAR_FORMAT);
+			if (PlateVertexWriter.accepts(perVertex) || !PlateVertexWriter.accepts(bulk)) {
+				report("%-24s took the wrong path  FAILED", "plate vertex writer");
+				return false;
+			}
+			for (int i = 0; i < plates.length; i++) {
+				// Vary alpha and bar color too
+				float alpha = (i & 1) == 0 ? 1.0F : 0.5F;
+				boolean colorByType = (i & 2) == 0;
+				for (BufferBuilder builder : List.of(perVertex, bulk)) {
+					PlateGeometry.background(pose, builder, 25, 2, 6, 4, alpha);
+					PlateGeometry.bar(pose, builder, plates[i], 25, 4, alpha, colorByType);
+				}
+			}
+			try (MeshData expected = perVertex.build(); MeshData actual = bulk.build()) {
+				int vertices = expected.drawState().vertexCount();
+				int wrong = actual.drawState().vertexCount() == vertices ? compareVertices(expected.vertexBuffer(), actual.vertexBuffer()) : vertices;
+				report("%-24s %8d of %d vertices wrong%s", "plate vertex writer", wrong, vertices, wrong > 0 ? "  FAILED" : "");
+				return wrong == 0;
+			}
+		}
+	}
+
+	/**
+	 * Scenes are written by SceneRecorder into a file stream it closes itself, so the writer has to finish
+	 * the gzip stream without closing it, and what it writes has to read back the same.
+	 *
+	 * @return whether the scene read back equals the one written
+	 */
+	private static boolean checkSceneRoundTrip(SplittableRandom random) {
+		int tickCount = 20;
+		List<Scene.Actor> actors = new ArrayList<>();
+		List<Scene.Tick> ticks = new ArrayList<>();
+		for (int t = 0; t < tickCount; t++) {
+			// Actors join a few at a time, so later ticks mix references and first appearances
+			int present = Math.min(ENTITIES, (t + 1) * ENTITIES / 10);
+			while (actors.size() < present) {
+				int index = actors.size();
+				actors.add(new Scene.Actor(new UUID(random.nextLong(), random.nextLong()), "minecraft:zombie", "Zombie " + index, (index & 3) == 0 ? "Named " + index : null));
+			}
+			Scene.Sample[] samples = new Scene.Sample[present];
+			for (int i = 0; i < present; i++) {
+				samples[i] = new Scene.Sample(i, (float) random.nextDouble(64), (float) random.nextDouble(64), (float) random.nextDouble(64),
+						random.nextInt(301), 300, random.nextInt(21), random.nextInt(256));
+			}
+			ticks.add(new Scene.Tick((float) random.nextDouble(64), 64, (float) random.nextDouble(64), samples));
+		}
+		Scene scene = new Scene(actors, ticks);
+
+		Scene copy;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			scene.write(bytes);
+			copy = Scene.read(new ByteArrayInputStream(bytes.toByteArray()));
+		} catch (IOException e) {
+			report("%-24s %s  FAILED", "scene round trip", e);
+			return false;
+		}
+		int wrong = copy.actors().equals(actors) ? 0 : 1;
+		if (copy.ticks().size() != tickCount) {
+			wrong += tickCount;
+		} else {
+			for (int t = 0; t < tickCount; t++) {
+				Scene.Tick expected = ticks.get(t);
+				Scene.Tick actual = copy.ticks().get(t);
+				// Tick holds an array, so its record equals only compares identity
+				if (Float.compare(expected.cameraX(), actual.cameraX()) != 0 || Float.compare(expected.cameraY(), actual.cameraY()) != 0
+						|| Float.compare(expected.cameraZ(), actual.cameraZ()) != 0 || !Arrays.equals(expected.samples(), actual.samples())) {
+					wrong++;
+				}
+			}
+		}
+		report("%-24s %8d of %d ticks wrong%s", "scene round trip", wrong, tickCount, wrong > 0 ? "  FAILED" : "");
+		return wrong == 0;
+	}
+
+	/**
+	 * @return how many vertices differ, comparing positions within {@link #POSITION_TOLERANCE} and every other byte exactly
+	 */
+	private static int compareVertices(ByteBuffer expected, ByteBuffer actual) {
+		int stride = BAR_FORMAT.getVertexSize();
+		int position = BAR_FORMAT.getOffset(VertexFormatElement.POSITION);
+		int wrong = 0;
+		for (int vertex = 0; vertex < expected.remaining(); vertex += stride) {
+			int expectedAt = expected.position() + vertex;
+			int actualAt = actual.position() + vertex;
+			boolean same = true;
+			for (int b = 0; b < stride; b++) {
+				if (b >= position && b < position + 12) {
+					if (((b - position) & 3) == 0) {
+						same &= Math.abs(expected.getFloat(expectedAt + b) - actual.getFloat(actualAt + b)) <= POSITION_TOLERANCE;
+					}
+				} else {
+					same &= expected.get(expectedAt + b) == actual.get(actualAt + b);
+				}
+			}
+			if (!same) {
+				wrong++;
+			}
+		}
+		return wrong;
+	}
+
+	// Turned and moved, so every axis of the pose PlateVertexWriter reduces matters
+	private static Matrix4f vertexWriterPose() {
+		return new Matrix4f().translate(1.5F, 2.0F, -3.0F).rotateY(0.7F).rotateX(0.3F).scale(-0.0267F, -0.0267F, 0.0267F);
+	}
+
+	private static Stage plateOrder(SplittableRandom random) {
+		DepthOrder order = new DepthOrder();
+		float[] depths = new float[ENTITIES];
+		for (int i = 0; i < ENTITIES; i++) {
+			depths[i] = (float) random.nextDouble(64 * 64);
+		}
+		return new Stage("plate order", 0, ENTITIES, () -> {
+			order.clear();
+			for (int i = 0; i < ENTITIES; i++) {
+				// Entities drift a little between frames
+				depths[i] += (float) random.nextDouble(-1, 1);
+				order.add(i, depths[i]);
+			}
+			order.sort();
+		});
+	}
+
+	private static Stage healthText(SplittableRandom random, BenchmarkConfig config) {
+		PlateSnapshot[] plates = plates(random);
+		DecimalFormat format = new DecimalFormat(config.decimalFormat());
+		return new Stage("health text", 0, ENTITIES, () -> {
+			for (PlateSnapshot plate : plates) {
+				HealthText.currentHealth(plate.animatedHealth, plate.maxHealth, plate.enemyPokemon, format);
+				HealthText.maxHealth(plate.maxHealth, format);
+				HealthText.percentage(plate.animatedHealth, plate.maxHealth);
+			}
+		});
+	}
+
+	/**
+	 * What PlatePipeline does per tick once the client thread has captured each entity: filling pooled
+	 * models, formatting their text through a worker's memo, and indexing them. Capturing itself needs
+	 * a world, so the models are filled from stand-in plates, and the worker's part runs on this thread.
+	 */
+	private static Stage platePipeline(SplittableRandom random, BenchmarkConfig config) {
+		PlateSnapshot[] plates = plates(random);
+		DisplayProfile profile = DisplayProfiles.base(config).showCurrentHP(true).showMaxHP(true).showPercentage(true).build();
+		DecimalFormat format = new DecimalFormat(config.decimalFormat());
+		PlatePipeline.Batch batch = new PlatePipeline.Batch();
+		HealthText.Memo memo = new HealthText.Memo();
+		return new Stage("plate pipeline", 0, ENTITIES, () -> {
+			batch.reset(format, 0);
+			for (int i = 0; i < ENTITIES; i++) {
+				PlateSnapshot plate = plates[i];
+				PlateModel model = batch.add();
+				model.set(null, i, profile, plate.enemyPokemon, plate.enemyPokemon, plate.currentHealth, plate.maxHealth, "Zombie", 36, null, 0);
+				model.animatedHealth = plate.animatedHealth;
+			}
+			batch.releaseUnused();
+			batch.format(0, batch.size(), memo);
+			batch.index();
+		});
+	}
+
+	private static List<Stage> cobblemonLookups() {
+		CobblemonFixture.reset();
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		List<PokemonEntity> entities = new ArrayList<>();
+		for (int side = CobblemonFixture.ALLY_SIDE; side <= CobblemonFixture.ENEMY_SIDE; side++) {
+			CobblemonFixture.Actor actor = battle.actor(side);
+			for (int i = 0; i < 3; i++) {
+				entities.add(actor.send(60, 120).entity);
+			}
+		}
+
+		PokemonEntity[] battlers = entities.toArray(new PokemonEntity[0]);
+		return List.of(
+				// The ClientBattleHealthInfo record, the boxed floats Method.invoke returns, and list
+				// iterators when escape analysis doesn't remove them
+				new Stage("client battle lookup", 128, battlers.length, () -> {
+					for (PokemonEntity entity : battlers) {
+						CobblemonIntegration.getClientBattleHealthUnchecked(entity);
+					}
+				}),
+				// The varargs array for BattleRegistry.getBattle(UUID), and list iterators as above
+				new Stage("server battle lookup", 64, battlers.length, () -> {
+					for (PokemonEntity entity : battlers) {
+						CobblemonIntegration.getPokemonHealthUnchecked(entity, false, null);
+					}
+				}));
+	}
+
+	private static PlateSnapshot[] plates(SplittableRandom random) {
+		PlateSnapshot[] plates = new PlateSnapshot[ENTITIES];
+		DisplayProfile profile = DisplayProfiles.base(NeatConfig.instance).build();
+		for (int i = 0; i < ENTITIES; i++) {
+			PlateSnapshot plate = new PlateSnapshot();
+			plate.profile = profile;
+			plate.pokemon = random.nextInt(4) == 0;
+			plate.enemyPokemon = plate.pokemon && random.nextBoolean();
+			plate.friendly = random.nextBoolean();
+			plate.distance = (float) random.nextDouble(64);
+			plate.maxHealth = 20 + random.nextInt(300);
+			plate.currentHealth = random.nextInt((int) plate.maxHealth + 1);
+			plate.animatedHealth = plate.currentHealth;
+			plate.healthCaptured = true;
+			plates[i] = plate;
+		}
+		return plates;
+	}
+
+	@SuppressWarnings("PMD.SystemPrintln") // This is a command line tool
+	private static void report(String format, Object... args) {
+		System.out.println(String.format(Locale.ROOT, format, args));
+	}
+}
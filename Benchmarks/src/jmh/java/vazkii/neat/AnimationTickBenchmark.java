@@ -0,0 +1,87 @@
+package vazkii.neat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One client tick of {@link HealthAnimationManager} over {@code tracked} entities: every entity is
+ * tracked, then the sweep runs. A slice of the entities takes damage each tick so some health values
+ * are always mid-lerp, and a few despawn and respawn so the sweep has removals to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimationTickBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	int tracked;
+
+	private UUID[] ids;
+	private float[] maxHealth;
+	private boolean[] pokemon;
+	private boolean[] inBattle;
+	private float[] health;
+	private int tick;
+
+	@Setup
+	public void setup() {
+		BenchmarkConfig.install();
+		// At the default cap, so the 10000 case also covers an animation cache that's over it
+		HealthAnimationManager.clear();
+		HealthAnimationManager.cache().setCapacity(NeatCaches.DEFAULT_ENTITY_CAPACITY);
+
+		SplittableRandom random = new SplittableRandom(42);
+		ids = new UUID[tracked];
+		maxHealth = new float[tracked];
+		pokemon = new boolean[tracked];
+		inBattle = new boolean[tracked];
+		health = new float[tracked];
+		for (int i = 0; i < tracked; i++) {
+			ids[i] = new UUID(random.nextLong(), random.nextLong());
+			maxHealth[i] = 20 + random.nextInt(300);
+			health[i] = maxHealth[i];
+			pokemon[i] = random.nextInt(4) == 0;
+			inBattle[i] = pokemon[i] && random.nextInt(3) == 0;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		HealthAnimationManager.clear();
+	}
+
+	@Benchmark
+	public int tick() {
+		tick++;
+		int damaged = tick % 16;
+		int despawned = (tick + 8) % 64;
+		for (int i = 0; i < tracked; i++) {
+			if (i % 64 == despawned) {
+				continue;
+			}
+			if (i % 16 == damaged) {
+				float next = health[i] - maxHealth[i] * 0.1F;
+				health[i] = next > 0 ? next : maxHealth[i];
+			}
+			HealthAnimationManager.track(ids[i], health[i], false, pokemon[i], inBattle[i]);
+		}
+		return HealthAnimationManager.sweep();
+	}
+}
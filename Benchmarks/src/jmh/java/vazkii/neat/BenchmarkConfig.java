@@ -0,0 +1,260 @@
+package vazkii.neat;
+
+import java.util.List;
+
+/**
+ * Config stand-in for benchmarks, starting from the same defaults as the Fabric client config.
+ * Fields are mutable so a benchmark can flip the options it's measuring.
+ */
+public class BenchmarkConfig implements NeatConfig.ConfigAccess {
+
+	int maxDistance = 48;
+	int maxDistanceWithoutLineOfSight = 48;
+	boolean occlusionQueries = false;
+	boolean showOnPassive = true;
+	boolean showOnHostile = true;
+	boolean showOnPlayers = false;
+	boolean showOnBosses = true;
+	boolean showOnlyFocused = false;
+	boolean showFullHealth = true;
+	boolean showOnlyRecentlyDamaged = false;
+	int recentDamageSeconds = 10;
+	boolean cobblemonBattleOnly = true;
+	boolean drawBackground = true;
+	boolean colorByType = false;
+	boolean showEntityName = true;
+	boolean showCurrentHP = false;
+	boolean showMaxHP = false;
+	boolean showPercentage = false;
+	String decimalFormat = "#.##";
+	List<String> displayProfiles = List.of();
+	int maxTrackedEntities = 2048;
+	NeatConfig.DisplayMode displayMode = NeatConfig.DisplayMode.WORLD;
+	int hudListSize = 5;
+	boolean preparePlatesOffThread = false;
+	boolean plateImpostors = false;
+
+	/**
+	 * Installs a fresh config as {@link NeatConfig#instance}.
+	 */
+	static BenchmarkConfig install() {
+		BenchmarkConfig config = new BenchmarkConfig();
+		NeatConfig.instance = config;
+		return config;
+	}
+
+	@Override
+	public int maxDistance() {
+		return maxDistance;
+	}
+
+	@Override
+	public int maxDistanceWithoutLineOfSight() {
+		return maxDistanceWithoutLineOfSight;
+	}
+
+	@Override
+	public boolean occlusionQueries() {
+		return occlusionQueries;
+	}
+
+	@Override
+	public boolean renderInF1() {
+		return false;
+	}
+
+	@Override
+	public double heightAbove() {
+		return 1.0D;
+	}
+
+	@Override
+	public boolean drawBackground() {
+		return drawBackground;
+	}
+
+	@Override
+	public int backgroundPadding() {
+		return 2;
+	}
+
+	@Override
+	public int backgroundHeight() {
+		return 6;
+	}
+
+	@Override
+	public int barHeight() {
+		return 4;
+	}
+
+	@Override
+	public int plateSize() {
+		return 25;
+	}
+
+	@Override
+	public int plateSizeBoss() {
+		return 50;
+	}
+
+	@Override
+	public boolean showAttributes() {
+		return false;
+	}
+
+	@Override
+	public boolean showArmor() {
+		return false;
+	}
+
+	@Override
+	public boolean groupArmor() {
+		return false;
+	}
+
+	@Override
+	public boolean colorByType() {
+		return colorByType;
+	}
+
+	@Override
+	public String textColor() {
+		return "FFFFFF";
+	}
+
+	@Override
+	public int hpTextHeight() {
+		return 14;
+	}
+
+	@Override
+	public boolean showMaxHP() {
+		return showMaxHP;
+	}
+
+	@Override
+	public boolean showCurrentHP() {
+		return showCurrentHP;
+	}
+
+	@Override
+	public boolean showPercentage() {
+		return showPercentage;
+	}
+
+	@Override
+	public boolean showOnPassive() {
+		return showOnPassive;
+	}
+
+	@Override
+	public boolean showOnHostile() {
+		return showOnHostile;
+	}
+
+	@Override
+	public boolean showOnPlayers() {
+		return showOnPlayers;
+	}
+
+	@Override
+	public boolean showOnBosses() {
+		return showOnBosses;
+	}
+
+	@Override
+	public boolean showOnlyFocused() {
+		return showOnlyFocused;
+	}
+
+	@Override
+	public boolean showFullHealth() {
+		return showFullHealth;
+	}
+
+	@Override
+	public boolean showOnlyRecentlyDamaged() {
+		return showOnlyRecentlyDamaged;
+	}
+
+	@Override
+	public int recentDamageSeconds() {
+		return recentDamageSeconds;
+	}
+
+	@Override
+	public boolean enableDebugInfo() {
+		return false;
+	}
+
+	@Override
+	public boolean showEntityName() {
+		return showEntityName;
+	}
+
+	@Override
+	public NeatConfig.NameTagRenderBehavior nameTagRenderBehavior() {
+		return NeatConfig.NameTagRenderBehavior.WHEN_NO_HEALTHBAR;
+	}
+
+	@Override
+	public double iconOffsetX() {
+		return 0.0;
+	}
+
+	@Override
+	public double iconOffsetY() {
+		return 0.0;
+	}
+
+	@Override
+	public String decimalFormat() {
+		return decimalFormat;
+	}
+
+	@Override
+	public List<String> blacklist() {
+		return NeatConfig.DEFAULT_DISABLED;
+	}
+
+	@Override
+	public List<String> displayProfiles() {
+		return displayProfiles;
+	}
+
+	@Override
+	public boolean cobblemonBattleOnly() {
+		return cobblemonBattleOnly;
+	}
+
+	@Override
+	public boolean cobblemonRespectEnemyHpHiding() {
+		return true;
+	}
+
+	@Override
+	public int maxTrackedEntities() {
+		return maxTrackedEntities;
+	}
+
+	@Override
+	public NeatConfig.DisplayMode displayMode() {
+		return displayMode;
+	}
+
+	@Override
+	public int hudListSize() {
+		return hudListSize;
+	}
+
+	@Override
+	public boolean preparePlatesOffThread() {
+		return preparePlatesOffThread;
+	}
+
+	@Override
+	public boolean plateImpostors() {
+		return plateImpostors;
+	}
+}
@@ -0,0 +1,209 @@
+package vazkii.neat;
+
+import com.cobblemon.mod.common.api.battles.model.PokemonBattle;
+import com.cobblemon.mod.common.api.battles.model.actor.BattleActor;
+import com.cobblemon.mod.common.battles.BattleRegistry;
+import com.cobblemon.mod.common.battles.pokemon.BattlePokemon;
+import com.cobblemon.mod.common.client.CobblemonClient;
+import com.cobblemon.mod.common.client.battle.ActiveClientBattlePokemon;
+import com.cobblemon.mod.common.client.battle.ClientBattle;
+import com.cobblemon.mod.common.client.battle.ClientBattlePokemon;
+import com.cobblemon.mod.common.client.battle.ClientBattleSide;
+import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Scriptable battles on top of the stand-in Cobblemon classes in this source set, so CobblemonIntegration
+ * can be exercised offline. Side 1 is the local player's side: its Pokemon report exact HP to the client
+ * like allies do in Cobblemon, side 2 reports HP ratios like enemies.
+ *
+ * <p>
+ * Faults can be injected into any reflected stand-in method by name, e.g.
+ * {@code CobblemonFixture.inject("ClientBattlePokemon.getHpValue")}; the method then throws, which
+ * CobblemonIntegration sees as an InvocationTargetException. Script battles before injecting faults,
+ * the fixture itself goes through the same stand-in methods.
+ */
+public final class CobblemonFixture {
+
+	public static final int ALLY_SIDE = 1;
+	public static final int ENEMY_SIDE = 2;
+
+	private static final Set<String> faults = new HashSet<>();
+
+	private CobblemonFixture() {}
+
+	/**
+	 * Called by every stand-in method CobblemonIntegration reflects on.
+	 */
+	public static void check(String point) {
+		if (!faults.isEmpty() && faults.contains(point)) {
+			throw new IllegalStateException("Injected failure in " + point);
+		}
+	}
+
+	public static void inject(String point) {
+		faults.add(point);
+	}
+
+	public static void clearFaults() {
+		faults.clear();
+	}
+
+	/**
+	 * Clears all battles and faults and closes every circuit breaker. Also makes sure
+	 * CobblemonIntegration has bound to the stand-ins.
+	 */
+	public static void reset() {
+		faults.clear();
+		BattleRegistry.INSTANCE.clear();
+		CobblemonClient.INSTANCE.setBattle(null);
+		if (!CobblemonIntegration.isCobblemonAvailable() || !CobblemonIntegration.isClientBattleSystemAvailable()) {
+			throw new IllegalStateException("Stand-in Cobblemon classes weren't picked up");
+		}
+		for (CircuitBreaker breaker : CobblemonIntegration.getCircuitBreakers()) {
+			breaker.reset();
+		}
+	}
+
+	public static CircuitBreaker breaker(String name) {
+		for (CircuitBreaker breaker : CobblemonIntegration.getCircuitBreakers()) {
+			if (breaker.getName().equals(name)) {
+				return breaker;
+			}
+		}
+		throw new IllegalArgumentException("No circuit breaker named " + name);
+	}
+
+	/**
+	 * A Pokemon entity that's not in any battle.
+	 */
+	public static PokemonEntity wild(int hp, int maxHp) {
+		return new PokemonEntity(new Pokemon(UUID.randomUUID(), hp, maxHp));
+	}
+
+	/**
+	 * Starts a battle, registered with the server side BattleRegistry. Call {@link Battle#showOnClient()}
+	 * to also make it the local player's client battle.
+	 */
+	public static Battle battle() {
+		return new Battle();
+	}
+
+	public static final class Battle {
+		private final PokemonBattle server = new PokemonBattle();
+		private final ClientBattle client = new ClientBattle();
+		private final List<Battler> battlers = new ArrayList<>();
+
+		private Battle() {
+			BattleRegistry.INSTANCE.register(server);
+		}
+
+		public Actor actor(int side) {
+			if (side != ALLY_SIDE && side != ENEMY_SIDE) {
+				throw new IllegalArgumentException("Side must be 1 or 2");
+			}
+			BattleActor actor = new BattleActor();
+			server.actors().add(actor);
+			return new Actor(this, actor, side == ALLY_SIDE ? client.getSide1() : client.getSide2(), side);
+		}
+
+		public Battle showOnClient() {
+			CobblemonClient.INSTANCE.setBattle(client);
+			return this;
+		}
+
+		/**
+		 * Ends the battle on both sides. Entities keep their Battler handles but are no longer in battle.
+		 */
+		public void end() {
+			BattleRegistry.INSTANCE.unregister(server.getBattleId());
+			if (CobblemonClient.INSTANCE.getBattle() == client) {
+				CobblemonClient.INSTANCE.setBattle(null);
+			}
+			for (Battler battler : battlers) {
+				battler.entity.setBattleId(null);
+			}
+		}
+	}
+
+	public static final class Actor {
+		private final Battle battle;
+		private final BattleActor actor;
+		private final ClientBattleSide clientSide;
+		private final int side;
+
+		private Actor(Battle battle, BattleActor actor, ClientBattleSide clientSide, int side) {
+			this.battle = battle;
+			this.actor = actor;
+			this.clientSide = clientSide;
+			this.side = side;
+		}
+
+		/**
+		 * Sends out a Pokemon: it's in the server battle and active on the client side.
+		 */
+		public Battler send(int hp, int maxHp) {
+			Battler battler = add(hp, maxHp);
+			ClientBattlePokemon clientPokemon = new ClientBattlePokemon(battler.uuid, 0, maxHp, side == ALLY_SIDE);
+			clientSide.getActiveClientBattlePokemon().add(new ActiveClientBattlePokemon(clientPokemon));
+			battler.client = clientPokemon;
+			battler.setHp(hp);
+			return battler;
+		}
+
+		/**
+		 * Adds a Pokemon to the actor's party without sending it out, so only the server knows about it.
+		 */
+		public Battler bench(int hp, int maxHp) {
+			return add(hp, maxHp);
+		}
+
+		private Battler add(int hp, int maxHp) {
+			UUID uuid = UUID.randomUUID();
+			Pokemon original = new Pokemon(uuid, maxHp, maxHp);
+			// Cobblemon battles a clone for wild and NPC Pokemon, damage lands there
+			Pokemon clone = new Pokemon(uuid, hp, maxHp);
+			actor.getPokemonList().add(new BattlePokemon(original, clone));
+			PokemonEntity entity = new PokemonEntity(original);
+			entity.setBattleId(battle.server.getBattleId());
+			Battler battler = new Battler(uuid, entity, original, clone, side, maxHp);
+			battle.battlers.add(battler);
+			return battler;
+		}
+	}
+
+	public static final class Battler {
+		public final UUID uuid;
+		public final PokemonEntity entity;
+		public final Pokemon original;
+		public final Pokemon clone;
+		public final int side;
+		public final int maxHp;
+		ClientBattlePokemon client;
+
+		private Battler(UUID uuid, PokemonEntity entity, Pokemon original, Pokemon clone, int side, int maxHp) {
+			this.uuid = uuid;
+			this.entity = entity;
+			this.original = original;
+			this.clone = clone;
+			this.side = side;
+			this.maxHp = maxHp;
+		}
+
+		/**
+		 * Applies damage or healing on the server and, if the Pokemon is active, on the client.
+		 */
+		public void setHp(int hp) {
+			clone.setCurrentHealth(hp);
+			if (client != null) {
+				client.setHpValue(side == ALLY_SIDE ? hp : (float) hp / maxHp);
+			}
+		}
+	}
+}
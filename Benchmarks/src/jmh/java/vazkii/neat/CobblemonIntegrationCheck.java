@@ -0,0 +1,236 @@
+package vazkii.neat;
+
+import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
+
+import java.util.Locale;
+
+/**
+ * Offline correctness checks for CobblemonIntegration's reflective lookups, against
+ * {@link CobblemonFixture}. Covers the server and client battle paths, HP updates, battles with many
+ * participants, and how the circuit breakers react to injected failures.
+ *
+ * <p>
+ * Run with {@code ./gradlew :Benchmarks:cobblemonCheck}; it's also part of {@code check}.
+ */
+public class CobblemonIntegrationCheck {
+
+	private static final String CLIENT_BATTLE = "client battle";
+	private static final String SERVER_BATTLE = "server battle";
+	private static final String POKEMON_HEALTH = "Pokemon health";
+
+	private static int failed = 0;
+	private static String scenario;
+
+	public static void main(String[] args) {
+		BenchmarkConfig.install();
+
+		run("wild Pokemon", CobblemonIntegrationCheck::wildPokemon);
+		run("server battle clone", CobblemonIntegrationCheck::serverBattle);
+		run("client battle ally and enemy", CobblemonIntegrationCheck::clientBattle);
+		run("HP updates", CobblemonIntegrationCheck::hpUpdates);
+		run("benched Pokemon", CobblemonIntegrationCheck::benched);
+		run("battle end", CobblemonIntegrationCheck::battleEnd);
+		run("many participants", CobblemonIntegrationCheck::manyParticipants);
+		run("client fault trips and recovers", CobblemonIntegrationCheck::clientFault);
+		run("failed trial call retrips", CobblemonIntegrationCheck::trialRetrip);
+		run("server fault falls back", CobblemonIntegrationCheck::serverFault);
+		run("Pokemon fault", CobblemonIntegrationCheck::pokemonFault);
+		run("battle id fault stays on its side", CobblemonIntegrationCheck::battleIdFault);
+
+		if (failed > 0) {
+			report("%d check(s) failed", failed);
+			System.exit(1);
+		}
+		report("All checks passed");
+	}
+
+	private static void wildPokemon() {
+		PokemonEntity wild = CobblemonFixture.wild(17, 40);
+		expectEquals(17, CobblemonIntegration.getPokemonHealthUnchecked(wild, false, null), "current health");
+		expectEquals(40, CobblemonIntegration.getPokemonHealthUnchecked(wild, true, null), "max health");
+		expect(CobblemonIntegration.getClientBattleHealthUnchecked(wild) == null, "no client battle info");
+	}
+
+	private static void serverBattle() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle();
+		CobblemonFixture.Battler enemy = battle.actor(CobblemonFixture.ENEMY_SIDE).send(30, 120);
+		expectEquals(30, CobblemonIntegration.getPokemonHealthUnchecked(enemy.entity, false, null), "clone health, not the original's");
+		expectEquals(120, CobblemonIntegration.getPokemonHealthUnchecked(enemy.entity, true, null), "max health");
+		expect(CobblemonIntegration.getClientBattleHealthUnchecked(enemy.entity) == null, "not the local player's battle");
+	}
+
+	private static void clientBattle() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		CobblemonFixture.Battler ally = battle.actor(CobblemonFixture.ALLY_SIDE).send(50, 100);
+		CobblemonFixture.Battler enemy = battle.actor(CobblemonFixture.ENEMY_SIDE).send(30, 120);
+
+		CobblemonIntegration.ClientBattleHealthInfo allyInfo = CobblemonIntegration.getClientBattleHealthUnchecked(ally.entity);
+		expect(allyInfo != null && allyInfo.inBattle(), "ally found");
+		if (allyInfo != null) {
+			expect(allyInfo.isHpFlat(), "ally HP is flat");
+			expectEquals(50.0F, allyInfo.hpValue(), "ally HP");
+			expectEquals(100.0F, allyInfo.maxHp(), "ally max HP");
+		}
+
+		CobblemonIntegration.ClientBattleHealthInfo enemyInfo = CobblemonIntegration.getClientBattleHealthUnchecked(enemy.entity);
+		expect(enemyInfo != null && enemyInfo.inBattle(), "enemy found");
+		if (enemyInfo != null) {
+			expect(!enemyInfo.isHpFlat(), "enemy HP is a ratio");
+			expectEquals(0.25F, enemyInfo.hpValue(), "enemy HP ratio");
+		}
+	}
+
+	private static void hpUpdates() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		CobblemonFixture.Battler enemy = battle.actor(CobblemonFixture.ENEMY_SIDE).send(120, 120);
+		enemy.setHp(60);
+		expectEquals(60, CobblemonIntegration.getPokemonHealthUnchecked(enemy.entity, false, null), "server sees damage");
+		CobblemonIntegration.ClientBattleHealthInfo info = CobblemonIntegration.getClientBattleHealthUnchecked(enemy.entity);
+		expect(info != null && info.hpValue() == 0.5F, "client sees damage");
+		enemy.setHp(0);
+		expectEquals(0, CobblemonIntegration.getPokemonHealthUnchecked(enemy.entity, false, null), "server sees faint");
+	}
+
+	private static void benched() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		CobblemonFixture.Actor actor = battle.actor(CobblemonFixture.ALLY_SIDE);
+		actor.send(80, 80);
+		CobblemonFixture.Battler benched = actor.bench(25, 90);
+		expectEquals(25, CobblemonIntegration.getPokemonHealthUnchecked(benched.entity, false, null), "server finds benched Pokemon");
+		expect(CobblemonIntegration.getClientBattleHealthUnchecked(benched.entity) == null, "client only knows active Pokemon");
+	}
+
+	private static void battleEnd() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		CobblemonFixture.Battler enemy = battle.actor(CobblemonFixture.ENEMY_SIDE).send(10, 50);
+		battle.end();
+		expectEquals(50, CobblemonIntegration.getPokemonHealthUnchecked(enemy.entity, false, null), "original's health after the battle");
+		expect(CobblemonIntegration.getClientBattleHealthUnchecked(enemy.entity) == null, "no client info after the battle");
+	}
+
+	private static void manyParticipants() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		CobblemonFixture.Battler last = null;
+		for (int i = 0; i < 32; i++) {
+			CobblemonFixture.Actor actor = battle.actor(i % 2 == 0 ? CobblemonFixture.ALLY_SIDE : CobblemonFixture.ENEMY_SIDE);
+			for (int j = 0; j < 5; j++) {
+				actor.bench(1 + j, 100);
+			}
+			last = actor.send(40 + i, 100);
+		}
+		expectEquals(71, CobblemonIntegration.getPokemonHealthUnchecked(last.entity, false, null), "last participant on the server");
+		CobblemonIntegration.ClientBattleHealthInfo info = CobblemonIntegration.getClientBattleHealthUnchecked(last.entity);
+		expect(info != null && info.hpValue() == 0.71F, "last participant on the client");
+	}
+
+	private static void clientFault() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		CobblemonFixture.Battler ally = battle.actor(CobblemonFixture.ALLY_SIDE).send(50, 100);
+		CircuitBreaker breaker = CobblemonFixture.breaker(CLIENT_BATTLE);
+
+		CobblemonFixture.inject("ClientBattlePokemon.getHpValue");
+		for (int i = 0; i < 5; i++) {
+			expect(CobblemonIntegration.getClientBattleHealthUnchecked(ally.entity) == null, "failing lookup returns null");
+		}
+		expect(breaker.isOpen(), "breaker open after repeated failures");
+		long failures = breaker.getTotalFailures();
+		CobblemonIntegration.getClientBattleHealthUnchecked(ally.entity);
+		expectEquals(failures, breaker.getTotalFailures(), "open breaker skips the reflective call");
+
+		CobblemonFixture.clearFaults();
+		breaker.expireBackoff();
+		expect(CobblemonIntegration.getClientBattleHealthUnchecked(ally.entity) != null, "trial call succeeds once fixed");
+		expect(!breaker.isOpen(), "breaker closed after recovery");
+	}
+
+	private static void trialRetrip() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		CobblemonFixture.Battler ally = battle.actor(CobblemonFixture.ALLY_SIDE).send(50, 100);
+		CircuitBreaker breaker = CobblemonFixture.breaker(CLIENT_BATTLE);
+
+		CobblemonFixture.inject("ClientBattle.getSide1");
+		for (int i = 0; i < 5; i++) {
+			CobblemonIntegration.getClientBattleHealthUnchecked(ally.entity);
+		}
+		breaker.expireBackoff();
+		expect(!breaker.isOpen(), "half open after backoff");
+		CobblemonIntegration.getClientBattleHealthUnchecked(ally.entity);
+		expect(breaker.isOpen(), "one failed trial call reopens");
+		expectEquals(2L, breaker.getTrips(), "tripped twice");
+	}
+
+	private static void serverFault() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle();
+		CobblemonFixture.Battler enemy = battle.actor(CobblemonFixture.ENEMY_SIDE).send(30, 120);
+
+		CobblemonFixture.inject("PokemonBattle.getActors");
+		expectEquals(120, CobblemonIntegration.getPokemonHealthUnchecked(enemy.entity, false, null), "falls back to the original's health");
+		expectEquals(1L, CobblemonFixture.breaker(SERVER_BATTLE).getTotalFailures(), "server battle failure recorded");
+		expectEquals(0L, CobblemonFixture.breaker(POKEMON_HEALTH).getTotalFailures(), "Pokemon health path unaffected");
+	}
+
+	private static void pokemonFault() {
+		PokemonEntity wild = CobblemonFixture.wild(17, 40);
+		CobblemonFixture.inject("PokemonEntity.getPokemon");
+		expectEquals(-1, CobblemonIntegration.getPokemonHealthUnchecked(wild, false, null), "failing lookup returns -1");
+		expectEquals(1L, CobblemonFixture.breaker(POKEMON_HEALTH).getTotalFailures(), "Pokemon health failure recorded");
+	}
+
+	private static void battleIdFault() {
+		CobblemonFixture.Battle battle = CobblemonFixture.battle();
+		CobblemonFixture.Battler enemy = battle.actor(CobblemonFixture.ENEMY_SIDE).send(30, 120);
+		expect(CobblemonIntegration.isInBattleUnchecked(enemy.entity, true), "in battle on the client");
+		expect(CobblemonIntegration.isInBattleUnchecked(enemy.entity, false), "in battle on the server");
+
+		CobblemonFixture.inject("PokemonEntity.getBattleId");
+		expect(!CobblemonIntegration.isInBattleUnchecked(enemy.entity, true), "failing client lookup returns false");
+		expectEquals(1L, CobblemonFixture.breaker(CLIENT_BATTLE).getTotalFailures(), "client battle failure recorded");
+		expectEquals(0L, CobblemonFixture.breaker(SERVER_BATTLE).getTotalFailures(), "server battle path unaffected");
+		expect(!CobblemonIntegration.isInBattleUnchecked(enemy.entity, false), "failing server lookup returns false");
+		expectEquals(1L, CobblemonFixture.breaker(SERVER_BATTLE).getTotalFailures(), "server battle failure recorded");
+		expectEquals(0L, CobblemonFixture.breaker(POKEMON_HEALTH).getTotalFailures(), "Pokemon health path unaffected");
+
+		CobblemonFixture.clearFaults();
+		expectEquals(30, CobblemonIntegration.getPokemonHealthUnchecked(enemy.entity, false, null), "Pokemon health still looked up");
+	}
+
+	private static void run(String name, Runnable check) {
+		scenario = name;
+		CobblemonFixture.reset();
+		int before = failed;
+		try {
+			check.run();
+		} catch (RuntimeException e) {
+			fail("threw " + e);
+		}
+		report("%s %s", failed == before ? "PASS" : "FAIL", name);
+	}
+
+	private static void expect(boolean condition, String what) {
+		if (!condition) {
+			fail(what);
+		}
+	}
+
+	private static void expectEquals(long expected, long actual, String what) {
+		if (expected != actual) {
+			fail(what + ": expected " + expected + ", got " + actual);
+		}
+	}
+
+	private static void expectEquals(float expected, float actual, String what) {
+		if (Math.abs(expected - actual) > 1.0E-4F) {
+			fail(what + ": expected " + expected + ", got " + actual);
+		}
+	}
+
+	private static void fail(String what) {
+		failed++;
+		report("  %s: %s", scenario, what);
+	}
+
+	@SuppressWarnings("PMD.SystemPrintln") // This is a command line tool
+	private static void report(String format, Object... args) {
+		System.out.println(String.format(Locale.ROOT, format, args));
+	}
+}
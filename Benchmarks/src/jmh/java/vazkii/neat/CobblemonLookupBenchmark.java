@@ -0,0 +1,74 @@
+package vazkii.neat;
+
+import com.cobblemon.mod.common.entity.pokemon.PokemonEntity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CobblemonIntegration's reflective lookups against {@link CobblemonFixture} battles. The looked-up
+ * Pokemon is always the last one searched, so each score is the worst case for a battle of that size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CobblemonLookupBenchmark {
+
+	/** Actors in the battle, split between both sides: 2 is a regular battle, more are multi battles and raids */
+	@Param({ "2", "8", "32" })
+	int actors;
+
+	/** Pokemon each actor has sent out; the rest of a party of 6 is benched */
+	@Param({ "1", "3" })
+	int active;
+
+	private PokemonEntity inBattle;
+	private PokemonEntity outOfBattle;
+
+	@Setup
+	public void setup() {
+		BenchmarkConfig.install();
+		CobblemonFixture.reset();
+
+		CobblemonFixture.Battle battle = CobblemonFixture.battle().showOnClient();
+		for (int i = 0; i < actors; i++) {
+			CobblemonFixture.Actor actor = battle.actor(i % 2 == 0 ? CobblemonFixture.ALLY_SIDE : CobblemonFixture.ENEMY_SIDE);
+			for (int j = active; j < 6; j++) {
+				actor.bench(100, 120);
+			}
+			for (int j = 0; j < active; j++) {
+				inBattle = actor.send(60, 120).entity;
+			}
+		}
+		outOfBattle = CobblemonFixture.wild(80, 120);
+	}
+
+	@Benchmark
+	public Object clientBattleHealth() {
+		return CobblemonIntegration.getClientBattleHealthUnchecked(inBattle);
+	}
+
+	@Benchmark
+	public int serverBattleHealth() {
+		return CobblemonIntegration.getPokemonHealthUnchecked(inBattle, false, null);
+	}
+
+	@Benchmark
+	public int outOfBattleHealth() {
+		return CobblemonIntegration.getPokemonHealthUnchecked(outOfBattle, false, null);
+	}
+}
@@ -0,0 +1,63 @@
+package vazkii.neat;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+/**
+ * A {@link VertexConsumer} that stands in for a real buffer: it counts vertices and folds every
+ * attribute into a checksum, so the JIT can't drop the work that produced them.
+ */
+public class CountingVertexConsumer implements VertexConsumer {
+
+	private long vertices;
+	private double checksum;
+
+	public long vertices() {
+		return vertices;
+	}
+
+	public double checksum() {
+		return checksum;
+	}
+
+	public void reset() {
+		vertices = 0;
+		checksum = 0;
+	}
+
+	@Override
+	public VertexConsumer addVertex(float x, float y, float z) {
+		vertices++;
+		checksum += x + y + z;
+		return this;
+	}
+
+	@Override
+	public VertexConsumer setColor(int r, int g, int b, int a) {
+		checksum += r + g + b + a;
+		return this;
+	}
+
+	@Override
+	public VertexConsumer setUv(float u, float v) {
+		checksum += u + v;
+		return this;
+	}
+
+	@Override
+	public VertexConsumer setUv1(int u, int v) {
+		checksum += u + v;
+		return this;
+	}
+
+	@Override
+	public VertexConsumer setUv2(int u, int v) {
+		checksum += u + v;
+		return this;
+	}
+
+	@Override
+	public VertexConsumer setNormal(float x, float y, float z) {
+		checksum += x + y + z;
+		return this;
+	}
+}
@@ -0,0 +1,60 @@
+package vazkii.neat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vazkii.neat.core.HealthText;
+
+import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-plate health text formatting, with the default "#.##" format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HealthTextBenchmark {
+
+	private DecimalFormat format;
+	private float animatedHealth;
+	private float maxHealth;
+
+	@Setup
+	public void setup() {
+		format = new DecimalFormat(new BenchmarkConfig().decimalFormat);
+		animatedHealth = 87.4213F; // Mid-lerp, so the fraction digits are actually formatted
+		maxHealth = 142;
+	}
+
+	@Benchmark
+	public String currentHealth() {
+		return HealthText.currentHealth(animatedHealth, maxHealth, false, format);
+	}
+
+	@Benchmark
+	public String currentHealthHidden() {
+		return HealthText.currentHealth(animatedHealth, maxHealth, true, format);
+	}
+
+	@Benchmark
+	public String maxHealth() {
+		return HealthText.maxHealth(maxHealth, format);
+	}
+
+	@Benchmark
+	public String percentage() {
+		return HealthText.percentage(animatedHealth, maxHealth);
+	}
+}
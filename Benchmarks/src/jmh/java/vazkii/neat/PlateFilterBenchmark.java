@@ -0,0 +1,80 @@
+package vazkii.neat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.RejectReason;
+import vazkii.neat.core.TypeFilter;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The config-driven plate filter over a frame's worth of synthetic entities.
+ * Scores are per frame, i.e. per pass over all {@code entities}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlateFilterBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	int entities;
+
+	@Param({ "true", "false" })
+	boolean showFullHealth;
+
+	private PlateSnapshot[] plates;
+	private BenchmarkConfig config;
+	private TypeFilter typeFilter;
+
+	@Setup
+	public void setup() {
+		config = BenchmarkConfig.install();
+		config.showFullHealth = showFullHealth;
+		typeFilter = PlateFilter.typeFilter(config);
+
+		SplittableRandom random = new SplittableRandom(42);
+		DisplayProfile profile = DisplayProfiles.base(config).build();
+		plates = new PlateSnapshot[entities];
+		for (int i = 0; i < entities; i++) {
+			PlateSnapshot plate = new PlateSnapshot();
+			plate.profile = profile;
+			plate.pokemon = random.nextInt(4) == 0;
+			plate.boss = random.nextInt(200) == 0;
+			plate.player = !plate.pokemon && random.nextInt(20) == 0;
+			plate.friendly = plate.pokemon || random.nextBoolean();
+			plate.blacklisted = random.nextInt(50) == 0;
+			plate.distance = (float) random.nextDouble(96);
+			plate.maxHealth = 20 + random.nextInt(300);
+			plate.currentHealth = random.nextInt(3) == 0 ? random.nextInt((int) plate.maxHealth) : plate.maxHealth;
+			plate.healthCaptured = true;
+			plates[i] = plate;
+		}
+	}
+
+	@Benchmark
+	public void filter(Blackhole blackhole) {
+		for (PlateSnapshot plate : plates) {
+			RejectReason reason = PlateFilter.rejectByType(plate, typeFilter);
+			if (reason == null) {
+				reason = PlateFilter.rejectByHealth(plate, config);
+			}
+			blackhole.consume(reason);
+		}
+	}
+}
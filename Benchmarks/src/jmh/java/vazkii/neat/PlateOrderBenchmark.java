@@ -0,0 +1,79 @@
+package vazkii.neat;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vazkii.neat.core.DepthOrder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Back to front ordering of a frame's plates, with entities drifting a little between frames.
+ * {@code coherent} is what PlateBatch does, {@code fullSort} sorts every frame from scratch for comparison.
+ * Scores are per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlateOrderBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	int plates;
+
+	private final DepthOrder order = new DepthOrder();
+	private final SplittableRandom random = new SplittableRandom(42);
+	private float[] depths;
+	private int[] indices;
+	private final IntComparator backToFront = (a, b) -> Float.compare(depths[b], depths[a]);
+
+	@Setup
+	public void setup() {
+		depths = new float[plates];
+		indices = new int[plates];
+		for (int i = 0; i < plates; i++) {
+			depths[i] = (float) random.nextDouble(64 * 64);
+		}
+	}
+
+	private void drift() {
+		for (int i = 0; i < plates; i++) {
+			depths[i] += (float) random.nextDouble(-1, 1);
+		}
+	}
+
+	@Benchmark
+	public int[] coherent() {
+		drift();
+		order.clear();
+		for (int i = 0; i < plates; i++) {
+			order.add(i, depths[i]);
+		}
+		return order.sort();
+	}
+
+	@Benchmark
+	public int[] fullSort() {
+		drift();
+		for (int i = 0; i < plates; i++) {
+			indices[i] = i;
+		}
+		IntArrays.quickSort(indices, 0, plates, backToFront);
+		return indices;
+	}
+}
@@ -0,0 +1,97 @@
+package vazkii.neat;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.VertexFormat;
+
+import vazkii.neat.mixin.AccessorBufferBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A real {@link BufferBuilder} that implements {@link AccessorBufferBuilder} itself, since mixins aren't
+ * applied outside the game. Lets the benchmarks drive {@link PlateVertexWriter}'s bulk path. Fields and
+ * methods are reached through handles, which don't box or allocate once they're linked.
+ */
+public class ReflectiveBufferBuilder extends BufferBuilder implements AccessorBufferBuilder {
+
+	private static final VarHandle BUFFER;
+	private static final VarHandle FORMAT;
+	private static final VarHandle MODE;
+	private static final VarHandle VERTICES;
+	private static final VarHandle VERTEX_POINTER;
+	private static final MethodHandle ENSURE_BUILDING;
+	private static final MethodHandle END_LAST_VERTEX;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(BufferBuilder.class, MethodHandles.lookup());
+			BUFFER = lookup.findVarHandle(BufferBuilder.class, "buffer", ByteBufferBuilder.class);
+			FORMAT = lookup.findVarHandle(BufferBuilder.class, "format", VertexFormat.class);
+			MODE = lookup.findVarHandle(BufferBuilder.class, "mode", VertexFormat.Mode.class);
+			VERTICES = lookup.findVarHandle(BufferBuilder.class, "vertices", int.class);
+			VERTEX_POINTER = lookup.findVarHandle(BufferBuilder.class, "vertexPointer", long.class);
+			ENSURE_BUILDING = lookup.findVirtual(BufferBuilder.class, "ensureBuilding", MethodType.methodType(void.class));
+			END_LAST_VERTEX = lookup.findVirtual(BufferBuilder.class, "endLastVertex", MethodType.methodType(void.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	public ReflectiveBufferBuilder(ByteBufferBuilder buffer, VertexFormat.Mode mode, VertexFormat format) {
+		super(buffer, mode, format);
+	}
+
+	@Override
+	public ByteBufferBuilder neat_getBuffer() {
+		return (ByteBufferBuilder) BUFFER.get((BufferBuilder) this);
+	}
+
+	@Override
+	public VertexFormat neat_getFormat() {
+		return (VertexFormat) FORMAT.get((BufferBuilder) this);
+	}
+
+	@Override
+	public VertexFormat.Mode neat_getMode() {
+		return (VertexFormat.Mode) MODE.get((BufferBuilder) this);
+	}
+
+	@Override
+	public int neat_getVertices() {
+		return (int) VERTICES.get((BufferBuilder) this);
+	}
+
+	@Override
+	public void neat_setVertices(int vertices) {
+		VERTICES.set((BufferBuilder) this, vertices);
+	}
+
+	@Override
+	public void neat_setVertexPointer(long pointer) {
+		VERTEX_POINTER.set((BufferBuilder) this, pointer);
+	}
+
+	@Override
+	public void neat_ensureBuilding() {
+		invoke(ENSURE_BUILDING);
+	}
+
+	@Override
+	public void neat_endLastVertex() {
+		invoke(END_LAST_VERTEX);
+	}
+
+	private void invoke(MethodHandle method) {
+		try {
+			method.invokeExact((BufferBuilder) this);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,384 @@
+package vazkii.neat;
+
+import net.minecraft.ChatFormatting;
+
+import org.joml.Matrix4f;
+
+import vazkii.neat.core.DepthOrder;
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.HealthText;
+import vazkii.neat.core.ProfileSpec;
+import vazkii.neat.core.RejectReason;
+import vazkii.neat.core.TypeFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Replays a scene recorded with {@link SceneRecorder} through the animation, visibility and plate
+ * building stages, headless, and reports the per-frame time distribution and allocation rate.
+ *
+ * <p>
+ * Usage: {@code ./gradlew :Benchmarks:replayScene -Pscene=<file> [-PreplayArgs="--passes 20 --text"]}
+ *
+ * <p>
+ * Options:
+ * <ul>
+ * <li>{@code --warmup N}: passes over the scene before measuring (default 5)</li>
+ * <li>{@code --passes N}: measured passes (default 10)</li>
+ * <li>{@code --frames-per-tick N}: frames rendered per recorded tick, 3 is 60 fps (default 3)</li>
+ * <li>{@code --text}: also draw current HP, max HP and percentage</li>
+ * </ul>
+ *
+ * <p>
+ * What the replay can't reproduce without a world: the focus raycast, passenger, invisibility and
+ * team checks are skipped, line of sight comes from the recording, text is measured at a fixed 6px
+ * per glyph and each glyph is emitted as one quad instead of going through the font renderer, and
+ * icons aren't drawn. Scenes only record entity type ids, so display profiles are matched by id and
+ * their tag and category selectors and the boss plate size don't apply.
+ */
+public class SceneReplay {
+
+	private static final float GLOBAL_SCALE = 0.0267F;
+	private static final float TEXT_SCALE = 0.5F;
+	private static final float GLYPH_WIDTH = 6.0F;
+
+	private final Scene scene;
+	private final BenchmarkConfig config;
+	private final TypeFilter typeFilter;
+	private final int framesPerTick;
+
+	// Per actor, resolved once like CompiledConfig does in game
+	private final UUID[] uuids;
+	private final DisplayProfile[] profiles;
+
+	private final PlateSnapshot[] plates;
+	// Shown plates are drawn back to front like PlateBatch does, shown[index from depthOrder] = sample index
+	private final DepthOrder depthOrder = new DepthOrder();
+	private final int[] shown;
+	private final Matrix4f pose = new Matrix4f();
+	private final CountingVertexConsumer bars = new CountingVertexConsumer();
+	private final CountingVertexConsumer glyphs = new CountingVertexConsumer();
+	private final DecimalFormat healthFormat;
+
+	private final long[] rejections = new long[RejectReason.values().length];
+	private long platesDrawn;
+
+	SceneReplay(Scene scene, BenchmarkConfig config, int framesPerTick) {
+		this.scene = scene;
+		this.config = config;
+		this.typeFilter = PlateFilter.typeFilter(config);
+		this.framesPerTick = framesPerTick;
+		this.healthFormat = new DecimalFormat(config.decimalFormat());
+
+		Set<String> blacklist = new HashSet<>(config.blacklist());
+		List<ProfileSpec> specs = DisplayProfiles.parse(config);
+		int actorCount = scene.actors().size();
+		uuids = new UUID[actorCount];
+		profiles = new DisplayProfile[actorCount];
+		for (int i = 0; i < actorCount; i++) {
+			Scene.Actor actor = scene.actors().get(i);
+			uuids[i] = actor.uuid();
+			DisplayProfile.Builder profile = DisplayProfiles.base(config).hidden(blacklist.contains(actor.type()));
+			for (ProfileSpec spec : specs) {
+				if (spec.ids().contains(actor.type())) {
+					spec.applyTo(profile);
+				}
+			}
+			profiles[i] = profile.build();
+		}
+
+		int maxSamples = 0;
+		for (Scene.Tick tick : scene.ticks()) {
+			maxSamples = Math.max(maxSamples, tick.samples().length);
+		}
+		plates = new PlateSnapshot[maxSamples];
+		shown = new int[maxSamples];
+		for (int i = 0; i < maxSamples; i++) {
+			plates[i] = new PlateSnapshot();
+		}
+	}
+
+	/**
+	 * Runs one pass over the scene.
+	 *
+	 * @param frameNanos  receives each frame's time, or null to not record
+	 * @param tickNanos   receives each tick's time, or null to not record
+	 */
+	void pass(long[] frameNanos, long[] tickNanos) {
+		HealthAnimationManager.clear();
+		int frameIndex = 0;
+		int tickIndex = 0;
+		for (Scene.Tick tick : scene.ticks()) {
+			long start = System.nanoTime();
+			animate(tick);
+			if (tickNanos != null) {
+				tickNanos[tickIndex] = System.nanoTime() - start;
+			}
+			tickIndex++;
+
+			for (int f = 0; f < framesPerTick; f++) {
+				start = System.nanoTime();
+				frame(tick);
+				if (frameNanos != null) {
+					frameNanos[frameIndex] = System.nanoTime() - start;
+				}
+				frameIndex++;
+			}
+		}
+	}
+
+	private void animate(Scene.Tick tick) {
+		for (Scene.Sample sample : tick.samples()) {
+			boolean pokemon = sample.has(Scene.FLAG_POKEMON);
+			HealthAnimationManager.track(uuids[sample.actor()], sample.health(), sample.has(Scene.FLAG_DEAD),
+					pokemon, pokemon && sample.has(Scene.FLAG_IN_BATTLE));
+		}
+		HealthAnimationManager.sweep();
+	}
+
+	private void frame(Scene.Tick tick) {
+		Scene.Sample[] samples = tick.samples();
+		depthOrder.clear();
+		for (int i = 0; i < samples.length; i++) {
+			Scene.Sample sample = samples[i];
+			PlateSnapshot plate = plates[i];
+			reset(plate, sample, tick);
+
+			UUID id = uuids[sample.actor()];
+			RejectReason reason = HealthAnimationManager.isFadingOut(id) ? null : getRejectReason(plate, sample, id);
+			if (reason == null) {
+				plate.alpha = HealthAnimationManager.getAlpha(id);
+				if (plate.alpha <= 0.0F) {
+					reason = RejectReason.FADED;
+				}
+			}
+			if (reason != null) {
+				rejections[reason.ordinal()]++;
+				continue;
+			}
+			captureHealth(plate, sample, id);
+			shown[depthOrder.add(sample.actor(), plate.distance * plate.distance)] = i;
+		}
+		int count = depthOrder.size();
+		if (count > 0) {
+			int[] sorted = depthOrder.sort();
+			for (int i = 0; i < count; i++) {
+				int index = shown[sorted[i]];
+				buildPlate(plates[index], samples[index], tick);
+			}
+		}
+	}
+
+	private void reset(PlateSnapshot plate, Scene.Sample sample, Scene.Tick tick) {
+		plate.alpha = 1.0F;
+		plate.profile = profiles[sample.actor()];
+		plate.pokemon = sample.has(Scene.FLAG_POKEMON);
+		plate.boss = sample.has(Scene.FLAG_BOSS);
+		plate.friendly = sample.has(Scene.FLAG_FRIENDLY);
+		plate.player = sample.has(Scene.FLAG_PLAYER);
+		plate.blacklisted = plate.profile.hidden;
+		float dx = sample.x() - tick.cameraX();
+		float dy = sample.y() - tick.cameraY();
+		float dz = sample.z() - tick.cameraZ();
+		plate.distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+		plate.healthCaptured = false;
+		plate.enemyPokemon = false;
+	}
+
+	/**
+	 * Same order as HealthBarRenderer.getRejectReason, minus the checks that need a world.
+	 */
+	private RejectReason getRejectReason(PlateSnapshot plate, Scene.Sample sample, UUID id) {
+		if (config.showOnlyRecentlyDamaged() && !HealthAnimationManager.wasDamagedWithin(id, config.recentDamageSeconds() * 20)
+				&& !(plate.pokemon && sample.has(Scene.FLAG_IN_BATTLE))) {
+			return RejectReason.NOT_DAMAGED;
+		}
+		RejectReason reason = PlateFilter.rejectByType(plate, typeFilter);
+		if (reason != null) {
+			return reason;
+		}
+		if (plate.profile.cobblemonBattleOnly && plate.pokemon && !sample.has(Scene.FLAG_IN_BATTLE)) {
+			return RejectReason.BATTLE_ONLY;
+		}
+		if (plate.distance > config.maxDistanceWithoutLineOfSight() && !sample.has(Scene.FLAG_LINE_OF_SIGHT)) {
+			return RejectReason.LINE_OF_SIGHT;
+		}
+		if (!config.showFullHealth()) {
+			captureHealth(plate, sample, id);
+			return PlateFilter.rejectByHealth(plate, config);
+		}
+		return null;
+	}
+
+	private static void captureHealth(PlateSnapshot plate, Scene.Sample sample, UUID id) {
+		if (plate.healthCaptured) {
+			return;
+		}
+		plate.healthCaptured = true;
+		plate.enemyPokemon = sample.has(Scene.FLAG_ENEMY_POKEMON);
+		plate.currentHealth = sample.health();
+		plate.maxHealth = sample.maxHealth();
+		plate.animatedHealth = HealthAnimationManager.getAnimatedHealth(id, plate.currentHealth);
+	}
+
+	private void buildPlate(PlateSnapshot plate, Scene.Sample sample, Scene.Tick tick) {
+		platesDrawn++;
+		Scene.Actor actor = scene.actors().get(sample.actor());
+		String name = actor.customName() != null ? ChatFormatting.ITALIC + actor.customName() : actor.displayName();
+		float nameLen = name.length() * GLYPH_WIDTH * TEXT_SCALE;
+		DisplayProfile profile = plate.profile;
+		float halfSize = Math.max(profile.plateSize, nameLen / 2.0F + 10.0F);
+		int barHeight = config.barHeight();
+
+		pose.translation(sample.x() - tick.cameraX(), sample.y() - tick.cameraY() + (float) profile.heightAbove, sample.z() - tick.cameraZ())
+				.scale(-GLOBAL_SCALE, -GLOBAL_SCALE, GLOBAL_SCALE);
+
+		if (profile.drawBackground) {
+			int bgHeight = config.backgroundHeight();
+			if (!profile.showEntityName) {
+				bgHeight -= 4;
+			}
+			PlateGeometry.background(pose, bars, halfSize, config.backgroundPadding(), bgHeight, barHeight, plate.alpha);
+		}
+		PlateGeometry.bar(pose, bars, plate, halfSize, barHeight, plate.alpha, config.colorByType());
+
+		if (profile.showEntityName) {
+			emitText(name);
+		}
+		boolean hideExactHp = config.cobblemonRespectEnemyHpHiding() && plate.enemyPokemon;
+		if (profile.showCurrentHP) {
+			emitText(HealthText.currentHealth(plate.animatedHealth, plate.maxHealth, hideExactHp, healthFormat));
+		}
+		if (profile.showMaxHP && !hideExactHp) {
+			emitText(HealthText.maxHealth(plate.maxHealth, healthFormat));
+		}
+		if (profile.showPercentage && (!hideExactHp || !profile.showCurrentHP)) {
+			emitText(HealthText.percentage(plate.animatedHealth, plate.maxHealth));
+		}
+	}
+
+	private void emitText(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			float x = i * GLYPH_WIDTH;
+			glyphs.addVertex(pose, x, 0, 0).setColor(255, 255, 255, 255).setUv(0, 0).setLight(PlateGeometry.LIGHT);
+			glyphs.addVertex(pose, x, 8, 0).setColor(255, 255, 255, 255).setUv(0, 1).setLight(PlateGeometry.LIGHT);
+			glyphs.addVertex(pose, x + GLYPH_WIDTH, 8, 0).setColor(255, 255, 255, 255).setUv(1, 1).setLight(PlateGeometry.LIGHT);
+			glyphs.addVertex(pose, x + GLYPH_WIDTH, 0, 0).setColor(255, 255, 255, 255).setUv(1, 0).setLight(PlateGeometry.LIGHT);
+		}
+	}
+
+	private void resetCounters() {
+		Arrays.fill(rejections, 0);
+		platesDrawn = 0;
+		bars.reset();
+		glyphs.reset();
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path file = null;
+		int warmup = 5;
+		int passes = 10;
+		int framesPerTick = 3;
+		boolean text = false;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+				case "--passes" -> passes = Integer.parseInt(args[++i]);
+				case "--frames-per-tick" -> framesPerTick = Integer.parseInt(args[++i]);
+				case "--text" -> text = true;
+				default -> {
+					if (!args[i].isEmpty()) {
+						file = Path.of(args[i]);
+					}
+				}
+			}
+		}
+		if (file == null) {
+			throw new IllegalArgumentException("No scene file given, pass -Pscene=<file>");
+		}
+
+		Scene scene;
+		try (InputStream in = Files.newInputStream(file)) {
+			scene = Scene.read(in);
+		}
+		if (scene.ticks().isEmpty()) {
+			throw new IllegalArgumentException("Scene " + file + " has no ticks");
+		}
+		BenchmarkConfig config = BenchmarkConfig.install();
+		config.showCurrentHP = text;
+		config.showMaxHP = text;
+		config.showPercentage = text;
+
+		SceneReplay replay = new SceneReplay(scene, config, framesPerTick);
+		int ticks = scene.ticks().size();
+		int frames = ticks * framesPerTick;
+		report("Scene %s: %d ticks, %d entities, %d samples", file.getFileName(), ticks, scene.actors().size(), scene.sampleCount());
+		report("%d warm-up and %d measured passes, %d frames per tick", warmup, passes, framesPerTick);
+
+		for (int i = 0; i < warmup; i++) {
+			replay.pass(null, null);
+		}
+		replay.resetCounters();
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long[] frameNanos = new long[frames * passes];
+		long[] tickNanos = new long[ticks * passes];
+		long[] passFrames = new long[frames];
+		long[] passTicks = new long[ticks];
+		long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < passes; i++) {
+			replay.pass(passFrames, passTicks);
+			System.arraycopy(passFrames, 0, frameNanos, i * frames, frames);
+			System.arraycopy(passTicks, 0, tickNanos, i * ticks, ticks);
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+		long totalFrames = (long) frames * passes;
+		distribution("Frame", frameNanos);
+		distribution("Tick ", tickNanos);
+		report("Plates per frame: %.1f, bar vertices per frame: %.1f, glyph vertices per frame: %.1f",
+				(double) replay.platesDrawn / totalFrames, (double) replay.bars.vertices() / totalFrames, (double) replay.glyphs.vertices() / totalFrames);
+		report("Allocated: %.1f bytes per frame, %.2f MB/s",
+				(double) allocated / totalFrames, allocated / (elapsed / 1.0E9) / (1024 * 1024));
+		StringBuilder rejected = new StringBuilder("Rejected per frame:");
+		for (RejectReason reason : RejectReason.values()) {
+			long count = replay.rejections[reason.ordinal()];
+			if (count > 0) {
+				rejected.append(String.format(Locale.ROOT, " %s=%.1f", reason.name().toLowerCase(Locale.ROOT), (double) count / totalFrames));
+			}
+		}
+		report("%s", rejected);
+		report("Checksum: %s", replay.bars.checksum() + replay.glyphs.checksum());
+	}
+
+	private static void distribution(String label, long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		double mean = Arrays.stream(sorted).average().orElse(0);
+		report("%s time (us): mean %.2f, p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f", label,
+				mean / 1000, percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[sorted.length - 1] / 1000.0);
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+		return sorted[Math.max(index, 0)] / 1000.0;
+	}
+
+	@SuppressWarnings("PMD.SystemPrintln") // This is a command line tool
+	private static void report(String format, Object... args) {
+		System.out.println(String.format(Locale.ROOT, format, args));
+	}
+}
@@ -0,0 +1,60 @@
+package vazkii.neat.core;
+
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+
+/**
+ * Current and max HP by entity id, packed into one long per entity so lookups don't allocate.
+ */
+public final class BattleHealthIndex {
+
+	private static final long ABSENT = -1L;
+	private final Int2LongOpenHashMap entries = new Int2LongOpenHashMap();
+
+	public BattleHealthIndex() {
+		entries.defaultReturnValue(ABSENT);
+	}
+
+	public static long pack(int currentHealth, int maxHealth) {
+		return ((long) currentHealth << 32) | (maxHealth & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Removes {@code removedIds}, then sets {@code ids[i]} to {@code currentHealth[i]} and {@code maxHealth[i]}.
+	 */
+	public void apply(int[] removedIds, int[] ids, int[] currentHealth, int[] maxHealth) {
+		for (int id : removedIds) {
+			entries.remove(id);
+		}
+		for (int i = 0; i < ids.length; i++) {
+			entries.put(ids[i], pack(currentHealth[i], maxHealth[i]));
+		}
+	}
+
+	public boolean has(int id) {
+		return entries.containsKey(id);
+	}
+
+	/**
+	 * @return the current HP, or -1 if there's none for this id
+	 */
+	public int getCurrentHealth(int id) {
+		long packed = entries.get(id);
+		return packed == ABSENT ? -1 : (int) (packed >>> 32);
+	}
+
+	/**
+	 * @return the max HP, or -1 if there's none for this id
+	 */
+	public int getMaxHealth(int id) {
+		long packed = entries.get(id);
+		return packed == ABSENT ? -1 : (int) packed;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+}
@@ -0,0 +1,84 @@
+package vazkii.neat.core;
+
+/**
+ * Base for Neat's caches: a cap on entries, least recently used eviction once the cap is reached,
+ * and hit, miss and eviction counts so the F3 overlay can show whether a cache is sized right.
+ * A cache may refuse to evict entries that are still in use, and then stays over its cap until it can.
+ * Not thread safe, each cache is owned by one thread (the client thread for everything Neat has).
+ */
+public abstract class BoundedCache {
+
+	private final String name;
+	private int capacity;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	protected BoundedCache(String name, int capacity) {
+		this.name = name;
+		this.capacity = checkCapacity(capacity);
+	}
+
+	private static int checkCapacity(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Cache capacity must be at least 1, got " + capacity);
+		}
+		return capacity;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Changes the cap, evicting least recently used entries if the cache is now over it.
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = checkCapacity(capacity);
+		trim();
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public abstract int size();
+
+	/**
+	 * Drops every entry without counting evictions, e.g. when the level changes.
+	 */
+	public abstract void clear();
+
+	/**
+	 * Removes the least recently used entry.
+	 *
+	 * @return whether an entry was removed, false if every entry is still in use
+	 */
+	protected abstract boolean evictEldest();
+
+	protected final void trim() {
+		while (size() > capacity && evictEldest()) {
+			evictions++;
+		}
+	}
+
+	protected final void hit() {
+		hits++;
+	}
+
+	protected final void miss() {
+		misses++;
+	}
+}
@@ -0,0 +1,147 @@
+package vazkii.neat.core;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import java.util.Arrays;
+
+/**
+ * Orders a frame's translucent plates back to front, starting from the order the same entities had
+ * last frame. Entities and the camera move little between frames, so that order is nearly sorted and
+ * an insertion sort finishes it in close to linear time. When the scene changes too much, e.g. after a
+ * teleport, it falls back to a full sort.
+ *
+ * <p>
+ * Usage per frame: {@link #clear()}, {@link #add} every plate, then {@link #sort()}. Render thread only.
+ */
+public final class DepthOrder {
+
+	// Insertion sort gives up after this many shifts per item and sorts from scratch instead
+	private static final int MAX_SHIFTS_PER_ITEM = 8;
+
+	private final Int2IntOpenHashMap previousRank = new Int2IntOpenHashMap();
+	private int previousCount = 0;
+
+	private int[] keys = new int[64];
+	private float[] depths = new float[64];
+	private int[] order = new int[64];
+	private int[] byRank = new int[64];
+	private int size = 0;
+
+	private final IntComparator backToFront = (a, b) -> Float.compare(depths[b], depths[a]);
+
+	private long shifts = 0;
+	private long fullSorts = 0;
+
+	public DepthOrder() {
+		previousRank.defaultReturnValue(-1);
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @param key   identifies the item across frames, e.g. an entity id
+	 * @param depth larger is further away, e.g. squared distance to the camera
+	 * @return the item's index, which {@link #sort()} orders
+	 */
+	public int add(int key, float depth) {
+		if (size == keys.length) {
+			int capacity = size * 2;
+			keys = Arrays.copyOf(keys, capacity);
+			depths = Arrays.copyOf(depths, capacity);
+			order = Arrays.copyOf(order, capacity);
+		}
+		keys[size] = key;
+		depths[size] = depth;
+		return size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Sorts this frame's items furthest first and remembers the order for the next frame.
+	 *
+	 * @return item indices from {@link #add} in drawing order; valid up to {@link #size()}, until the next call
+	 */
+	public int[] sort() {
+		seedFromPreviousOrder();
+
+		int limit = size * MAX_SHIFTS_PER_ITEM;
+		int moved = 0;
+		for (int i = 1; i < size && moved <= limit; i++) {
+			int item = order[i];
+			float depth = depths[item];
+			int j = i - 1;
+			while (j >= 0 && depths[order[j]] < depth) {
+				order[j + 1] = order[j];
+				j--;
+				moved++;
+			}
+			order[j + 1] = item;
+		}
+		shifts += moved;
+		if (moved > limit) {
+			fullSorts++;
+			IntArrays.quickSort(order, 0, size, backToFront);
+		}
+
+		previousRank.clear();
+		for (int i = 0; i < size; i++) {
+			previousRank.put(keys[order[i]], i);
+		}
+		previousCount = size;
+		return order;
+	}
+
+	/**
+	 * Fills {@link #order} with items seen last frame in last frame's order, followed by new items in
+	 * the order they were added. Linear, since ranks are dense.
+	 */
+	private void seedFromPreviousOrder() {
+		if (byRank.length < previousCount) {
+			byRank = new int[Math.max(previousCount, byRank.length * 2)];
+		}
+		Arrays.fill(byRank, 0, previousCount, -1);
+		int newcomers = 0;
+		for (int i = 0; i < size; i++) {
+			int rank = previousRank.get(keys[i]);
+			if (rank >= 0 && byRank[rank] == -1) {
+				byRank[rank] = i;
+			} else {
+				// Park newcomers at the end for now, they're moved behind the known items below
+				order[size - 1 - newcomers++] = i;
+			}
+		}
+		// Newcomers were parked in reverse, put them back in the order they were added
+		for (int lo = size - newcomers, hi = size - 1; lo < hi; lo++, hi--) {
+			int swap = order[lo];
+			order[lo] = order[hi];
+			order[hi] = swap;
+		}
+		int cursor = 0;
+		for (int rank = 0; rank < previousCount; rank++) {
+			if (byRank[rank] != -1) {
+				order[cursor++] = byRank[rank];
+			}
+		}
+	}
+
+	/**
+	 * @return how many element shifts the incremental sort has needed in total
+	 */
+	public long getShifts() {
+		return shifts;
+	}
+
+	/**
+	 * @return how many frames fell back to a full sort
+	 */
+	public long getFullSorts() {
+		return fullSorts;
+	}
+}
@@ -0,0 +1,207 @@
+package vazkii.neat.core;
+
+/**
+ * The plate options that can differ per entity type, fully resolved: the global config values with the
+ * boss size, blacklist and every matching {@link ProfileSpec} applied on top. One instance is resolved
+ * per entity type when the config is compiled, so the render path reads its fields directly instead of
+ * going through the config and tag checks for every plate.
+ */
+public final class DisplayProfile {
+
+	/**
+	 * Name shown in debug info for types no profile matched.
+	 */
+	public static final String DEFAULT_NAME = "default";
+
+	public final String name;
+	public final boolean hidden;
+	public final boolean boss;
+	public final int plateSize;
+	public final int maxDistance;
+	public final double heightAbove;
+	public final boolean drawBackground;
+	public final boolean showEntityName;
+	public final boolean showCurrentHP;
+	public final boolean showMaxHP;
+	public final boolean showPercentage;
+	public final boolean showAttributes;
+	public final boolean showArmor;
+	public final boolean cobblemonBattleOnly;
+
+	private DisplayProfile(Builder builder) {
+		name = builder.name;
+		hidden = builder.hidden;
+		boss = builder.boss;
+		plateSize = builder.plateSize;
+		maxDistance = builder.maxDistance;
+		heightAbove = builder.heightAbove;
+		drawBackground = builder.drawBackground;
+		showEntityName = builder.showEntityName;
+		showCurrentHP = builder.showCurrentHP;
+		showMaxHP = builder.showMaxHP;
+		showPercentage = builder.showPercentage;
+		showAttributes = builder.showAttributes;
+		showArmor = builder.showArmor;
+		cobblemonBattleOnly = builder.cobblemonBattleOnly;
+	}
+
+	public Builder toBuilder() {
+		Builder builder = new Builder();
+		builder.name = name;
+		builder.hidden = hidden;
+		builder.boss = boss;
+		builder.plateSize = plateSize;
+		builder.maxDistance = maxDistance;
+		builder.heightAbove = heightAbove;
+		builder.drawBackground = drawBackground;
+		builder.showEntityName = showEntityName;
+		builder.showCurrentHP = showCurrentHP;
+		builder.showMaxHP = showMaxHP;
+		builder.showPercentage = showPercentage;
+		builder.showAttributes = showAttributes;
+		builder.showArmor = showArmor;
+		builder.cobblemonBattleOnly = cobblemonBattleOnly;
+		return builder;
+	}
+
+	public static final class Builder {
+		private String name = DEFAULT_NAME;
+		private boolean hidden;
+		private boolean boss;
+		private int plateSize;
+		private int maxDistance;
+		private double heightAbove;
+		private boolean drawBackground;
+		private boolean showEntityName;
+		private boolean showCurrentHP;
+		private boolean showMaxHP;
+		private boolean showPercentage;
+		private boolean showAttributes;
+		private boolean showArmor;
+		private boolean cobblemonBattleOnly;
+
+		public Builder name(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public Builder hidden(boolean hidden) {
+			this.hidden = hidden;
+			return this;
+		}
+
+		public Builder boss(boolean boss) {
+			this.boss = boss;
+			return this;
+		}
+
+		public Builder plateSize(int plateSize) {
+			this.plateSize = plateSize;
+			return this;
+		}
+
+		public Builder maxDistance(int maxDistance) {
+			this.maxDistance = maxDistance;
+			return this;
+		}
+
+		public Builder heightAbove(double heightAbove) {
+			this.heightAbove = heightAbove;
+			return this;
+		}
+
+		public Builder drawBackground(boolean drawBackground) {
+			this.drawBackground = drawBackground;
+			return this;
+		}
+
+		public Builder showEntityName(boolean showEntityName) {
+			this.showEntityName = showEntityName;
+			return this;
+		}
+
+		public Builder showCurrentHP(boolean showCurrentHP) {
+			this.showCurrentHP = showCurrentHP;
+			return this;
+		}
+
+		public Builder showMaxHP(boolean showMaxHP) {
+			this.showMaxHP = showMaxHP;
+			return this;
+		}
+
+		public Builder showPercentage(boolean showPercentage) {
+			this.showPercentage = showPercentage;
+			return this;
+		}
+
+		public Builder showAttributes(boolean showAttributes) {
+			this.showAttributes = showAttributes;
+			return this;
+		}
+
+		public Builder showArmor(boolean showArmor) {
+			this.showArmor = showArmor;
+			return this;
+		}
+
+		public Builder cobblemonBattleOnly(boolean cobblemonBattleOnly) {
+			this.cobblemonBattleOnly = cobblemonBattleOnly;
+			return this;
+		}
+
+		/**
+		 * Sets an option by its config name, as written in a profile.
+		 *
+		 * @throws IllegalArgumentException if the option can't be overridden per type or the value doesn't parse
+		 */
+		public Builder set(String option, String value) {
+			switch (option) {
+				case "hidden" -> hidden = parseBoolean(option, value);
+				case "plateSize" -> plateSize = parseInt(option, value);
+				case "maxDistance" -> maxDistance = parseInt(option, value);
+				case "heightAbove" -> heightAbove = parseDouble(option, value);
+				case "drawBackground" -> drawBackground = parseBoolean(option, value);
+				case "showEntityName" -> showEntityName = parseBoolean(option, value);
+				case "showCurrentHP" -> showCurrentHP = parseBoolean(option, value);
+				case "showMaxHP" -> showMaxHP = parseBoolean(option, value);
+				case "showPercentage" -> showPercentage = parseBoolean(option, value);
+				case "showAttributes" -> showAttributes = parseBoolean(option, value);
+				case "showArmor" -> showArmor = parseBoolean(option, value);
+				case "cobblemonBattleOnly" -> cobblemonBattleOnly = parseBoolean(option, value);
+				default -> throw new IllegalArgumentException("Option " + option + " can't be set per profile");
+			}
+			return this;
+		}
+
+		public DisplayProfile build() {
+			return new DisplayProfile(this);
+		}
+
+		private static boolean parseBoolean(String option, String value) {
+			if ("true".equals(value)) {
+				return true;
+			}
+			if ("false".equals(value)) {
+				return false;
+			}
+			throw new IllegalArgumentException(option + " must be true or false, not " + value);
+		}
+
+		private static int parseInt(String option, String value) {
+			try {
+				return Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(option + " must be a whole number, not " + value, e);
+			}
+		}
+
+		private static double parseDouble(String option, String value) {
+			try {
+				return Double.parseDouble(value);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(option + " must be a number, not " + value, e);
+			}
+		}
+	}
+}
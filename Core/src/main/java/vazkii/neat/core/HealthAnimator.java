@@ -0,0 +1,348 @@
+package vazkii.neat.core;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Health animation and fade state for every entity with a health bar: {@link #track} each entity that
+ * still exists once per tick, then {@link #sweep()} to advance animations and fade-outs and drop the rest.
+ *
+ * <p>
+ * State is kept as a structure of arrays, one dense index per entity, so {@link #sweep()} updates every
+ * entity with a few straight loops over primitive arrays that the JIT can unroll and vectorize, instead
+ * of chasing one object per entity. The cache only maps UUIDs to indices, in a primitive-valued map,
+ * so neither tracking a new entity nor dropping one allocates.
+ *
+ * <p>
+ * The tick tracks every entity in the same order each time, which is the worst case for least recently
+ * used eviction: past the cap, every lookup would miss and every entity would lose its state each tick.
+ * So the cap only ever evicts entities that weren't seen this tick or the last, i.e. ones that left the
+ * world and are still fading out, and grows past it for entities that are still around.
+ */
+public final class HealthAnimator {
+
+	private static final float LERP_SPEED = 0.15F; // Higher = faster animation (0.0 to 1.0)
+	private static final float SNAP_DISTANCE = 0.01F; // Closer than this to the target snaps to it
+	private static final float FADE_OUT_DURATION_TICKS = 20.0F; // How many ticks to fade out (1 second at 20 TPS)
+
+	// Past the cap, the entity seen longest ago that has left the world is dropped
+	private final Index slots;
+	private int currentTick = 1; // seenTick[i] == currentTick means the entity was tracked this tick
+	private int nothingStaleTick = 0; // Tick a scan last found nothing to evict, nothing can go stale until the next
+
+	// Dense in [0, size)
+	private int size = 0;
+	private UUID[] owners = new UUID[64];
+	private float[] animatedHealth = new float[64];
+	private float[] targetHealth = new float[64];
+	private float[] alpha = new float[64];
+	private float[] fadeOutTicks = new float[64];
+	private float[] fading = new float[64]; // 1 while fading out, 0 otherwise, so the fade loop doesn't branch
+	private int[] seenTick = new int[64];
+	private boolean[] wasInBattle = new boolean[64]; // Previous battle state, only tracked for Pokemon
+	private int[] damageTick = new int[64]; // Tick the target health last went down, 0 if it never did
+
+	private final class Index extends BoundedCache {
+		private final Object2IntOpenHashMap<UUID> entries = new Object2IntOpenHashMap<>();
+
+		Index(int capacity) {
+			super("animation", capacity);
+			entries.defaultReturnValue(-1);
+		}
+
+		/**
+		 * @return the entity's index, or -1 if it isn't tracked
+		 */
+		int get(UUID id) {
+			int i = entries.getInt(id);
+			if (i < 0) {
+				miss();
+			} else {
+				hit();
+			}
+			return i;
+		}
+
+		/**
+		 * @return the entity's index, which eviction may have moved
+		 */
+		int put(UUID id, int i) {
+			entries.put(id, i);
+			if (size() <= getCapacity()) {
+				return i;
+			}
+			trim();
+			return entries.getInt(id);
+		}
+
+		/**
+		 * Points an entity that's already tracked at its new index.
+		 */
+		void move(UUID id, int i) {
+			entries.put(id, i);
+		}
+
+		void remove(UUID id) {
+			entries.removeInt(id);
+		}
+
+		@Override
+		public int size() {
+			return entries.size();
+		}
+
+		@Override
+		public void clear() {
+			entries.clear();
+		}
+
+		@Override
+		protected boolean evictEldest() {
+			int i = stalest();
+			if (i < 0) {
+				return false;
+			}
+			entries.removeInt(owners[i]);
+			removeIndex(i);
+			return true;
+		}
+	}
+
+	public HealthAnimator(int capacity) {
+		slots = new Index(capacity);
+	}
+
+	/**
+	 * @return the entity's animated health, starting it at {@code targetHealth} if it isn't tracked yet
+	 */
+	public float getAnimatedHealth(UUID id, float targetHealth) {
+		int i = slots.get(id);
+		if (i < 0) {
+			// Counts as seen last tick, so it isn't evicted before the tick gets to it; the sweep drops it if the tick doesn't
+			add(id, targetHealth, currentTick - 1);
+			return targetHealth;
+		}
+		return animatedHealth[i];
+	}
+
+	/**
+	 * @return 1.0F normally, or a fading value for entities that are fading out
+	 */
+	public float getAlpha(UUID id) {
+		int i = slots.get(id);
+		return i < 0 ? 1.0F : alpha[i];
+	}
+
+	public boolean isFadingOut(UUID id) {
+		int i = slots.get(id);
+		return i >= 0 && fading[i] != 0.0F;
+	}
+
+	/**
+	 * @return whether the entity's health went down within the last {@code ticks} ticks
+	 */
+	public boolean wasDamagedWithin(UUID id, int ticks) {
+		int i = slots.get(id);
+		if (i < 0) {
+			return false;
+		}
+		int tick = damageTick[i];
+		return tick != 0 && currentTick - tick <= ticks;
+	}
+
+	/**
+	 * Records one entity's target health and fade triggers for this tick. The animation itself advances
+	 * in {@link #sweep()}.
+	 *
+	 * @param fadeOnBattleEnd whether a Pokemon leaving battle fades out, as with Cobblemon's battle-only option
+	 */
+	public void track(UUID id, float targetHealth, boolean isDead, boolean isPokemon, boolean isCurrentlyInBattle, boolean fadeOnBattleEnd) {
+		int i = slots.get(id);
+		if (i < 0) {
+			i = add(id, targetHealth, currentTick);
+		}
+		seenTick[i] = currentTick;
+
+		boolean wasInBattlePreviously = wasInBattle[i];
+
+		// Update battle state tracking
+		if (isPokemon) {
+			wasInBattle[i] = isCurrentlyInBattle;
+		}
+
+		// Determine if we should start fade-out
+		boolean shouldFadeOut = isDead;
+
+		if (isPokemon && fadeOnBattleEnd && wasInBattlePreviously && !isCurrentlyInBattle) {
+			// Battle just ended for this Pokemon - start fade out
+			shouldFadeOut = true;
+		}
+
+		if (shouldFadeOut) {
+			if (fading[i] == 0.0F) {
+				fading[i] = 1.0F;
+				fadeOutTicks[i] = 0.0F;
+			}
+		} else if (fading[i] == 0.0F) {
+			// Entity is alive and not fading, reset fade state
+			alpha[i] = 1.0F;
+			fadeOutTicks[i] = 0.0F;
+		}
+
+		if (targetHealth < this.targetHealth[i]) {
+			damageTick[i] = currentTick;
+		}
+		this.targetHealth[i] = targetHealth;
+	}
+
+	/**
+	 * Advances every animation and fade-out by one tick and drops state for entities that weren't
+	 * tracked this tick.
+	 *
+	 * @return how many entities were dropped
+	 */
+	public int sweep() {
+		lerp(animatedHealth, targetHealth, size);
+		fade(fadeOutTicks, fading, alpha, size);
+
+		// Backwards, so the entity moved into a removed index has already been visited
+		int removed = 0;
+		for (int i = size - 1; i >= 0; i--) {
+			boolean seen = seenTick[i] == currentTick;
+			boolean isFadingOut = fading[i] != 0.0F;
+			// Remove entities that no longer exist and aren't fading out, and completed fade-outs
+			if ((!seen && !isFadingOut) || (isFadingOut && alpha[i] <= 0.0F)) {
+				slots.remove(owners[i]);
+				removeIndex(i);
+				removed++;
+			} else if (!seen) {
+				// Still fading out after leaving the world, battle state no longer applies
+				wasInBattle[i] = false;
+			}
+		}
+
+		// Start the next tick with nothing seen
+		currentTick++;
+		return removed;
+	}
+
+	/**
+	 * Moves animated health towards the target, snapping once it's very close to avoid floating point
+	 * issues. The lerp loop has no branches; snapping is split out so it doesn't keep the lerp scalar.
+	 */
+	static void lerp(float[] animated, float[] target, int n) {
+		for (int i = 0; i < n; i++) {
+			animated[i] += LERP_SPEED * (target[i] - animated[i]);
+		}
+		for (int i = 0; i < n; i++) {
+			if (Math.abs(animated[i] - target[i]) < SNAP_DISTANCE) {
+				animated[i] = target[i];
+			}
+		}
+	}
+
+	/**
+	 * Advances fade-outs: entities that are fading count up their ticks and lose alpha linearly. Alpha
+	 * of the others is recomputed from zero ticks, i.e. stays 1.
+	 */
+	static void fade(float[] ticks, float[] fading, float[] alpha, int n) {
+		for (int i = 0; i < n; i++) {
+			float t = ticks[i] + fading[i];
+			ticks[i] = t;
+			alpha[i] = Math.max(0.0F, Math.min(1.0F - t / FADE_OUT_DURATION_TICKS, 1.0F));
+		}
+	}
+
+	/**
+	 * @return the index of the entity seen longest ago that wasn't seen this tick or the last, or -1 if every
+	 * entity was, i.e. is still in the world
+	 */
+	private int stalest() {
+		if (nothingStaleTick == currentTick) {
+			return -1;
+		}
+		int stalest = -1;
+		int oldest = currentTick - 1;
+		for (int i = 0; i < size; i++) {
+			if (seenTick[i] < oldest) {
+				oldest = seenTick[i];
+				stalest = i;
+			}
+		}
+		if (stalest < 0) {
+			nothingStaleTick = currentTick;
+		}
+		return stalest;
+	}
+
+	private int add(UUID id, float health, int seen) {
+		if (size == owners.length) {
+			grow();
+		}
+		int i = size++;
+		owners[i] = id;
+		animatedHealth[i] = health;
+		targetHealth[i] = health;
+		alpha[i] = 1.0F;
+		fadeOutTicks[i] = 0.0F;
+		fading[i] = 0.0F;
+		seenTick[i] = seen;
+		wasInBattle[i] = false;
+		damageTick[i] = 0;
+		// May evict another entity, which moves the last index; this one is last so it can be the one moving
+		return slots.put(id, i);
+	}
+
+	/**
+	 * Fills index {@code i} with the last entity's state. The caller removes the owner from {@link #slots}.
+	 */
+	private void removeIndex(int i) {
+		int last = --size;
+		if (i != last) {
+			UUID moved = owners[last];
+			owners[i] = moved;
+			slots.move(moved, i);
+			animatedHealth[i] = animatedHealth[last];
+			targetHealth[i] = targetHealth[last];
+			alpha[i] = alpha[last];
+			fadeOutTicks[i] = fadeOutTicks[last];
+			fading[i] = fading[last];
+			seenTick[i] = seenTick[last];
+			wasInBattle[i] = wasInBattle[last];
+			damageTick[i] = damageTick[last];
+		}
+		owners[last] = null;
+	}
+
+	private void grow() {
+		int capacity = owners.length * 2;
+		owners = Arrays.copyOf(owners, capacity);
+		animatedHealth = Arrays.copyOf(animatedHealth, capacity);
+		targetHealth = Arrays.copyOf(targetHealth, capacity);
+		alpha = Arrays.copyOf(alpha, capacity);
+		fadeOutTicks = Arrays.copyOf(fadeOutTicks, capacity);
+		fading = Arrays.copyOf(fading, capacity);
+		seenTick = Arrays.copyOf(seenTick, capacity);
+		wasInBattle = Arrays.copyOf(wasInBattle, capacity);
+		damageTick = Arrays.copyOf(damageTick, capacity);
+	}
+
+	/**
+	 * @return the cache mapping entities to their state, for stats and capacity
+	 */
+	public BoundedCache cache() {
+		return slots;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		slots.clear();
+		Arrays.fill(owners, 0, size, null);
+		size = 0;
+	}
+}
@@ -0,0 +1,114 @@
+package vazkii.neat.core;
+
+import java.text.DecimalFormat;
+import java.util.List;
+
+/**
+ * Formats the health values drawn on a plate.
+ *
+ * Formatting through DecimalFormat allocates on every call, but the values on screen rarely change
+ * between frames, so formatted strings are memoized by the float's bits, least recently used first out
+ * once a cache is full. The static methods are render thread only; other threads format through a
+ * {@link Memo} of their own.
+ */
+public class HealthText {
+
+	// Same as ChatFormatting.BOLD's string form
+	private static final String BOLD = "\u00A7l";
+	private static final int CACHE_LIMIT = 4096;
+	private static final ValueCache currentHealthCache = new ValueCache("current health text", null);
+	private static final ValueCache maxHealthCache = new ValueCache("max health text", BOLD);
+	private static final List<BoundedCache> caches = List.of(currentHealthCache.values, maxHealthCache.values);
+	private static final String[] percentages = new String[101];
+
+	static {
+		for (int i = 0; i < percentages.length; i++) {
+			percentages[i] = i + "%";
+		}
+	}
+
+	/**
+	 * @param hideExactHp whether to show a percentage instead, as Cobblemon's UI does for enemy Pokemon
+	 */
+	public static String currentHealth(float animatedHealth, float maxHealth, boolean hideExactHp, DecimalFormat format) {
+		if (hideExactHp) {
+			return percentage(animatedHealth, maxHealth);
+		}
+		return currentHealthCache.format(animatedHealth, format);
+	}
+
+	public static String maxHealth(float maxHealth, DecimalFormat format) {
+		return maxHealthCache.format(maxHealth, format);
+	}
+
+	public static List<BoundedCache> caches() {
+		return caches;
+	}
+
+	public static String percentage(float animatedHealth, float maxHealth) {
+		int percentage = (int) (100 * animatedHealth / maxHealth);
+		if (percentage >= 0 && percentage < percentages.length) {
+			return percentages[percentage];
+		}
+		return percentage + "%";
+	}
+
+	/**
+	 * Memoized {@link #currentHealth} and {@link #maxHealth} for one thread off the render thread, e.g. a
+	 * plate pipeline worker. DecimalFormat isn't thread-safe, so a memo formats with its own clone of the
+	 * format it's given, made again only when it's given a different one. The given format is only cloned,
+	 * so threads can share it as long as nothing formats with it.
+	 */
+	public static final class Memo {
+		private final ValueCache currentHealthValues = new ValueCache("current health text", null);
+		private final ValueCache maxHealthValues = new ValueCache("max health text", BOLD);
+		private DecimalFormat source;
+		private DecimalFormat format;
+
+		public String currentHealth(float animatedHealth, float maxHealth, boolean hideExactHp, DecimalFormat format) {
+			if (hideExactHp) {
+				return percentage(animatedHealth, maxHealth);
+			}
+			return currentHealthValues.format(animatedHealth, local(format));
+		}
+
+		public String maxHealth(float maxHealth, DecimalFormat format) {
+			return maxHealthValues.format(maxHealth, local(format));
+		}
+
+		private DecimalFormat local(DecimalFormat format) {
+			if (format != source) {
+				source = format;
+				this.format = (DecimalFormat) format.clone();
+			}
+			return this.format;
+		}
+	}
+
+	private static class ValueCache {
+		private final String prefix;
+		private final IntLruCache<String> values;
+		private DecimalFormat format;
+
+		ValueCache(String name, String prefix) {
+			this.prefix = prefix;
+			this.values = new IntLruCache<>(name, CACHE_LIMIT);
+		}
+
+		String format(float value, DecimalFormat format) {
+			// New format means the config changed
+			if (format != this.format) {
+				values.clear();
+				this.format = format;
+			}
+			int bits = Float.floatToIntBits(value);
+			String cached = values.get(bits);
+			if (cached != null) {
+				return cached;
+			}
+			String formatted = prefix == null ? format.format(value) : prefix + format.format(value);
+			values.put(bits, formatted);
+			return formatted;
+		}
+	}
+}
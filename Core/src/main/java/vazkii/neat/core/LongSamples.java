@@ -0,0 +1,59 @@
+package vazkii.neat.core;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of measurements, e.g. per-frame times, summarized as mean, percentiles and max.
+ * Adding doesn't allocate once the list has grown to the run's length.
+ */
+public final class LongSamples {
+
+	private long[] values = new long[1024];
+	private int size = 0;
+	private long sum = 0;
+	// Sorted copy for percentiles, rebuilt after adding
+	private long[] sorted = null;
+
+	public void add(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+		sum += value;
+		sorted = null;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double mean() {
+		return size == 0 ? 0.0 : (double) sum / size;
+	}
+
+	/**
+	 * @param p between 0 and 1, e.g. 0.99 for the 99th percentile
+	 * @return the smallest sample that at least {@code p} of the samples are less than or equal to
+	 */
+	public long percentile(double p) {
+		if (size == 0) {
+			return 0;
+		}
+		if (sorted == null) {
+			sorted = Arrays.copyOf(values, size);
+			Arrays.sort(sorted);
+		}
+		int index = (int) Math.min(size - 1, Math.ceil(p * size) - 1);
+		return sorted[Math.max(index, 0)];
+	}
+
+	public long max() {
+		return percentile(1.0);
+	}
+
+	public void clear() {
+		size = 0;
+		sum = 0;
+		sorted = null;
+	}
+}
@@ -0,0 +1,94 @@
+package vazkii.neat.core;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectCollection;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A {@link BoundedCache} keyed by objects. Values can't be null, {@link #get} returns null for a miss.
+ */
+public final class LruCache<K, V> extends BoundedCache {
+
+	private final Object2ObjectLinkedOpenHashMap<K, V> entries = new Object2ObjectLinkedOpenHashMap<>();
+	private final Consumer<? super V> onEvict;
+
+	public LruCache(String name, int capacity) {
+		this(name, capacity, null);
+	}
+
+	/**
+	 * @param onEvict called with each value evicted for space, or null; not called by {@link #clear()} or {@link #remove}
+	 */
+	public LruCache(String name, int capacity, Consumer<? super V> onEvict) {
+		super(name, capacity);
+		this.onEvict = onEvict;
+	}
+
+	/**
+	 * @return the value, marked as most recently used, or null if there's none
+	 */
+	public V get(K key) {
+		V value = entries.getAndMoveToLast(key);
+		if (value == null) {
+			miss();
+		} else {
+			hit();
+		}
+		return value;
+	}
+
+	public void put(K key, V value) {
+		entries.putAndMoveToLast(key, value);
+		trim();
+	}
+
+	public V remove(K key) {
+		return entries.remove(key);
+	}
+
+	/**
+	 * Removes every value the filter accepts, without counting evictions.
+	 *
+	 * @return how many were removed
+	 */
+	public int removeIf(Predicate<? super V> filter) {
+		int removed = 0;
+		ObjectIterator<V> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			if (filter.test(iterator.next())) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * @return a live view, least recently used first
+	 */
+	public ObjectCollection<V> values() {
+		return entries.values();
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public void clear() {
+		entries.clear();
+	}
+
+	@Override
+	protected boolean evictEldest() {
+		V value = entries.removeFirst();
+		if (onEvict != null) {
+			onEvict.accept(value);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,90 @@
+package vazkii.neat.core;
+
+/**
+ * Health bar colors.
+ */
+public class PlateColors {
+
+	/**
+	 * Green to red as health drops.
+	 *
+	 * @return RGB, alpha bits unset
+	 */
+	public static int byHealth(float health, float maxHealth) {
+		float clamped = Math.max(0.0F, Math.min(health, maxHealth));
+		float hue = Math.max(0.0F, (clamped / maxHealth) / 3.0F - 0.07F);
+		return hsvToRgb(hue, 1.0F, 1.0F);
+	}
+
+	/**
+	 * Purple for bosses, green for passive mobs, red for everything else.
+	 *
+	 * @return opaque ARGB
+	 */
+	public static int byType(boolean boss, boolean friendly) {
+		int r = 0;
+		int g = 255;
+		int b = 0;
+		if (boss) {
+			r = 128;
+			g = 0;
+			b = 128;
+		} else if (!friendly) {
+			r = 255;
+			g = 0;
+		}
+		return 0xff000000 | r << 16 | g << 8 | b;
+	}
+
+	/**
+	 * Same conversion as Minecraft's Mth.hsvToRgb.
+	 */
+	public static int hsvToRgb(float hue, float saturation, float value) {
+		int sector = (int) (hue * 6.0F) % 6;
+		float f = hue * 6.0F - sector;
+		float p = value * (1.0F - saturation);
+		float q = value * (1.0F - f * saturation);
+		float t = value * (1.0F - (1.0F - f) * saturation);
+		float r;
+		float g;
+		float b;
+		switch (sector) {
+			case 0 -> {
+				r = value;
+				g = t;
+				b = p;
+			}
+			case 1 -> {
+				r = q;
+				g = value;
+				b = p;
+			}
+			case 2 -> {
+				r = p;
+				g = value;
+				b = t;
+			}
+			case 3 -> {
+				r = p;
+				g = q;
+				b = value;
+			}
+			case 4 -> {
+				r = t;
+				g = p;
+				b = value;
+			}
+			case 5 -> {
+				r = value;
+				g = p;
+				b = q;
+			}
+			default -> throw new IllegalArgumentException("Something went wrong when converting from HSV to RGB. Input was " + hue + ", " + saturation + ", " + value);
+		}
+		return channel(r) << 16 | channel(g) << 8 | channel(b);
+	}
+
+	private static int channel(float value) {
+		return Math.max(0, Math.min((int) (value * 255.0F), 255));
+	}
+}
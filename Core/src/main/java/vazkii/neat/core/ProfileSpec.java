@@ -0,0 +1,65 @@
+package vazkii.neat.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One display profile as written in the config: {@code "name: selectors overrides"}, separated by spaces.
+ * Selectors are entity ids ({@code minecraft:cow}), tags ({@code #minecraft:raiders}) or spawn categories
+ * ({@code @creature}); overrides are {@code option=value} pairs for the options in
+ * {@link DisplayProfile.Builder#set}. Matching selectors against entity types is up to the caller.
+ */
+public record ProfileSpec(String name, List<String> ids, List<String> tags, List<String> categories, Map<String, String> overrides) {
+
+	/**
+	 * @throws IllegalArgumentException if the line is malformed or an override is invalid
+	 */
+	public static ProfileSpec parse(String text) {
+		String line = text.strip();
+		int colon = line.indexOf(':');
+		int space = line.indexOf(' ');
+		// The name ends at the first colon, unless that colon belongs to a namespaced selector
+		if (colon <= 0 || (space >= 0 && space < colon)) {
+			throw new IllegalArgumentException("Profile \"" + line + "\" doesn't start with a name followed by a colon");
+		}
+		String name = line.substring(0, colon);
+		List<String> ids = new ArrayList<>();
+		List<String> tags = new ArrayList<>();
+		List<String> categories = new ArrayList<>();
+		Map<String, String> overrides = new HashMap<>();
+		for (String token : line.substring(colon + 1).trim().split("\\s+")) {
+			if (token.isEmpty()) {
+				continue;
+			}
+			int equals = token.indexOf('=');
+			if (equals >= 0) {
+				overrides.put(token.substring(0, equals), token.substring(equals + 1));
+			} else if (token.startsWith("#")) {
+				tags.add(token.substring(1));
+			} else if (token.startsWith("@")) {
+				categories.add(token.substring(1));
+			} else {
+				ids.add(token);
+			}
+		}
+		if (ids.isEmpty() && tags.isEmpty() && categories.isEmpty()) {
+			throw new IllegalArgumentException("Profile " + name + " doesn't select any entities");
+		}
+		ProfileSpec spec = new ProfileSpec(name, List.copyOf(ids), List.copyOf(tags), List.copyOf(categories), Map.copyOf(overrides));
+		// Fail on bad overrides now rather than while resolving every entity type
+		spec.applyTo(new DisplayProfile.Builder());
+		return spec;
+	}
+
+	/**
+	 * Applies this profile's overrides and name on top of whatever the builder holds.
+	 */
+	public DisplayProfile.Builder applyTo(DisplayProfile.Builder builder) {
+		for (Map.Entry<String, String> override : overrides.entrySet()) {
+			builder.set(override.getKey(), override.getValue());
+		}
+		return builder.name(name);
+	}
+}
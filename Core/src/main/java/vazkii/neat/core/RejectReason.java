@@ -0,0 +1,24 @@
+package vazkii.neat.core;
+
+/**
+ * Why an entity didn't get a health plate this frame, grouped roughly by filter stage.
+ */
+public enum RejectReason {
+	CAMERA_ENTITY,
+	HIDDEN,
+	NOT_DAMAGED,
+	BATTLE_ONLY,
+	BLACKLISTED,
+	DISTANCE,
+	LINE_OF_SIGHT,
+	BOSS,
+	PLAYER,
+	FULL_HEALTH,
+	NOT_FOCUSED,
+	PASSIVE,
+	HOSTILE,
+	PASSENGER,
+	INVISIBLE,
+	TEAM,
+	FADED
+}
@@ -0,0 +1,49 @@
+package vazkii.neat.core;
+
+/**
+ * The per-type part of the plate filter, compiled from the config into a table indexed by an
+ * entity's boss, player and friendly flags, so a plate costs one lookup instead of a chain of
+ * config reads. Checks apply in the same order as the config options are listed: blacklist,
+ * distance, bosses, players, passive, hostile.
+ */
+public final class TypeFilter {
+
+	private static final int BOSS = 1;
+	private static final int PLAYER = 2;
+	private static final int FRIENDLY = 4;
+
+	private final RejectReason[] byFlags = new RejectReason[8];
+
+	public TypeFilter(boolean showOnBosses, boolean showOnPlayers, boolean showOnPassive, boolean showOnHostile) {
+		for (int flags = 0; flags < byFlags.length; flags++) {
+			boolean boss = (flags & BOSS) != 0;
+			boolean player = (flags & PLAYER) != 0;
+			boolean friendly = (flags & FRIENDLY) != 0;
+			RejectReason reason = null;
+			if (!showOnBosses && boss) {
+				reason = RejectReason.BOSS;
+			} else if (!showOnPlayers && player) {
+				reason = RejectReason.PLAYER;
+			} else if (!showOnPassive && friendly) {
+				reason = RejectReason.PASSIVE;
+			} else if (!showOnHostile && !friendly && !boss) {
+				reason = RejectReason.HOSTILE;
+			}
+			byFlags[flags] = reason;
+		}
+	}
+
+	/**
+	 * @param maxDistance the entity's distance limit, which display profiles can set per type
+	 * @return why an entity with these properties shouldn't get a plate, or null if it passes
+	 */
+	public RejectReason reject(boolean blacklisted, float distance, float maxDistance, boolean boss, boolean player, boolean friendly) {
+		if (blacklisted) {
+			return RejectReason.BLACKLISTED;
+		}
+		if (distance > maxDistance) {
+			return RejectReason.DISTANCE;
+		}
+		return byFlags[(boss ? BOSS : 0) | (player ? PLAYER : 0) | (friendly ? FRIENDLY : 0)];
+	}
+}
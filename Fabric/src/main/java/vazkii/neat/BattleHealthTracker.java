@@ -0,0 +1,133 @@
+package vazkii.neat;
+
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.entity.EntityTypeTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server-side tracker that keeps clients' battle health in sync on dedicated servers.
+ * Once per tick, each player gets a single {@link BattleHealthSyncPayload} containing only the battle
+ * participants near them whose HP changed since the last packet, plus removals. Nothing is sent on
+ * quiet ticks, and players without Neat installed are skipped entirely.
+ *
+ * Finding participants takes a battle lookup for every living entity around the player, so the area is
+ * only scanned every {@link #SCAN_INTERVAL_TICKS} ticks, staggered across players. In between, only the
+ * participants already sent to a player are refreshed, so HP changes still go out every tick.
+ */
+public class BattleHealthTracker {
+
+	private static final double SYNC_RADIUS = 64.0D;
+	private static final int SCAN_INTERVAL_TICKS = 10;
+	private static final EntityTypeTest<Entity, LivingEntity> LIVING = EntityTypeTest.forClass(LivingEntity.class);
+
+	// Last HP sent to each player, keyed by entity id and packed with BattleHealthSync.pack
+	private static final Map<UUID, Int2LongOpenHashMap> lastSent = new HashMap<>();
+
+	// Scratch for syncPlayer, server thread only
+	private static final List<LivingEntity> participants = new ArrayList<>();
+	private static final IntOpenHashSet seen = new IntOpenHashSet();
+	private static final IntArrayList changedIds = new IntArrayList();
+	private static final IntArrayList currentHealth = new IntArrayList();
+	private static final IntArrayList maxHealth = new IntArrayList();
+	private static final IntArrayList removedIds = new IntArrayList();
+
+	public static void tick(MinecraftServer server) {
+		if (!CobblemonIntegration.isCobblemonAvailable()) {
+			return;
+		}
+		int tick = server.getTickCount();
+		for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+			if (ServerPlayNetworking.canSend(player, BattleHealthSyncPayload.TYPE)) {
+				syncPlayer(player, (tick + player.getId()) % SCAN_INTERVAL_TICKS == 0);
+			}
+		}
+	}
+
+	/**
+	 * @param scan whether to look for participants around the player, rather than only refresh the ones already sent
+	 */
+	private static void syncPlayer(ServerPlayer player, boolean scan) {
+		Int2LongOpenHashMap sent = lastSent.get(player.getUUID());
+		if (!scan && (sent == null || sent.isEmpty())) {
+			return;
+		}
+		if (sent == null) {
+			sent = new Int2LongOpenHashMap();
+			lastSent.put(player.getUUID(), sent);
+		}
+
+		ServerLevel level = player.serverLevel();
+		participants.clear();
+		if (scan) {
+			level.getEntities(LIVING, player.getBoundingBox().inflate(SYNC_RADIUS), CobblemonIntegration::isInBattle, participants);
+		} else {
+			// Participants that joined since are picked up by the next scan, ones that left are removed by it
+			for (IntIterator it = sent.keySet().iterator(); it.hasNext();) {
+				if (level.getEntity(it.nextInt()) instanceof LivingEntity living && living.isAlive()) {
+					participants.add(living);
+				}
+			}
+		}
+
+		seen.clear();
+		changedIds.clear();
+		currentHealth.clear();
+		maxHealth.clear();
+		for (LivingEntity living : participants) {
+			int current = CobblemonIntegration.getPokemonCurrentHealth(living);
+			int max = CobblemonIntegration.getPokemonMaxHealth(living);
+			if (current < 0 || max <= 0) {
+				continue;
+			}
+			int id = living.getId();
+			seen.add(id);
+			long packed = BattleHealthSync.pack(current, max);
+			// put returns 0 for new entries, which never matches since max > 0
+			if (sent.put(id, packed) != packed) {
+				changedIds.add(id);
+				currentHealth.add(current);
+				maxHealth.add(max);
+			}
+		}
+		// Don't keep entities alive until the next tick
+		participants.clear();
+
+		removedIds.clear();
+		for (IntIterator it = sent.keySet().iterator(); it.hasNext();) {
+			int id = it.nextInt();
+			if (!seen.contains(id)) {
+				removedIds.add(id);
+				it.remove();
+			}
+		}
+
+		if (!changedIds.isEmpty() || !removedIds.isEmpty()) {
+			ServerPlayNetworking.send(player, new BattleHealthSyncPayload(changedIds.toIntArray(),
+					currentHealth.toIntArray(), maxHealth.toIntArray(), removedIds.toIntArray()));
+		}
+	}
+
+	/**
+	 * Drops what was sent to a player, on disconnect and when they change dimension, since entity ids
+	 * from the old level mean nothing in the new one. No removals are sent for them, the client drops its
+	 * synced health on level change and gets the new level's in full.
+	 */
+	public static void forget(ServerPlayer player) {
+		lastSent.remove(player.getUUID());
+	}
+}
@@ -0,0 +1,17 @@
+package vazkii.neat;
+
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+
+public class NeatFabricCommonInitializer implements ModInitializer {
+	@Override
+	public void onInitialize() {
+		PayloadTypeRegistry.playS2C().register(BattleHealthSyncPayload.TYPE, BattleHealthSyncPayload.CODEC);
+		ServerTickEvents.END_SERVER_TICK.register(BattleHealthTracker::tick);
+		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> BattleHealthTracker.forget(handler.getPlayer()));
+		ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> BattleHealthTracker.forget(player));
+	}
+}
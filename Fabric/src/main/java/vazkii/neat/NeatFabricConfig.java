@@ -2,18 +2,26 @@ package vazkii.neat;
 
 import me.shedaniel.autoconfig.AutoConfig;
 import me.shedaniel.autoconfig.ConfigData;
+import me.shedaniel.autoconfig.ConfigHolder;
 import me.shedaniel.autoconfig.annotation.Config;
 import me.shedaniel.autoconfig.annotation.ConfigEntry;
 import me.shedaniel.autoconfig.serializer.JanksonConfigSerializer;
 import me.shedaniel.cloth.clothconfig.shadowed.blue.endless.jankson.Comment;
 
+import net.minecraft.world.InteractionResult;
+
 import java.util.List;
 
 public class NeatFabricConfig {
 
 	public static void init() {
 		AutoConfig.register(Client.class, JanksonConfigSerializer::new);
-		NeatConfig.instance = AutoConfig.getConfigHolder(Client.class).getConfig();
+		ConfigHolder<Client> holder = AutoConfig.getConfigHolder(Client.class);
+		NeatConfig.instance = holder.getConfig();
+		holder.registerSaveListener((manager, config) -> {
+			CompiledConfig.invalidate();
+			return InteractionResult.PASS;
+		});
 	}
 
 	@Config(name = "cobblemon-neat-bunny-client")
@@ -22,6 +30,8 @@ public class NeatFabricConfig {
 		private int maxDistance;
 		@Comment("Maximum distance in blocks at which health bars should render without line of sight")
 		private int maxDistanceWithoutLineOfSight;
+		@Comment("Test line of sight with GPU occlusion queries instead of block raycasts. Results arrive a frame or two late, so plates can pop in slightly after coming into view")
+		private boolean occlusionQueries;
 		@Comment("Whether health bars should render when the HUD is disabled with F1")
 		private boolean renderInF1;
 		@Comment("How far above the mob the health bars should render")
@@ -68,6 +78,10 @@ public class NeatFabricConfig {
 		private boolean showOnlyFocused;
 		@Comment("Show bars for mobs that are at full health")
 		private boolean showFullHealth;
+		@Comment("Only show bars for mobs that took damage recently, and Pokemon in battle. Untouched mobs are skipped before any other check, so crowded bases cost next to nothing")
+		private boolean showOnlyRecentlyDamaged;
+		@Comment("How many seconds a bar stays after the mob last took damage, when only showing recently damaged mobs")
+		private int recentDamageSeconds;
 		@Comment("Show extra debug info on the bar when F3 is enabled")
 		private boolean enableDebugInfo;
 		@Comment("Show entity name")
@@ -83,14 +97,28 @@ public class NeatFabricConfig {
 		private String decimalFormat;
 		@Comment("Entity ID's that should not have bars rendered")
 		private List<String> blacklist;
+		@Comment("Profiles overriding plate options for some entity types, as \"name: selectors option=value...\". Selectors are entity IDs (minecraft:cow), tags (#minecraft:raiders) or spawn categories (@creature). Options that can be overridden: hidden, plateSize, maxDistance, heightAbove, drawBackground, showEntityName, showCurrentHP, showMaxHP, showPercentage, showAttributes, showArmor and cobblemonBattleOnly. Later profiles win over earlier ones. Example: \"farm: @creature plateSize=12 showEntityName=false\"")
+		private List<String> displayProfiles;
 		@Comment("Only show health bars for Cobblemon Pokemon when they are in battle (fades out after battle ends)")
 		private boolean cobblemonBattleOnly;
 		@Comment("Respect Cobblemon's enemy HP hiding - show percentage for enemy Pokemon instead of exact HP (matches Cobblemon's UI)")
 		private boolean cobblemonRespectEnemyHpHiding;
+		@Comment("Most entities Neat keeps animation and lookup state for. Past this, least recently seen entities are dropped, but animation state is kept for every entity still in the world")
+		private int maxTrackedEntities;
+		@Comment("WORLD draws a plate above every entity. HUD_LIST draws a compact list of the most relevant targets (focused, Pokemon in battle, bosses, then nearest) on the side of the screen instead, which is much cheaper in crowded scenes")
+		@ConfigEntry.Gui.EnumHandler(option = ConfigEntry.Gui.EnumHandler.EnumDisplayOption.BUTTON)
+		private NeatConfig.DisplayMode displayMode;
+		@Comment("How many targets the HUD list shows, up to 16")
+		private int hudListSize;
+		@Comment("Prepare health values, names and icons once per tick, formatting them on a worker thread, instead of every frame on the render thread")
+		private boolean preparePlatesOffThread;
+		@Comment("Render each plate into a texture atlas only when its text, bar or icons change, and draw it as a single quad otherwise. Much cheaper with many plates, slightly softer text up close")
+		private boolean plateImpostors;
 
 		public Client() {
 			maxDistance = 48;
 			maxDistanceWithoutLineOfSight = 48;
+			occlusionQueries = false;
 			renderInF1 = false;
 			heightAbove = 1.0D;
 			drawBackground = true;
@@ -114,6 +142,8 @@ public class NeatFabricConfig {
 			showOnBosses = true;
 			showOnlyFocused = false;
 			showFullHealth = true;
+			showOnlyRecentlyDamaged = false;
+			recentDamageSeconds = 10;
 			enableDebugInfo = false;
 			showEntityName = true;
 			nameTagRenderBehavior = NeatConfig.NameTagRenderBehavior.WHEN_NO_HEALTHBAR;
@@ -121,8 +151,14 @@ public class NeatFabricConfig {
 			iconOffsetY = 0.0;
 			decimalFormat = "#.##";
 			blacklist = NeatConfig.DEFAULT_DISABLED;
+			displayProfiles = List.of();
 			cobblemonBattleOnly = true;
 			cobblemonRespectEnemyHpHiding = true;
+			maxTrackedEntities = 2048;
+			displayMode = NeatConfig.DisplayMode.WORLD;
+			hudListSize = 5;
+			preparePlatesOffThread = false;
+			plateImpostors = false;
 		}
 
 		@Override
@@ -135,6 +171,11 @@ public class NeatFabricConfig {
 			return maxDistanceWithoutLineOfSight;
 		}
 
+		@Override
+		public boolean occlusionQueries() {
+			return occlusionQueries;
+		}
+
 		@Override
 		public boolean renderInF1() {
 			return renderInF1;
@@ -250,6 +291,16 @@ public class NeatFabricConfig {
 			return showFullHealth;
 		}
 
+		@Override
+		public boolean showOnlyRecentlyDamaged() {
+			return showOnlyRecentlyDamaged;
+		}
+
+		@Override
+		public int recentDamageSeconds() {
+			return recentDamageSeconds;
+		}
+
 		@Override
 		public boolean enableDebugInfo() {
 			return enableDebugInfo;
@@ -285,6 +336,11 @@ public class NeatFabricConfig {
 			return blacklist;
 		}
 
+		@Override
+		public List<String> displayProfiles() {
+			return displayProfiles;
+		}
+
 		@Override
 		public boolean cobblemonBattleOnly() {
 			return cobblemonBattleOnly;
@@ -294,5 +350,30 @@ public class NeatFabricConfig {
 		public boolean cobblemonRespectEnemyHpHiding() {
 			return cobblemonRespectEnemyHpHiding;
 		}
+
+		@Override
+		public int maxTrackedEntities() {
+			return maxTrackedEntities;
+		}
+
+		@Override
+		public NeatConfig.DisplayMode displayMode() {
+			return displayMode;
+		}
+
+		@Override
+		public int hudListSize() {
+			return hudListSize;
+		}
+
+		@Override
+		public boolean preparePlatesOffThread() {
+			return preparePlatesOffThread;
+		}
+
+		@Override
+		public boolean plateImpostors() {
+			return plateImpostors;
+		}
 	}
 }
@@ -1,12 +1,37 @@
 package vazkii.neat;
 
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 
 public class NeatFabricInitializer implements ClientModInitializer {
 	@Override
 	public void onInitializeClient() {
 		NeatFabricConfig.init();
+		NeatWarmup.start();
 		KeyBindingHelper.registerKeyBinding(ToggleKeybind.KEY);
+		KeyBindingHelper.registerKeyBinding(SceneRecorder.KEY);
+		// Display profiles can select by tag, which only resolve once a world's tags arrive
+		CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> CompiledConfig.invalidate());
+		HudRenderCallback.EVENT.register((graphics, deltaTracker) -> HudList.render(graphics));
+		ClientPlayNetworking.registerGlobalReceiver(BattleHealthSyncPayload.TYPE, (payload, context) -> BattleHealthSync.apply(payload));
+		ServerLifecycleEvents.SERVER_STOPPING.register(StressBench::serverStopping);
+		ClientCommandRegistrationCallback.EVENT.register((dispatcher, buildContext) -> dispatcher.register(
+				ClientCommandManager.literal("neat").then(ClientCommandManager.literal("bench")
+						.executes(context -> StressBench.start(StressBench.DEFAULT_ENTITIES, StressBench.DEFAULT_SECONDS))
+						.then(ClientCommandManager.literal("stop")
+								.executes(context -> StressBench.stop()))
+						.then(ClientCommandManager.argument("entities", IntegerArgumentType.integer(1, StressBench.MAX_ENTITIES))
+								.executes(context -> StressBench.start(IntegerArgumentType.getInteger(context, "entities"), StressBench.DEFAULT_SECONDS))
+								.then(ClientCommandManager.argument("seconds", IntegerArgumentType.integer(1, StressBench.MAX_SECONDS))
+										.executes(context -> StressBench.start(IntegerArgumentType.getInteger(context, "entities"),
+												IntegerArgumentType.getInteger(context, "seconds"))))))));
 	}
 }
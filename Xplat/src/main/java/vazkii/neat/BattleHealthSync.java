@@ -0,0 +1,51 @@
+package vazkii.neat;
+
+import net.minecraft.world.entity.LivingEntity;
+
+import vazkii.neat.core.BattleHealthIndex;
+
+/**
+ * Client-side store for battle health received from a Neat-enabled server.
+ * On dedicated servers the client can't see the server's BattleRegistry, so without this
+ * wild Pokemon outside the player's own client battle would show stale Pokemon.getCurrentHealth values.
+ *
+ * Entries are keyed by network entity id and hold current and max HP packed into one long. They're
+ * cleared with the other entity caches whenever the client level changes, see {@link NeatCaches#levelChanged()}.
+ */
+public class BattleHealthSync {
+
+	private static final BattleHealthIndex synced = new BattleHealthIndex();
+
+	public static long pack(int currentHealth, int maxHealth) {
+		return BattleHealthIndex.pack(currentHealth, maxHealth);
+	}
+
+	/**
+	 * Applies a delta packet. Called on the client thread.
+	 */
+	public static void apply(BattleHealthSyncPayload payload) {
+		synced.apply(payload.removedIds(), payload.entityIds(), payload.currentHealth(), payload.maxHealth());
+	}
+
+	public static boolean has(LivingEntity entity) {
+		return synced.has(entity.getId());
+	}
+
+	/**
+	 * @return the server-synced current HP, or -1 if the server hasn't sent any for this entity
+	 */
+	public static int getCurrentHealth(LivingEntity entity) {
+		return synced.getCurrentHealth(entity.getId());
+	}
+
+	/**
+	 * @return the server-synced max HP, or -1 if the server hasn't sent any for this entity
+	 */
+	public static int getMaxHealth(LivingEntity entity) {
+		return synced.getMaxHealth(entity.getId());
+	}
+
+	public static void clear() {
+		synced.clear();
+	}
+}
@@ -0,0 +1,53 @@
+package vazkii.neat;
+
+import io.netty.handler.codec.DecoderException;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Batched battle-health delta sent from a Neat-enabled server to each player once per tick.
+ * Only entities whose health changed since the last packet are included, and entities that left
+ * battle (or the player's sync radius) are listed in {@code removedIds}.
+ *
+ * Health is sent as Cobblemon's integer HP, so every value fits in a one or two byte varint.
+ */
+public record BattleHealthSyncPayload(int[] entityIds, int[] currentHealth, int[] maxHealth, int[] removedIds) implements CustomPacketPayload {
+
+	public static final Type<BattleHealthSyncPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(NeatConfig.MOD_ID, "battle_health"));
+	public static final StreamCodec<FriendlyByteBuf, BattleHealthSyncPayload> CODEC = CustomPacketPayload.codec(BattleHealthSyncPayload::write, BattleHealthSyncPayload::read);
+
+	private static BattleHealthSyncPayload read(FriendlyByteBuf buf) {
+		int count = buf.readVarInt();
+		// Each entry takes at least three bytes, so a bad count can't make the client allocate more than the packet holds
+		if (count < 0 || count > buf.readableBytes() / 3) {
+			throw new DecoderException("Battle health entry count " + count + " is bigger than the packet allows");
+		}
+		int[] entityIds = new int[count];
+		int[] currentHealth = new int[count];
+		int[] maxHealth = new int[count];
+		for (int i = 0; i < count; i++) {
+			entityIds[i] = buf.readVarInt();
+			currentHealth[i] = buf.readVarInt();
+			maxHealth[i] = buf.readVarInt();
+		}
+		return new BattleHealthSyncPayload(entityIds, currentHealth, maxHealth, buf.readVarIntArray());
+	}
+
+	private void write(FriendlyByteBuf buf) {
+		buf.writeVarInt(entityIds.length);
+		for (int i = 0; i < entityIds.length; i++) {
+			buf.writeVarInt(entityIds[i]);
+			buf.writeVarInt(currentHealth[i]);
+			buf.writeVarInt(maxHealth[i]);
+		}
+		buf.writeVarIntArray(removedIds);
+	}
+
+	@Override
+	public Type<BattleHealthSyncPayload> type() {
+		return TYPE;
+	}
+}
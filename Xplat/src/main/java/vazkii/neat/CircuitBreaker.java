@@ -0,0 +1,101 @@
+package vazkii.neat;
+
+import com.mojang.logging.LogUtils;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards one reflective Cobblemon integration path. When a Cobblemon update breaks a signature, every
+ * Method.invoke on that path throws. Without a breaker, each plate would build and discard exception
+ * stack traces every frame. After {@link #FAILURE_THRESHOLD} consecutive failures the path is skipped
+ * for {@link #BACKOFF_SECONDS} seconds and callers use their cheaper fallback directly.
+ * After the backoff one trial call is let through, and if that fails the breaker opens again immediately.
+ *
+ * Paths are used from the client, render and integrated server threads, so state is atomic.
+ */
+public class CircuitBreaker {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static final int FAILURE_THRESHOLD = 5;
+	private static final long BACKOFF_SECONDS = 30;
+	private static final long BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(BACKOFF_SECONDS);
+
+	private final String name;
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+	private final AtomicLong totalFailures = new AtomicLong();
+	private final AtomicLong trips = new AtomicLong();
+	// System.nanoTime() at which the breaker closes again, or 0 while it's closed
+	private volatile long openUntil = 0L;
+
+	public CircuitBreaker(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return false while the breaker is open, in which case the caller should use its fallback
+	 */
+	public boolean allowsCall() {
+		long until = openUntil;
+		return until == 0L || System.nanoTime() - until >= 0L;
+	}
+
+	public void recordSuccess() {
+		if (consecutiveFailures.get() != 0) {
+			consecutiveFailures.set(0);
+		}
+		if (openUntil != 0L) {
+			openUntil = 0L;
+			LOGGER.info("Cobblemon {} lookups recovered", name);
+		}
+	}
+
+	public void recordFailure(Exception e) {
+		totalFailures.incrementAndGet();
+		// A failed trial call after the backoff reopens straight away
+		if (consecutiveFailures.incrementAndGet() >= FAILURE_THRESHOLD || openUntil != 0L) {
+			consecutiveFailures.set(0);
+			openUntil = System.nanoTime() + BACKOFF_NANOS;
+			trips.incrementAndGet();
+			LOGGER.warn("Cobblemon {} lookups keep failing ({}), using fallback for {}s", name, e, BACKOFF_SECONDS);
+		}
+	}
+
+	/**
+	 * Closes the breaker and forgets its history. For offline fixtures running several scenarios.
+	 */
+	void reset() {
+		consecutiveFailures.set(0);
+		totalFailures.set(0);
+		trips.set(0);
+		openUntil = 0L;
+	}
+
+	/**
+	 * Ends the current backoff early, so the next call is the trial call. For offline fixtures.
+	 */
+	void expireBackoff() {
+		if (openUntil != 0L) {
+			openUntil = System.nanoTime();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isOpen() {
+		return !allowsCall();
+	}
+
+	public long getTotalFailures() {
+		return totalFailures.get();
+	}
+
+	public long getTrips() {
+		return trips.get();
+	}
+}
@@ -1,7 +1,14 @@
 package vazkii.neat;
 
+import com.mojang.logging.LogUtils;
+
 import net.minecraft.world.entity.LivingEntity;
 
+import org.slf4j.Logger;
+
+import vazkii.neat.jfr.CobblemonLookupEvent;
+import vazkii.neat.jfr.NeatJfr;
+
 /**
  * Helper class for integrating with Cobblemon mod via reflection.
  * This allows accessing Pokemon health values and battle state without a compile-time dependency.
@@ -14,6 +21,10 @@ import net.minecraft.world.entity.LivingEntity;
  */
 public class CobblemonIntegration {
 	
+	private static final Logger LOGGER = LogUtils.getLogger();
+	// Passed to every no-arg Method.invoke, otherwise each call allocates an empty varargs array
+	private static final Object[] NO_ARGS = new Object[0];
+	
 	// Cached reflection data - Basic Pokemon access
 	private static Class<?> pokemonEntityClass = null;
 	private static java.lang.reflect.Method getPokemonMethod = null;
@@ -24,6 +35,7 @@ public class CobblemonIntegration {
 	// Cached reflection data - Server-side Battle system access
 	private static java.lang.reflect.Method getBattleIdMethod = null;
 	private static Class<?> battleRegistryClass = null;
+	private static Object battleRegistryInstance = null;
 	private static java.lang.reflect.Method getBattleMethod = null;
 	private static java.lang.reflect.Method getActorsMethod = null;
 	private static java.lang.reflect.Method getPokemonListMethod = null;
@@ -47,7 +59,14 @@ public class CobblemonIntegration {
 	private static java.lang.reflect.Method isHpFlatMethod = null;
 	private static java.lang.reflect.Method getClientPokemonUuidMethod = null;
 	
-	private static boolean initialized = false;
+	// Each reflective path is skipped for a while once it keeps failing, see CircuitBreaker
+	private static final CircuitBreaker CLIENT_BATTLE_BREAKER = new CircuitBreaker("client battle");
+	private static final CircuitBreaker SERVER_BATTLE_BREAKER = new CircuitBreaker("server battle");
+	private static final CircuitBreaker POKEMON_BREAKER = new CircuitBreaker("Pokemon health");
+	private static final java.util.List<CircuitBreaker> CIRCUIT_BREAKERS = java.util.List.of(CLIENT_BATTLE_BREAKER, SERVER_BATTLE_BREAKER, POKEMON_BREAKER);
+	
+	// Volatile so the handles above, written during initialize(), are safely published to every thread
+	private static volatile boolean initialized = false;
 	private static boolean cobblemonAvailable = false;
 	private static boolean battleSystemAvailable = false;
 	private static boolean clientBattleSystemAvailable = false;
@@ -65,14 +84,21 @@ public class CobblemonIntegration {
 	
 	/**
 	 * Initialize Cobblemon integration by loading classes via reflection.
-	 * Called lazily on first use.
+	 * Normally run by {@link NeatWarmup} off the render thread, otherwise called lazily on first use.
 	 */
 	private static void initialize() {
 		if (initialized) {
 			return;
 		}
-		initialized = true;
-		
+		synchronized (CobblemonIntegration.class) {
+			if (!initialized) {
+				initializeCobblemon();
+				initialized = true;
+			}
+		}
+	}
+	
+	private static void initializeCobblemon() {
 		try {
 			// Load PokemonEntity class
 			pokemonEntityClass = Class.forName("com.cobblemon.mod.common.entity.pokemon.PokemonEntity");
@@ -86,14 +112,14 @@ public class CobblemonIntegration {
 			pokemonGetUuidMethod = pokemonClass.getMethod("getUuid");
 			
 			cobblemonAvailable = true;
-			System.out.println("[Neat] Cobblemon integration initialized successfully!");
+			LOGGER.info("Cobblemon integration initialized successfully!");
 			
 			// Try to initialize battle system access
 			initializeBattleSystem();
 			
 		} catch (ClassNotFoundException | NoSuchMethodException e) {
 			cobblemonAvailable = false;
-			System.out.println("[Neat] Cobblemon not detected - using standard health values for all entities");
+			LOGGER.info("Cobblemon not detected - using standard health values for all entities");
 		}
 	}
 	
@@ -108,6 +134,8 @@ public class CobblemonIntegration {
 			// BattleRegistry.getBattle(UUID) returns PokemonBattle?
 			battleRegistryClass = Class.forName("com.cobblemon.mod.common.battles.BattleRegistry");
 			getBattleMethod = battleRegistryClass.getMethod("getBattle", java.util.UUID.class);
+			// It's a Kotlin object, so resolve INSTANCE once instead of on every lookup
+			battleRegistryInstance = battleRegistryClass.getField("INSTANCE").get(null);
 			
 			// PokemonBattle.getActors() returns Iterable<BattleActor>
 			Class<?> pokemonBattleClass = Class.forName("com.cobblemon.mod.common.api.battles.model.PokemonBattle");
@@ -123,14 +151,14 @@ public class CobblemonIntegration {
 			getOriginalPokemonMethod = battlePokemonClass.getMethod("getOriginalPokemon");
 			
 			battleSystemAvailable = true;
-			System.out.println("[Neat] Cobblemon battle system integration initialized!");
+			LOGGER.info("Cobblemon battle system integration initialized!");
 			
 			// Try to initialize client-side battle system for UI sync
 			initializeClientBattleSystem();
 			
-		} catch (ClassNotFoundException | NoSuchMethodException e) {
+		} catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | IllegalAccessException e) {
 			battleSystemAvailable = false;
-			System.out.println("[Neat] Cobblemon battle system not fully accessible - battle-only mode may not work correctly");
+			LOGGER.info("Cobblemon battle system not fully accessible - battle-only mode may not work correctly");
 		}
 	}
 	
@@ -166,11 +194,12 @@ public class CobblemonIntegration {
 			getClientPokemonUuidMethod = clientBattlePokemonClass.getMethod("getUuid");
 			
 			clientBattleSystemAvailable = true;
-			System.out.println("[Neat] Cobblemon client battle system integration initialized - UI sync enabled!");
+			LOGGER.info("Cobblemon client battle system integration initialized - UI sync enabled!");
 			
-		} catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | IllegalAccessException e) {
+		} catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | IllegalAccessException | LinkageError e) {
+			// LinkageError: CobblemonClient can't be initialized on a dedicated server
 			clientBattleSystemAvailable = false;
-			System.out.println("[Neat] Cobblemon client battle system not accessible - falling back to server-side health values");
+			LOGGER.info("Cobblemon client battle system not accessible - falling back to server-side health values");
 		}
 	}
 	
@@ -198,85 +227,147 @@ public class CobblemonIntegration {
 	 * Returns false if not a Pokemon or not in battle.
 	 */
 	public static boolean isInBattle(LivingEntity entity) {
-		if (!isPokemonEntity(entity) || !battleSystemAvailable) {
+		if (!isPokemonEntity(entity)) {
+			return false;
+		}
+		boolean clientSide = entity.level().isClientSide();
+		if (clientSide && BattleHealthSync.has(entity)) {
+			return true; // The server only syncs battle participants
+		}
+		return isInBattleUnchecked(entity, clientSide);
+	}
+	
+	/**
+	 * Reflective part of {@link #isInBattle}, for an object already known to be a PokemonEntity.
+	 * Package-private so benchmarks can drive it with stand-in classes.
+	 */
+	static boolean isInBattleUnchecked(Object entity, boolean clientSide) {
+		// A battle lookup, so a broken getBattleId only trips its side's battle breaker and not Pokemon health
+		CircuitBreaker breaker = clientSide ? CLIENT_BATTLE_BREAKER : SERVER_BATTLE_BREAKER;
+		if (!battleSystemAvailable || !breaker.allowsCall()) {
 			return false;
 		}
 		
+		NeatStats.reflectiveCall();
 		try {
-			Object battleId = getBattleIdMethod.invoke(entity);
+			Object battleId = getBattleIdMethod.invoke(entity, NO_ARGS);
+			breaker.recordSuccess();
 			return battleId != null;
 		} catch (Exception e) {
+			breaker.recordFailure(e);
 			return false;
 		}
 	}
 	
 	/**
 	 * Get the current health of a Pokemon entity.
+	 * If the server synced battle health for it, returns that value.
 	 * If in battle, returns health from the battle system's effectedPokemon.
 	 * Returns -1 if not a Pokemon or if an error occurs.
 	 */
 	public static int getPokemonCurrentHealth(LivingEntity entity) {
+		return getPokemonHealthRecorded(entity, false);
+	}
+	
+	/**
+	 * Get the max health of a Pokemon entity.
+	 * If the server synced battle health for it, returns that value.
+	 * If in battle, returns max health from the battle system's effectedPokemon.
+	 * Returns -1 if not a Pokemon or if an error occurs.
+	 */
+	public static int getPokemonMaxHealth(LivingEntity entity) {
+		return getPokemonHealthRecorded(entity, true);
+	}
+	
+	private static int getPokemonHealthRecorded(LivingEntity entity, boolean max) {
+		if (!NeatJfr.isCobblemonLookupEnabled() || !isPokemonEntity(entity)) {
+			return getPokemonHealth(entity, max, null);
+		}
+		CobblemonLookupEvent event = new CobblemonLookupEvent();
+		event.begin();
+		int health = getPokemonHealth(entity, max, event);
+		event.found = health >= 0;
+		event.commit();
+		return health;
+	}
+	
+	/**
+	 * @param event if non-null, receives the integration path that answered
+	 */
+	private static int getPokemonHealth(LivingEntity entity, boolean max, CobblemonLookupEvent event) {
 		if (!isPokemonEntity(entity)) {
 			return -1;
 		}
 		
+		// On a client connected to a Neat-enabled server, prefer the server's battle health sync
+		if (entity.level().isClientSide()) {
+			int syncedHealth = max ? BattleHealthSync.getMaxHealth(entity) : BattleHealthSync.getCurrentHealth(entity);
+			if (syncedHealth >= 0) {
+				if (event != null) {
+					event.path = CobblemonLookupEvent.PATH_SERVER_SYNC;
+				}
+				return syncedHealth;
+			}
+		}
+		
+		return getPokemonHealthUnchecked(entity, max, event);
+	}
+	
+	/**
+	 * Reflective part of {@link #getPokemonCurrentHealth} and {@link #getPokemonMaxHealth}, for an object
+	 * already known to be a PokemonEntity. Package-private so benchmarks can drive it with stand-in classes.
+	 */
+	static int getPokemonHealthUnchecked(Object entity, boolean max, CobblemonLookupEvent event) {
+		if (event != null) {
+			event.path = CobblemonLookupEvent.PATH_FALLBACK;
+		}
+		if (!POKEMON_BREAKER.allowsCall()) {
+			return -1;
+		}
+		java.lang.reflect.Method healthMethod = max ? getMaxHealthMethod : getCurrentHealthMethod;
+		NeatStats.reflectiveCall();
 		try {
-			Object pokemon = getPokemonMethod.invoke(entity);
+			Object pokemon = getPokemonMethod.invoke(entity, NO_ARGS);
 			if (pokemon == null) {
 				return -1;
 			}
 			
 			// If in battle, get health from battle system
-			if (battleSystemAvailable) {
-				Object battlePokemon = getBattlePokemonForEntity(entity, pokemon);
-				if (battlePokemon != null) {
-					Object effectedPokemon = getEffectedPokemonMethod.invoke(battlePokemon);
-					if (effectedPokemon != null) {
-						return (int) getCurrentHealthMethod.invoke(effectedPokemon);
-					}
-				}
+			Object effectedPokemon = getEffectedPokemon(entity, pokemon);
+			if (event != null && effectedPokemon != null) {
+				event.path = CobblemonLookupEvent.PATH_SERVER_BATTLE;
 			}
 			
 			// Fallback to Pokemon's health (used when not in battle)
-			return (int) getCurrentHealthMethod.invoke(pokemon);
+			int health = (int) healthMethod.invoke(effectedPokemon != null ? effectedPokemon : pokemon, NO_ARGS);
+			POKEMON_BREAKER.recordSuccess();
+			return health;
 			
 		} catch (Exception e) {
+			POKEMON_BREAKER.recordFailure(e);
 			return -1;
 		}
 	}
 	
 	/**
-	 * Get the max health of a Pokemon entity.
-	 * If in battle, returns max health from the battle system's effectedPokemon.
-	 * Returns -1 if not a Pokemon or if an error occurs.
+	 * Get the battle clone (effectedPokemon) of a Pokemon that's in a server-side battle.
+	 * 
+	 * @return The effectedPokemon if in battle, null otherwise or while the server battle path is tripped
 	 */
-	public static int getPokemonMaxHealth(LivingEntity entity) {
-		if (!isPokemonEntity(entity)) {
-			return -1;
+	private static Object getEffectedPokemon(Object entity, Object pokemon) {
+		if (!battleSystemAvailable || !SERVER_BATTLE_BREAKER.allowsCall()) {
+			return null;
 		}
 		
+		NeatStats.reflectiveCall();
 		try {
-			Object pokemon = getPokemonMethod.invoke(entity);
-			if (pokemon == null) {
-				return -1;
-			}
-			
-			// If in battle, get max health from battle system
-			if (battleSystemAvailable) {
-				Object battlePokemon = getBattlePokemonForEntity(entity, pokemon);
-				if (battlePokemon != null) {
-					Object effectedPokemon = getEffectedPokemonMethod.invoke(battlePokemon);
-					if (effectedPokemon != null) {
-						return (int) getMaxHealthMethod.invoke(effectedPokemon);
-					}
-				}
-			}
-			
-			// Fallback to Pokemon's max health
-			return (int) getMaxHealthMethod.invoke(pokemon);
-			
+			Object battlePokemon = getBattlePokemonForEntity(entity, pokemon);
+			Object effectedPokemon = battlePokemon != null ? getEffectedPokemonMethod.invoke(battlePokemon, NO_ARGS) : null;
+			SERVER_BATTLE_BREAKER.recordSuccess();
+			return effectedPokemon;
 		} catch (Exception e) {
-			return -1;
+			SERVER_BATTLE_BREAKER.recordFailure(e);
+			return null;
 		}
 	}
 	
@@ -285,48 +376,39 @@ public class CobblemonIntegration {
 	 * 
 	 * @return The BattlePokemon if in battle, null otherwise
 	 */
-	private static Object getBattlePokemonForEntity(LivingEntity entity, Object pokemon) {
-		if (!battleSystemAvailable || getBattleIdMethod == null) {
+	private static Object getBattlePokemonForEntity(Object entity, Object pokemon) throws ReflectiveOperationException {
+		// Get battleId from entity
+		Object battleId = getBattleIdMethod.invoke(entity, NO_ARGS);
+		if (battleId == null) {
+			return null; // Not in battle
+		}
+		
+		// Get the battle from BattleRegistry
+		Object battle = getBattleMethod.invoke(battleRegistryInstance, battleId);
+		if (battle == null) {
 			return null;
 		}
 		
-		try {
-			// Get battleId from entity
-			Object battleId = getBattleIdMethod.invoke(entity);
-			if (battleId == null) {
-				return null; // Not in battle
-			}
-			
-			// Get the battle from BattleRegistry (it's a Kotlin object, need INSTANCE)
-			Object battleRegistryInstance = battleRegistryClass.getField("INSTANCE").get(null);
-			Object battle = getBattleMethod.invoke(battleRegistryInstance, battleId);
-			if (battle == null) {
-				return null;
-			}
-			
-			// Get the Pokemon's UUID to match against
-			java.util.UUID pokemonUuid = (java.util.UUID) pokemonGetUuidMethod.invoke(pokemon);
-			
-			// Iterate through all actors in the battle
+		// Get the Pokemon's UUID to match against
+		java.util.UUID pokemonUuid = (java.util.UUID) pokemonGetUuidMethod.invoke(pokemon, NO_ARGS);
+		
+		// Iterate through all actors in the battle
+		@SuppressWarnings("unchecked")
+		Iterable<Object> actors = (Iterable<Object>) getActorsMethod.invoke(battle, NO_ARGS);
+		for (Object actor : actors) {
+			// Get the pokemon list for this actor
 			@SuppressWarnings("unchecked")
-			Iterable<Object> actors = (Iterable<Object>) getActorsMethod.invoke(battle);
-			for (Object actor : actors) {
-				// Get the pokemon list for this actor
-				@SuppressWarnings("unchecked")
-				java.util.List<Object> pokemonList = (java.util.List<Object>) getPokemonListMethod.invoke(actor);
-				for (Object battlePokemon : pokemonList) {
-					// Compare against ORIGINAL pokemon UUID (not effected, which may be a clone)
-					Object originalPokemon = getOriginalPokemonMethod.invoke(battlePokemon);
-					if (originalPokemon != null) {
-						java.util.UUID originalUuid = (java.util.UUID) pokemonGetUuidMethod.invoke(originalPokemon);
-						if (pokemonUuid.equals(originalUuid)) {
-							return battlePokemon;
-						}
+			java.util.List<Object> pokemonList = (java.util.List<Object>) getPokemonListMethod.invoke(actor, NO_ARGS);
+			for (Object battlePokemon : pokemonList) {
+				// Compare against ORIGINAL pokemon UUID (not effected, which may be a clone)
+				Object originalPokemon = getOriginalPokemonMethod.invoke(battlePokemon, NO_ARGS);
+				if (originalPokemon != null) {
+					java.util.UUID originalUuid = (java.util.UUID) pokemonGetUuidMethod.invoke(originalPokemon, NO_ARGS);
+					if (pokemonUuid.equals(originalUuid)) {
+						return battlePokemon;
 					}
 				}
 			}
-		} catch (Exception e) {
-			// Battle system access failed
 		}
 		
 		return null;
@@ -337,35 +419,63 @@ public class CobblemonIntegration {
 	 * This reads from ClientBattlePokemon which is synced with Cobblemon's native UI.
 	 * 
 	 * @param entity The Pokemon entity to get health for
-	 * @return ClientBattleHealthInfo if in client battle, null otherwise
+	 * @return ClientBattleHealthInfo if in client battle, null otherwise or while the client battle path is tripped
 	 */
 	public static ClientBattleHealthInfo getClientBattleHealth(LivingEntity entity) {
-		if (!isPokemonEntity(entity) || !clientBattleSystemAvailable) {
+		if (!NeatJfr.isCobblemonLookupEnabled() || !isPokemonEntity(entity)) {
+			return lookupClientBattleHealth(entity);
+		}
+		CobblemonLookupEvent event = new CobblemonLookupEvent();
+		event.begin();
+		ClientBattleHealthInfo info = lookupClientBattleHealth(entity);
+		event.path = CobblemonLookupEvent.PATH_CLIENT_BATTLE;
+		event.found = info != null;
+		event.commit();
+		return info;
+	}
+	
+	private static ClientBattleHealthInfo lookupClientBattleHealth(LivingEntity entity) {
+		if (!isPokemonEntity(entity)) {
+			return null;
+		}
+		return getClientBattleHealthUnchecked(entity);
+	}
+	
+	/**
+	 * Reflective part of {@link #getClientBattleHealth}, for an object already known to be a PokemonEntity.
+	 * Package-private so benchmarks can drive it with stand-in classes.
+	 */
+	static ClientBattleHealthInfo getClientBattleHealthUnchecked(Object entity) {
+		if (!clientBattleSystemAvailable || !CLIENT_BATTLE_BREAKER.allowsCall()) {
 			return null;
 		}
 		
+		NeatStats.reflectiveCall();
 		try {
 			// Get the Pokemon's UUID
-			Object pokemon = getPokemonMethod.invoke(entity);
+			Object pokemon = getPokemonMethod.invoke(entity, NO_ARGS);
 			if (pokemon == null) {
 				return null;
 			}
-			java.util.UUID pokemonUuid = (java.util.UUID) pokemonGetUuidMethod.invoke(pokemon);
+			java.util.UUID pokemonUuid = (java.util.UUID) pokemonGetUuidMethod.invoke(pokemon, NO_ARGS);
 			
 			// Find the ClientBattlePokemon by UUID
 			Object clientBattlePokemon = findClientBattlePokemon(pokemonUuid);
 			if (clientBattlePokemon == null) {
+				CLIENT_BATTLE_BREAKER.recordSuccess();
 				return null;
 			}
 			
 			// Extract health data from ClientBattlePokemon
-			float hpValue = (float) getClientHpValueMethod.invoke(clientBattlePokemon);
-			float maxHp = (float) getClientMaxHpMethod.invoke(clientBattlePokemon);
-			boolean isHpFlat = (boolean) isHpFlatMethod.invoke(clientBattlePokemon);
+			float hpValue = (float) getClientHpValueMethod.invoke(clientBattlePokemon, NO_ARGS);
+			float maxHp = (float) getClientMaxHpMethod.invoke(clientBattlePokemon, NO_ARGS);
+			boolean isHpFlat = (boolean) isHpFlatMethod.invoke(clientBattlePokemon, NO_ARGS);
 			
+			CLIENT_BATTLE_BREAKER.recordSuccess();
 			return new ClientBattleHealthInfo(hpValue, maxHp, isHpFlat, true);
 			
 		} catch (Exception e) {
+			CLIENT_BATTLE_BREAKER.recordFailure(e);
 			return null;
 		}
 	}
@@ -377,32 +487,27 @@ public class CobblemonIntegration {
 	 * @param pokemonUuid The UUID of the Pokemon to find
 	 * @return The ClientBattlePokemon object if found, null otherwise
 	 */
-	private static Object findClientBattlePokemon(java.util.UUID pokemonUuid) {
-		if (!clientBattleSystemAvailable || cobblemonClientInstance == null) {
+	private static Object findClientBattlePokemon(java.util.UUID pokemonUuid) throws ReflectiveOperationException {
+		if (cobblemonClientInstance == null) {
 			return null;
 		}
 		
-		try {
-			// Get current client battle
-			Object clientBattle = getClientBattleMethod.invoke(cobblemonClientInstance);
-			if (clientBattle == null) {
-				return null; // Not in a battle
-			}
-			
-			// Search side1
-			Object side1 = getSide1Method.invoke(clientBattle);
-			Object result = searchSideForPokemon(side1, pokemonUuid);
-			if (result != null) {
-				return result;
-			}
-			
-			// Search side2
-			Object side2 = getSide2Method.invoke(clientBattle);
-			return searchSideForPokemon(side2, pokemonUuid);
-			
-		} catch (Exception e) {
-			return null;
+		// Get current client battle
+		Object clientBattle = getClientBattleMethod.invoke(cobblemonClientInstance, NO_ARGS);
+		if (clientBattle == null) {
+			return null; // Not in a battle
 		}
+		
+		// Search side1
+		Object side1 = getSide1Method.invoke(clientBattle, NO_ARGS);
+		Object result = searchSideForPokemon(side1, pokemonUuid);
+		if (result != null) {
+			return result;
+		}
+		
+		// Search side2
+		Object side2 = getSide2Method.invoke(clientBattle, NO_ARGS);
+		return searchSideForPokemon(side2, pokemonUuid);
 	}
 	
 	/**
@@ -412,31 +517,34 @@ public class CobblemonIntegration {
 	 * @param pokemonUuid The UUID to match
 	 * @return The ClientBattlePokemon if found, null otherwise
 	 */
-	private static Object searchSideForPokemon(Object side, java.util.UUID pokemonUuid) {
+	private static Object searchSideForPokemon(Object side, java.util.UUID pokemonUuid) throws ReflectiveOperationException {
 		if (side == null) {
 			return null;
 		}
 		
-		try {
-			@SuppressWarnings("unchecked")
-			java.util.List<Object> activeList = (java.util.List<Object>) getActiveClientBattlePokemonMethod.invoke(side);
-			
-			for (Object activePokemon : activeList) {
-				Object clientBattlePokemon = getClientBattlePokemonMethod.invoke(activePokemon);
-				if (clientBattlePokemon != null) {
-					java.util.UUID uuid = (java.util.UUID) getClientPokemonUuidMethod.invoke(clientBattlePokemon);
-					if (pokemonUuid.equals(uuid)) {
-						return clientBattlePokemon;
-					}
+		@SuppressWarnings("unchecked")
+		java.util.List<Object> activeList = (java.util.List<Object>) getActiveClientBattlePokemonMethod.invoke(side, NO_ARGS);
+		
+		for (Object activePokemon : activeList) {
+			Object clientBattlePokemon = getClientBattlePokemonMethod.invoke(activePokemon, NO_ARGS);
+			if (clientBattlePokemon != null) {
+				java.util.UUID uuid = (java.util.UUID) getClientPokemonUuidMethod.invoke(clientBattlePokemon, NO_ARGS);
+				if (pokemonUuid.equals(uuid)) {
+					return clientBattlePokemon;
 				}
 			}
-		} catch (Exception e) {
-			// Search failed
 		}
 		
 		return null;
 	}
 	
+	/**
+	 * Circuit breakers for each reflective path, cheapest fallback last. Exposed for diagnostics.
+	 */
+	public static java.util.List<CircuitBreaker> getCircuitBreakers() {
+		return CIRCUIT_BREAKERS;
+	}
+	
 	/**
 	 * Check if client-side battle system is available.
 	 */
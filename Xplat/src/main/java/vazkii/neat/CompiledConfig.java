@@ -0,0 +1,59 @@
+package vazkii.neat;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.EntityType;
+
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.TypeFilter;
+
+import java.text.DecimalFormat;
+import java.util.HexFormat;
+
+/**
+ * Config values pre-processed into the form the render path needs, so plates don't parse hex colors,
+ * build DecimalFormats or check entity type tags every frame.
+ * Rebuilt lazily after {@link #invalidate()}, which the loader calls whenever the config is saved and
+ * whenever a world's tags are loaded.
+ */
+public class CompiledConfig {
+
+	private static volatile CompiledConfig current = null;
+
+	// Indexed by entity type registry id, see DisplayProfiles
+	private final DisplayProfile[] profiles;
+	private final DisplayProfile fallbackProfile;
+	final TypeFilter typeFilter;
+	final int textColor;
+	// Only used from the render thread once published
+	final DecimalFormat healthFormat;
+
+	private CompiledConfig(NeatConfig.ConfigAccess config) {
+		profiles = DisplayProfiles.resolve(config);
+		fallbackProfile = DisplayProfiles.base(config).build();
+		typeFilter = PlateFilter.typeFilter(config);
+		textColor = HexFormat.fromHexDigits(config.textColor());
+		healthFormat = new DecimalFormat(config.decimalFormat());
+	}
+
+	public static CompiledConfig get() {
+		CompiledConfig compiled = current;
+		if (compiled == null) {
+			compiled = new CompiledConfig(NeatConfig.instance);
+			current = compiled;
+		}
+		return compiled;
+	}
+
+	public static void invalidate() {
+		current = null;
+	}
+
+	/**
+	 * @return the display profile resolved for the entity type
+	 */
+	public DisplayProfile profile(EntityType<?> type) {
+		int id = BuiltInRegistries.ENTITY_TYPE.getId(type);
+		// Types registered after the config was compiled get the global options
+		return id >= 0 && id < profiles.length ? profiles[id] : fallbackProfile;
+	}
+}
@@ -0,0 +1,125 @@
+package vazkii.neat;
+
+import com.mojang.logging.LogUtils;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.EntityType;
+
+import org.slf4j.Logger;
+
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.ProfileSpec;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the displayProfiles option into one {@link DisplayProfile} per entity type, indexed by the
+ * type's registry id. Profiles apply in the order they're listed, so later ones override earlier ones
+ * for types both select. Tags only resolve once a world's tags are loaded, so the loader invalidates
+ * {@link CompiledConfig} when they are.
+ */
+public class DisplayProfiles {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+
+	private record Selector(ProfileSpec spec, Set<ResourceLocation> ids, List<TagKey<EntityType<?>>> tags) {
+		boolean matches(EntityType<?> type, ResourceLocation id) {
+			if (ids.contains(id) || spec.categories().contains(type.getCategory().getName())) {
+				return true;
+			}
+			for (TagKey<EntityType<?>> tag : tags) {
+				if (type.is(tag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * @return the global plate options as a builder for a type no profile selects
+	 */
+	public static DisplayProfile.Builder base(NeatConfig.ConfigAccess config) {
+		return new DisplayProfile.Builder()
+				.plateSize(config.plateSize())
+				.maxDistance(config.maxDistance())
+				.heightAbove(config.heightAbove())
+				.drawBackground(config.drawBackground())
+				.showEntityName(config.showEntityName())
+				.showCurrentHP(config.showCurrentHP())
+				.showMaxHP(config.showMaxHP())
+				.showPercentage(config.showPercentage())
+				.showAttributes(config.showAttributes())
+				.showArmor(config.showArmor())
+				.cobblemonBattleOnly(config.cobblemonBattleOnly());
+	}
+
+	/**
+	 * Parses the displayProfiles option, skipping and logging malformed profiles.
+	 */
+	public static List<ProfileSpec> parse(NeatConfig.ConfigAccess config) {
+		List<ProfileSpec> specs = new ArrayList<>();
+		for (String line : config.displayProfiles()) {
+			try {
+				specs.add(ProfileSpec.parse(line));
+			} catch (IllegalArgumentException e) {
+				LOGGER.warn("Ignoring display profile: {}", e.getMessage());
+			}
+		}
+		return specs;
+	}
+
+	/**
+	 * @return the profile of every registered entity type, indexed by {@code BuiltInRegistries.ENTITY_TYPE.getId}
+	 */
+	static DisplayProfile[] resolve(NeatConfig.ConfigAccess config) {
+		List<Selector> selectors = new ArrayList<>();
+		for (ProfileSpec spec : parse(config)) {
+			Set<ResourceLocation> ids = new HashSet<>();
+			for (String id : spec.ids()) {
+				ResourceLocation location = ResourceLocation.tryParse(id);
+				if (location != null) {
+					ids.add(location);
+				}
+			}
+			List<TagKey<EntityType<?>>> tags = new ArrayList<>();
+			for (String tag : spec.tags()) {
+				ResourceLocation location = ResourceLocation.tryParse(tag);
+				if (location != null) {
+					tags.add(TagKey.create(Registries.ENTITY_TYPE, location));
+				}
+			}
+			selectors.add(new Selector(spec, ids, tags));
+		}
+
+		Set<ResourceLocation> blacklist = new HashSet<>();
+		for (String id : config.blacklist()) {
+			ResourceLocation location = ResourceLocation.tryParse(id);
+			if (location != null) {
+				blacklist.add(location);
+			}
+		}
+
+		DisplayProfile[] profiles = new DisplayProfile[BuiltInRegistries.ENTITY_TYPE.size()];
+		for (EntityType<?> type : BuiltInRegistries.ENTITY_TYPE) {
+			ResourceLocation id = BuiltInRegistries.ENTITY_TYPE.getKey(type);
+			DisplayProfile.Builder builder = base(config).hidden(blacklist.contains(id));
+			if (HealthBarRenderer.isBoss(type)) {
+				builder.boss(true).plateSize(config.plateSizeBoss());
+			}
+			for (Selector selector : selectors) {
+				if (selector.matches(type, id)) {
+					selector.spec().applyTo(builder);
+				}
+			}
+			profiles[BuiltInRegistries.ENTITY_TYPE.getId(type)] = builder.build();
+		}
+		return profiles;
+	}
+}
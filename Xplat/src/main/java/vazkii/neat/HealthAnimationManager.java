@@ -3,69 +3,36 @@ package vazkii.neat;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.util.Mth;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import vazkii.neat.core.BoundedCache;
+import vazkii.neat.core.HealthAnimator;
+import vazkii.neat.jfr.AnimationTickEvent;
+import vazkii.neat.jfr.NeatJfr;
+
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class HealthAnimationManager {
-	private static final Map<UUID, Float> animatedHealth = new ConcurrentHashMap<>();
-	private static final Map<UUID, FadeState> fadeStates = new ConcurrentHashMap<>();
-	private static final Map<UUID, Boolean> wasInBattle = new ConcurrentHashMap<>(); // Tracks previous battle state for Pokemon
-	private static final float LERP_SPEED = 0.15F; // Higher = faster animation (0.0 to 1.0)
-	private static final float FADE_OUT_SPEED = 0.08F; // Higher = faster fade (0.0 to 1.0)
-	private static final float FADE_OUT_DURATION_TICKS = 20.0F; // How many ticks to fade out (1 second at 20 TPS)
-	
-	/**
-	 * Tracks the fade state for an entity (alpha value and whether it's fading out).
-	 */
-	private static class FadeState {
-		float alpha = 1.0F;
-		int fadeOutTicks = 0;
-		boolean isFadingOut = false;
-		
-		void startFadeOut() {
-			if (!isFadingOut) {
-				isFadingOut = true;
-				fadeOutTicks = 0;
-			}
-		}
-		
-		boolean update() {
-			if (isFadingOut) {
-				fadeOutTicks++;
-				// Fade out alpha over time
-				float progress = fadeOutTicks / FADE_OUT_DURATION_TICKS;
-				alpha = Mth.clamp(1.0F - progress, 0.0F, 1.0F);
-				
-				// If fully faded, return true to indicate we should remove this entity
-				if (alpha <= 0.0F) {
-					return true;
-				}
-			}
-			return false;
-		}
-	}
-	
+	// The state machine itself lives in Core, this feeds it from the client world
+	private static final HealthAnimator animator = new HealthAnimator(NeatCaches.DEFAULT_ENTITY_CAPACITY);
+
 	/**
 	 * Gets the animated health value for an entity, creating it if it doesn't exist.
 	 * This should be called during rendering to get the smoothly interpolated health.
 	 * Uses effective health which accounts for Cobblemon's battle system.
 	 */
 	public static float getAnimatedHealth(LivingEntity entity) {
-		UUID id = entity.getUUID();
-		float targetHealth = HealthBarRenderer.getEffectiveCurrentHealth(entity);
-		
-		// If we don't have an entry for this entity, initialize it with current health
-		if (!animatedHealth.containsKey(id)) {
-			animatedHealth.put(id, targetHealth);
-			return targetHealth;
-		}
-		
-		return animatedHealth.get(id);
+		return getAnimatedHealth(entity, HealthBarRenderer.getEffectiveCurrentHealth(entity));
+	}
+
+	/**
+	 * Same as {@link #getAnimatedHealth(LivingEntity)}, for callers that already resolved the effective health.
+	 */
+	public static float getAnimatedHealth(LivingEntity entity, float targetHealth) {
+		return getAnimatedHealth(entity.getUUID(), targetHealth);
+	}
+
+	static float getAnimatedHealth(UUID id, float targetHealth) {
+		return animator.getAnimatedHealth(id, targetHealth);
 	}
 	
 	/**
@@ -73,11 +40,7 @@ public class HealthAnimationManager {
 	 * Returns 1.0F for normal entities, or a fading value for entities that are dead.
 	 */
 	public static float getAlpha(UUID entityId) {
-		FadeState fadeState = fadeStates.get(entityId);
-		if (fadeState == null) {
-			return 1.0F;
-		}
-		return fadeState.alpha;
+		return animator.getAlpha(entityId);
 	}
 	
 	/**
@@ -85,8 +48,15 @@ public class HealthAnimationManager {
 	 * This allows us to continue rendering the health bar during fade-out.
 	 */
 	public static boolean isFadingOut(UUID entityId) {
-		FadeState fadeState = fadeStates.get(entityId);
-		return fadeState != null && fadeState.isFadingOut;
+		return animator.isFadingOut(entityId);
+	}
+
+	/**
+	 * Checks if an entity's health went down within the last {@code ticks} client ticks.
+	 * Health is compared once per tick, so this includes damage seen through Cobblemon's battle health.
+	 */
+	public static boolean wasDamagedWithin(UUID entityId, int ticks) {
+		return animator.wasDamagedWithin(entityId, ticks);
 	}
 	
 	/**
@@ -94,107 +64,94 @@ public class HealthAnimationManager {
 	 * This should be called every client tick.
 	 */
 	public static void tick() {
+		if (!NeatWarmup.isReady()) {
+			return;
+		}
+		AnimationTickEvent event = NeatJfr.isAnimationTickEnabled() ? new AnimationTickEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+		if (!NeatStats.isEnabled()) {
+			update(event);
+		} else {
+			long start = System.nanoTime();
+			update(event);
+			NeatStats.add(NeatStats.Counter.ANIMATION_TICK_NANOS, System.nanoTime() - start);
+			NeatStats.increment(NeatStats.Counter.TICKS);
+		}
+		if (event != null) {
+			event.tracked = trackedCount();
+			event.commit();
+		}
+	}
+
+	private static void update(AnimationTickEvent event) {
 		Minecraft mc = Minecraft.getInstance();
 		if (mc.level == null) {
 			// Clear all entries when not in a world
-			animatedHealth.clear();
-			fadeStates.clear();
-			wasInBattle.clear();
+			clear();
+			BattleHealthSync.clear();
+			OcclusionQueries.clear();
 			return;
 		}
 		
-		// Track which entities we've seen this tick
-		Set<UUID> seenEntities = new HashSet<>();
-		
+		// Plates are prepared from the same pass, reusing the health and battle state resolved here
+		boolean prepare = PlatePipeline.beginTick(mc);
+
 		// Update animated health for all entities currently in the world
 		for (Entity entity : mc.level.entitiesForRendering()) {
 			if (entity instanceof LivingEntity living) {
-				UUID id = living.getUUID();
-				seenEntities.add(id);
-				
 				// Use effective health to account for Cobblemon's battle system
 				float targetHealth = HealthBarRenderer.getEffectiveCurrentHealth(living);
 				boolean isDead = living.isDeadOrDying() || targetHealth <= 0.0F;
 				
-				// Initialize fade state if needed
-				FadeState fadeState = fadeStates.computeIfAbsent(id, k -> new FadeState());
-				
 				// Check for Cobblemon battle state transitions (battle ended -> fade out)
 				boolean isPokemon = CobblemonIntegration.isPokemonEntity(living);
 				boolean isCurrentlyInBattle = isPokemon && CobblemonIntegration.isInBattle(living);
-				boolean wasInBattlePreviously = wasInBattle.getOrDefault(id, false);
 				
-				// Update battle state tracking
-				if (isPokemon) {
-					wasInBattle.put(id, isCurrentlyInBattle);
-				}
-				
-				// Determine if we should start fade-out
-				boolean shouldFadeOut = isDead;
-				
-				// For Pokemon with cobblemonBattleOnly enabled: fade out when battle ends
-				if (isPokemon && NeatConfig.instance.cobblemonBattleOnly()) {
-					if (wasInBattlePreviously && !isCurrentlyInBattle) {
-						// Battle just ended for this Pokemon - start fade out
-						shouldFadeOut = true;
-					}
-				}
-				
-				if (shouldFadeOut) {
-					fadeState.startFadeOut();
-				} else if (!fadeState.isFadingOut) {
-					// Entity is alive and not fading, reset fade state
-					fadeState.alpha = 1.0F;
-					fadeState.fadeOutTicks = 0;
-				}
-				
-				// Get or initialize animated health
-				float currentAnimated = animatedHealth.getOrDefault(id, targetHealth);
-				
-				// Lerp towards target health
-				float newAnimated = Mth.lerp(LERP_SPEED, currentAnimated, targetHealth);
-				
-				// If very close to target, snap to it to avoid floating point issues
-				if (Math.abs(newAnimated - targetHealth) < 0.01F) {
-					animatedHealth.put(id, targetHealth);
-				} else {
-					animatedHealth.put(id, newAnimated);
+				track(living.getUUID(), targetHealth, isDead, isPokemon, isCurrentlyInBattle);
+				if (prepare) {
+					PlatePipeline.capture(living, targetHealth, isPokemon, isCurrentlyInBattle);
 				}
 			}
 		}
 		
-		// Update fade states and remove completed fade-outs
-		fadeStates.entrySet().removeIf(entry -> {
-			UUID id = entry.getKey();
-			FadeState fadeState = entry.getValue();
-			
-			// Update fade state
-			boolean shouldRemove = fadeState.update();
-			
-			// If entity no longer exists and not fading out, remove it
-			if (!seenEntities.contains(id) && !fadeState.isFadingOut) {
-				return true;
-			}
-			
-			// If fade-out is complete, remove the entry
-			if (shouldRemove) {
-				animatedHealth.remove(id);
-				wasInBattle.remove(id);
-				return true;
-			}
-			
-			return false;
-		});
-		
-		// Remove health entries for entities that no longer exist and aren't fading
-		animatedHealth.entrySet().removeIf(entry -> {
-			UUID id = entry.getKey();
-			FadeState fadeState = fadeStates.get(id);
-			// Keep entry if entity exists or is fading out
-			return !seenEntities.contains(id) && (fadeState == null || !fadeState.isFadingOut);
-		});
-		
-		// Clean up wasInBattle for entities that no longer exist
-		wasInBattle.entrySet().removeIf(entry -> !seenEntities.contains(entry.getKey()));
+		int removed = sweep();
+		if (prepare) {
+			PlatePipeline.submit();
+		}
+		if (event != null) {
+			event.removed = removed;
+		}
+	}
+	
+	static void clear() {
+		animator.clear();
+	}
+	
+	/**
+	 * Advances one entity's animation and fade state for this tick.
+	 * Split out of {@link #tick()} so it can be driven without a world, e.g. from benchmarks.
+	 */
+	static void track(UUID id, float targetHealth, boolean isDead, boolean isPokemon, boolean isCurrentlyInBattle) {
+		// For Pokemon with cobblemonBattleOnly enabled: fade out when battle ends
+		animator.track(id, targetHealth, isDead, isPokemon, isCurrentlyInBattle, NeatConfig.instance.cobblemonBattleOnly());
+	}
+	
+	/**
+	 * Advances fade-outs and drops state for entities that weren't tracked this tick.
+	 * 
+	 * @return how many entities were dropped
+	 */
+	static int sweep() {
+		return animator.sweep();
+	}
+	
+	static BoundedCache cache() {
+		return animator.cache();
+	}
+	
+	static int trackedCount() {
+		return animator.size();
 	}
 }
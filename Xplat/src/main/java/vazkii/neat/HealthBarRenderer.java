@@ -4,6 +4,7 @@ import com.mojang.blaze3d.vertex.*;
 import com.mojang.math.Axis;
 
 import net.minecraft.ChatFormatting;
+import net.minecraft.SharedConstants;
 import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
@@ -15,7 +16,6 @@ import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.tags.EntityTypeTags;
 import net.minecraft.tags.TagKey;
-import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityAttachment;
 import net.minecraft.world.entity.EntityType;
@@ -31,13 +31,23 @@ import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
 import net.minecraft.world.scores.Team;
 
+import vazkii.neat.core.BoundedCache;
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.HealthText;
+import vazkii.neat.core.LruCache;
+import vazkii.neat.core.RejectReason;
+import vazkii.neat.jfr.NeatJfr;
+
 import java.text.DecimalFormat;
 import java.util.*;
 
 public class HealthBarRenderer {
 
 	// Cache for client battle health info to avoid repeated lookups in the same render pass
-	private static final Map<UUID, CobblemonIntegration.ClientBattleHealthInfo> clientHealthCache = new HashMap<>();
+	private static final LruCache<UUID, CobblemonIntegration.ClientBattleHealthInfo> clientHealthCache =
+			new LruCache<>("client battle health", NeatCaches.DEFAULT_ENTITY_CAPACITY);
+	// Cached for entities that aren't in the local player's client battle, since the cache can't hold null
+	private static final CobblemonIntegration.ClientBattleHealthInfo NO_CLIENT_BATTLE = new CobblemonIntegration.ClientBattleHealthInfo(0.0F, 0.0F, false, false);
 	private static int lastCacheTick = -1;
 	
 	/**
@@ -53,10 +63,20 @@ public class HealthBarRenderer {
 		}
 		
 		UUID id = entity.getUUID();
-		if (!clientHealthCache.containsKey(id)) {
-			clientHealthCache.put(id, CobblemonIntegration.getClientBattleHealth(entity));
+		CobblemonIntegration.ClientBattleHealthInfo info = clientHealthCache.get(id);
+		boolean hit = info != null;
+		if (!hit) {
+			info = CobblemonIntegration.getClientBattleHealth(entity);
+			clientHealthCache.put(id, info == null ? NO_CLIENT_BATTLE : info);
+		}
+		if (NeatStats.isEnabled()) {
+			NeatStats.increment(hit ? NeatStats.Counter.CLIENT_HEALTH_CACHE_HITS : NeatStats.Counter.CLIENT_HEALTH_CACHE_MISSES);
 		}
-		return clientHealthCache.get(id);
+		return info == NO_CLIENT_BATTLE ? null : info;
+	}
+
+	static BoundedCache clientHealthCache() {
+		return clientHealthCache;
 	}
 
 	/**
@@ -126,6 +146,119 @@ public class HealthBarRenderer {
 		return clientInfo != null && clientInfo.inBattle() && !clientInfo.isHpFlat();
 	}
 
+	/**
+	 * Capture current, max and animated health for a plate, from its {@link PlateModel} when
+	 * {@link PlatePipeline} has prepared one and with {@link #resolveHealth} otherwise.
+	 */
+	static void captureHealth(PlateSnapshot plate) {
+		if (plate.healthCaptured) {
+			return;
+		}
+		plate.healthCaptured = true;
+		PlateModel model = PlatePipeline.get(plate.entity);
+		// A model from before a config change may have been prepared for other options
+		if (model != null && model.profile == plate.profile) {
+			plate.model = model;
+			plate.enemyPokemon = model.enemyPokemon;
+			plate.currentHealth = model.currentHealth;
+			plate.maxHealth = model.maxHealth;
+			plate.animatedHealth = model.animatedHealth;
+			if (NeatStats.isEnabled()) {
+				NeatStats.increment(NeatStats.Counter.PREPARED_PLATES);
+			}
+			return;
+		}
+		resolveHealth(plate);
+	}
+
+	/**
+	 * Capture the health strings a plate draws, from its {@link PlateModel} when it has one. Strings the
+	 * profile doesn't draw are null. Health has to be captured first.
+	 */
+	static void captureText(PlateSnapshot plate) {
+		if (plate.textCaptured) {
+			return;
+		}
+		plate.textCaptured = true;
+		PlateModel model = plate.model;
+		if (model != null) {
+			plate.currentHealthText = model.currentHealthText;
+			plate.maxHealthText = model.maxHealthText;
+			plate.percentageText = model.percentageText;
+			return;
+		}
+		DisplayProfile profile = plate.profile;
+		DecimalFormat health_format = CompiledConfig.get().healthFormat;
+
+		// Check if we should hide exact HP for this entity (enemy Pokemon with config enabled)
+		boolean hideExactHp = NeatConfig.instance.cobblemonRespectEnemyHpHiding() && plate.enemyPokemon;
+
+		// Use animated health for text display too
+		// Show percentage for enemy Pokemon (matches Cobblemon's UI behavior)
+		plate.currentHealthText = profile.showCurrentHP ? HealthText.currentHealth(plate.animatedHealth, plate.maxHealth, hideExactHp, health_format) : null;
+		// Don't show max HP for enemy Pokemon when respecting HP hiding
+		plate.maxHealthText = profile.showMaxHP && !hideExactHp ? HealthText.maxHealth(plate.maxHealth, health_format) : null;
+		// Only show percentage if not already showing it in place of current HP
+		plate.percentageText = profile.showPercentage && (!hideExactHp || !profile.showCurrentHP) ? HealthText.percentage(plate.animatedHealth, plate.maxHealth) : null;
+	}
+
+	/**
+	 * Resolve current, max and animated health for a plate with a single client battle lookup.
+	 * Same priority as getEffectiveCurrentHealth and getEffectiveMaxHealth, but computed once per frame.
+	 */
+	static void resolveHealth(PlateSnapshot plate) {
+		LivingEntity entity = plate.entity;
+		float currentHealth = -1.0F;
+		float maxHealth = -1.0F;
+		if (plate.pokemon) {
+			CobblemonIntegration.ClientBattleHealthInfo clientInfo = getCachedClientHealth(entity);
+			if (clientInfo != null && clientInfo.inBattle()) {
+				// Ally: hpValue is exact HP. Enemy: hpValue is ratio (0.0-1.0), convert to HP
+				currentHealth = clientInfo.isHpFlat() ? clientInfo.hpValue() : clientInfo.hpValue() * clientInfo.maxHp();
+				maxHealth = clientInfo.maxHp();
+				plate.enemyPokemon = !clientInfo.isHpFlat();
+			} else {
+				currentHealth = CobblemonIntegration.getPokemonCurrentHealth(entity);
+				maxHealth = CobblemonIntegration.getPokemonMaxHealth(entity);
+			}
+		}
+		plate.currentHealth = currentHealth >= 0 ? currentHealth : entity.getHealth();
+		plate.maxHealth = maxHealth >= 0 ? maxHealth : entity.getMaxHealth();
+		plate.animatedHealth = HealthAnimationManager.getAnimatedHealth(entity, plate.currentHealth);
+	}
+
+	/**
+	 * Same as {@link #resolveHealth(PlateSnapshot)} for callers that already have the effective current
+	 * health, e.g. the animation tick, whose client battle lookup this reuses. Leaves animated health alone.
+	 */
+	static void resolveHealth(PlateSnapshot plate, float currentHealth) {
+		LivingEntity entity = plate.entity;
+		float maxHealth = -1.0F;
+		if (plate.pokemon) {
+			CobblemonIntegration.ClientBattleHealthInfo clientInfo = getCachedClientHealth(entity);
+			if (clientInfo != null && clientInfo.inBattle()) {
+				maxHealth = clientInfo.maxHp();
+				plate.enemyPokemon = !clientInfo.isHpFlat();
+			} else {
+				maxHealth = CobblemonIntegration.getPokemonMaxHealth(entity);
+			}
+		}
+		plate.currentHealth = currentHealth;
+		plate.maxHealth = maxHealth >= 0 ? maxHealth : entity.getMaxHealth();
+	}
+
+	// The camera's focused entity doesn't depend on which plate is being drawn, so raycast once per frame
+	private static Entity focusedEntity = null;
+	private static int focusedEntityFrame = -1;
+
+	static Entity getFocusedEntity(Entity cameraEntity) {
+		if (focusedEntityFrame != PlateSnapshot.currentFrame()) {
+			focusedEntity = getEntityLookedAt(cameraEntity);
+			focusedEntityFrame = PlateSnapshot.currentFrame();
+		}
+		return focusedEntity;
+	}
+
 	private static Entity getEntityLookedAt(Entity e) {
 		Entity foundEntity = null;
 		final double finalDistance = 32;
@@ -178,101 +311,110 @@ public class HealthBarRenderer {
 		return e.level().clip(new ClipContext(origin, next, ClipContext.Block.OUTLINE, ClipContext.Fluid.NONE, e));
 	}
 
-	private static ItemStack getIcon(LivingEntity entity, boolean boss) {
+	// Icon stacks are only ever rendered, never modified, so they're shared across plates
+	// Plate background, bar and text are in units of this many blocks
+	static final float GLOBAL_SCALE = 0.0267F;
+	static final float TEXT_SCALE = 0.5F;
+
+	private static final ItemStack BOSS_ICON = new ItemStack(Items.NETHER_STAR);
+	private static final ItemStack ARTHROPOD_ICON = new ItemStack(Items.SPIDER_EYE);
+	private static final ItemStack UNDEAD_ICON = new ItemStack(Items.ROTTEN_FLESH);
+	private static final ItemStack ILLAGER_ICON = new ItemStack(Items.IRON_AXE);
+	private static final ItemStack IRON_ARMOR_ICON = new ItemStack(Items.IRON_CHESTPLATE);
+	private static final ItemStack DIAMOND_ARMOR_ICON = new ItemStack(Items.DIAMOND_CHESTPLATE);
+
+	/**
+	 * Called from {@link NeatWarmup} off the render thread. Class initialization creates the icon stacks,
+	 * and touching the render type initializes it too.
+	 */
+	static void warmup() {
+		Objects.requireNonNull(NeatRenderType.BAR_TEXTURE_TYPE);
+	}
+
+	/**
+	 * @return the name drawn on the entity's plate, italic when it's a custom name
+	 */
+	static String plateName(LivingEntity living) {
+		return living.hasCustomName()
+				? ChatFormatting.ITALIC + living.getCustomName().getString()
+				: living.getDisplayName().getString();
+	}
+
+	static ItemStack getIcon(LivingEntity entity, boolean boss) {
 		if (boss) {
-			return new ItemStack(Items.NETHER_STAR);
+			return BOSS_ICON;
 		}
 		EntityType<?> type = entity.getType();
 		if (type.is(EntityTypeTags.ARTHROPOD)) {
-			return new ItemStack(Items.SPIDER_EYE);
+			return ARTHROPOD_ICON;
 		} else if (type.is(EntityTypeTags.UNDEAD)) {
-			return new ItemStack(Items.ROTTEN_FLESH);
+			return UNDEAD_ICON;
 		} else if (type.is(EntityTypeTags.ILLAGER)) {
-			return new ItemStack(Items.IRON_AXE);
+			return ILLAGER_ICON;
 		} else {
 			return ItemStack.EMPTY;
 		}
 	}
 
-	private static int getColor(LivingEntity entity, boolean colorByType, boolean boss) {
-		if (colorByType) {
-			int r = 0;
-			int g = 255;
-			int b = 0;
-			if (boss) {
-				r = 128;
-				g = 0;
-				b = 128;
-			} else if (!entity.getType().getCategory().isFriendly()) {
-				r = 255;
-				g = 0;
-			}
-			return 0xff000000 | r << 16 | g << 8 | b;
-		} else {
-			// Use animated health for color calculation too
-			float animatedHealth = HealthAnimationManager.getAnimatedHealth(entity);
-			float maxHealth = getEffectiveMaxHealth(entity);
-			float health = Mth.clamp(animatedHealth, 0.0F, maxHealth);
-			float hue = Math.max(0.0F, (health / maxHealth) / 3.0F - 0.07F);
-			return Mth.hsvToRgb(hue, 1.0F, 1.0F);
-		}
-	}
-
 	private static final TagKey<EntityType<?>> BOSS_TAG =
 			TagKey.create(Registries.ENTITY_TYPE, ResourceLocation.fromNamespaceAndPath("c", "bosses"));
 
 	public static boolean isBoss(Entity entity) {
-		return entity.getType().is(BOSS_TAG);
+		return isBoss(entity.getType());
 	}
 
-	private static boolean shouldShowPlate(LivingEntity living, Entity cameraEntity) {
+	static boolean isBoss(EntityType<?> type) {
+		return type.is(BOSS_TAG);
+	}
+
+	/**
+	 * @return why the entity shouldn't get a plate, or null if it should
+	 */
+	private static RejectReason getRejectReason(PlateSnapshot plate, Entity cameraEntity) {
+		LivingEntity living = plate.entity;
 		if (living == cameraEntity) {
-			return false;
+			return RejectReason.CAMERA_ENTITY;
 		}
 
 		if ((!NeatConfig.instance.renderInF1() && !Minecraft.renderNames()) || !NeatConfig.draw) {
-			return false;
+			return RejectReason.HIDDEN;
 		}
 
-		// Cobblemon battle-only mode: only show health bars for Pokemon that are in battle
-		if (NeatConfig.instance.cobblemonBattleOnly() && CobblemonIntegration.isPokemonEntity(living)) {
-			if (!CobblemonIntegration.isInBattle(living)) {
-				return false;
-			}
+		// Recent damage mode turns away untouched entities first, so the rest of the chain only runs for fights
+		if (NeatConfig.instance.showOnlyRecentlyDamaged() && !isRecentlyDamaged(plate)) {
+			return RejectReason.NOT_DAMAGED;
 		}
 
-		var id = BuiltInRegistries.ENTITY_TYPE.getKey(living.getType());
-		if (NeatConfig.instance.blacklist().contains(id.toString())) {
-			return false;
+		// Cheap config checks on captured flags first, before any lookups or raycasts
+		plate.distance = living.distanceTo(cameraEntity);
+		RejectReason reason = PlateFilter.rejectByType(plate, CompiledConfig.get().typeFilter);
+		if (reason != null) {
+			return reason;
 		}
 
-		float distance = living.distanceTo(cameraEntity);
-		if (distance > NeatConfig.instance.maxDistance()
-				|| (distance > NeatConfig.instance.maxDistanceWithoutLineOfSight()
-						&& !living.hasLineOfSight(cameraEntity))) {
-			return false;
-		}
-		if (!NeatConfig.instance.showOnBosses() && isBoss(living)) {
-			return false;
-		}
-		if (!NeatConfig.instance.showOnPlayers() && living instanceof Player) {
-			return false;
-		}
-		if (!NeatConfig.instance.showFullHealth() && getEffectiveCurrentHealth(living) >= getEffectiveMaxHealth(living)) {
-			return false;
+		// Cobblemon battle-only mode: only show health bars for Pokemon that are in battle
+		if (plate.profile.cobblemonBattleOnly && plate.pokemon) {
+			if (!CobblemonIntegration.isInBattle(living)) {
+				return RejectReason.BATTLE_ONLY;
+			}
 		}
-		if (NeatConfig.instance.showOnlyFocused() && getEntityLookedAt(cameraEntity) != living) {
-			return false;
+
+		if (plate.distance > NeatConfig.instance.maxDistanceWithoutLineOfSight() && !hasLineOfSight(living, cameraEntity)) {
+			return RejectReason.LINE_OF_SIGHT;
 		}
-		if (!NeatConfig.instance.showOnPassive() && living.getType().getCategory().isFriendly()) {
-			return false;
+		if (!NeatConfig.instance.showFullHealth()) {
+			captureHealth(plate);
+			reason = PlateFilter.rejectByHealth(plate, NeatConfig.instance);
+			if (reason != null) {
+				return reason;
+			}
 		}
-		if (!NeatConfig.instance.showOnHostile() && (!living.getType().getCategory().isFriendly() && !isBoss(living))) {
-			return false;
+		if (NeatConfig.instance.showOnlyFocused() && getFocusedEntity(cameraEntity) != living) {
+			return RejectReason.NOT_FOCUSED;
 		}
 
 		if (living.hasPassenger(cameraEntity)) {
-			return false;
+			return RejectReason.PASSENGER;
 		}
 
 		boolean visible = true;
@@ -296,51 +438,154 @@ public class HealthBarRenderer {
 		Team livingTeam = living.getTeam();
 		Team cameraTeam = cameraEntity.getTeam();
 		if (livingTeam != null) {
-			return switch (livingTeam.getNameTagVisibility()) {
+			boolean teamVisible = switch (livingTeam.getNameTagVisibility()) {
 				case ALWAYS -> visible;
 				case NEVER -> false;
 				case HIDE_FOR_OTHER_TEAMS -> cameraTeam == null ? visible : livingTeam.isAlliedTo(cameraTeam) && (livingTeam.canSeeFriendlyInvisibles() || visible);
 				case HIDE_FOR_OWN_TEAM -> cameraTeam == null ? visible : !livingTeam.isAlliedTo(cameraTeam) && visible;
 			};
+			if (!teamVisible) {
+				return visible ? RejectReason.TEAM : RejectReason.INVISIBLE;
+			}
+			return null;
 		}
 
-		return visible;
+		return visible ? null : RejectReason.INVISIBLE;
+	}
+
+	/**
+	 * Whether the entity took damage within recentDamageSeconds, or is a Pokemon in battle.
+	 */
+	static boolean isRecentlyDamaged(PlateSnapshot plate) {
+		LivingEntity living = plate.entity;
+		int ticks = NeatConfig.instance.recentDamageSeconds() * SharedConstants.TICKS_PER_SECOND;
+		return HealthAnimationManager.wasDamagedWithin(living.getUUID(), ticks)
+				|| (plate.pokemon && CobblemonIntegration.isInBattle(living));
+	}
+
+	private static boolean hasLineOfSight(LivingEntity living, Entity cameraEntity) {
+		if (OcclusionQueries.isActive()) {
+			return OcclusionQueries.isVisible(living, Minecraft.getInstance().gameRenderer.getMainCamera());
+		}
+		return living.hasLineOfSight(cameraEntity);
 	}
 
+	/**
+	 * Whether the entity gets a health plate this frame. The verdict is computed once per entity per frame
+	 * and shared by the renderer and the name tag mixin, so WHEN_NO_HEALTHBAR hides the vanilla name tag
+	 * exactly when a plate is drawn.
+	 */
+	public static boolean hasHealthBar(LivingEntity living, Entity cameraEntity) {
+		// The HUD list doesn't replace name tags, so they behave as if there were no plate
+		if (!NeatWarmup.isReady() || HudList.isActive()) {
+			return false;
+		}
+		return isPlateShown(PlateSnapshot.acquire(living), cameraEntity);
+	}
+
+	private static boolean isPlateShown(PlateSnapshot plate, Entity cameraEntity) {
+		if (plate.visibility == PlateSnapshot.VISIBILITY_UNKNOWN) {
+			boolean stats = NeatStats.isEnabled();
+			if (!stats && !NeatJfr.isPlatePassActive()) {
+				decideVisibility(plate, cameraEntity, false);
+			} else {
+				// The filter, line of sight and health capture are render cost too, timed like drawing
+				long start = System.nanoTime();
+				decideVisibility(plate, cameraEntity, stats);
+				long elapsed = System.nanoTime() - start;
+				NeatJfr.plateRenderTime(elapsed);
+				if (stats) {
+					NeatStats.add(NeatStats.Counter.RENDER_NANOS, elapsed);
+				}
+			}
+		}
+		return plate.visibility == PlateSnapshot.VISIBILITY_SHOWN;
+	}
+
+	private static void decideVisibility(PlateSnapshot plate, Entity cameraEntity, boolean stats) {
+		// Check if entity is fading out (even if dead/removed)
+		UUID entityId = plate.entity.getUUID();
+		boolean isFadingOut = HealthAnimationManager.isFadingOut(entityId);
+
+		// Allow rendering during fade-out even if entity is dead
+		RejectReason reason = isFadingOut ? null : getRejectReason(plate, cameraEntity);
+		if (reason == null) {
+			// Get alpha value for fade-out, fully faded plates aren't drawn
+			plate.alpha = HealthAnimationManager.getAlpha(entityId);
+			if (plate.alpha <= 0.0F) {
+				reason = RejectReason.FADED;
+			}
+		}
+		plate.visibility = reason == null ? PlateSnapshot.VISIBILITY_SHOWN : PlateSnapshot.VISIBILITY_HIDDEN;
+		NeatJfr.plateConsidered(reason == null);
+		if (stats) {
+			NeatStats.increment(NeatStats.Counter.ENTITIES_CONSIDERED);
+			if (reason != null) {
+				NeatStats.reject(reason);
+			}
+		}
+	}
+
+	/**
+	 * Called for every entity during the entity pass. Shown plates are queued in {@link PlateBatch} and
+	 * drawn back to front once the pass is over, or offered to the {@link HudList} in that display mode.
+	 */
 	public static void hookRender(Entity entity, PoseStack poseStack, MultiBufferSource buffers,
 			Camera camera, EntityRenderer<? super Entity> entityRenderer,
 			float partialTicks, double x, double y, double z) {
-		final Minecraft mc = Minecraft.getInstance();
-		if (!(entity instanceof LivingEntity living)) {
+		if (!(entity instanceof LivingEntity living) || !NeatWarmup.isReady()) {
 			return;
 		}
-		
-		// Check if entity is fading out (even if dead/removed)
-		UUID entityId = living.getUUID();
-		boolean isFadingOut = HealthAnimationManager.isFadingOut(entityId);
-		
-		// Allow rendering during fade-out even if entity is dead
-		if (!isFadingOut && !shouldShowPlate(living, camera.getEntity())) {
+		PlateSnapshot plate = PlateSnapshot.acquire(living);
+		if (!isPlateShown(plate, camera.getEntity())) {
 			return;
 		}
-		
-		// Get alpha value for fade-out
-		float alpha = HealthAnimationManager.getAlpha(entityId);
-		if (alpha <= 0.0F) {
-			return; // Fully faded, don't render
+		if (HudList.isActive()) {
+			HudList.offer(plate, camera.getEntity());
+		} else {
+			PlateBatch.add(living, poseStack, buffers, camera, entityRenderer, partialTicks, x, y, z);
 		}
+	}
 
-		// Constants
-		final int light = 0xF000F0;
-		final float globalScale = 0.0267F;
-		final float textScale = 0.5F;
-		final int barHeight = NeatConfig.instance.barHeight();
-		final boolean boss = isBoss(living);
-		final String name = living.hasCustomName()
-				? ChatFormatting.ITALIC + living.getCustomName().getString()
-				: living.getDisplayName().getString();
-		final float nameLen = mc.font.width(name) * textScale;
-		final float halfSize = Math.max(NeatConfig.instance.plateSize(), nameLen / 2.0F + 10.0F);
+	static void drawPlate(LivingEntity living, PoseStack poseStack, MultiBufferSource buffers,
+			Camera camera, EntityRenderer<? super Entity> entityRenderer,
+			float partialTicks, double x, double y, double z) {
+		boolean stats = NeatStats.isEnabled();
+		if (!stats && !NeatJfr.isPlatePassActive()) {
+			renderPlate(living, poseStack, buffers, camera, entityRenderer, partialTicks, x, y, z);
+			return;
+		}
+		long start = System.nanoTime();
+		renderPlate(living, poseStack, buffers, camera, entityRenderer, partialTicks, x, y, z);
+		long elapsed = System.nanoTime() - start;
+		NeatJfr.plateRenderTime(elapsed);
+		if (stats) {
+			NeatStats.add(NeatStats.Counter.RENDER_NANOS, elapsed);
+		}
+	}
+
+	private static void renderPlate(LivingEntity living, PoseStack poseStack, MultiBufferSource buffers,
+			Camera camera, EntityRenderer<? super Entity> entityRenderer,
+			float partialTicks, double x, double y, double z) {
+		final Minecraft mc = Minecraft.getInstance();
+		final Entity entity = living;
+		PlateSnapshot plate = PlateSnapshot.acquire(living);
+		if (!isPlateShown(plate, camera.getEntity())) {
+			return;
+		}
+		NeatJfr.platesDrawn(1);
+		if (NeatStats.isEnabled()) {
+			NeatStats.increment(NeatStats.Counter.PLATES_DRAWN);
+		}
+		captureHealth(plate);
+		// Prepared once per tick by PlatePipeline, or resolved here if it hasn't got to this entity yet
+		final PlateModel model = plate.model;
+		plate.armor = model != null ? model.armor : living.getArmorValue();
+
+		final DisplayProfile profile = plate.profile;
+		final String name = model != null ? model.name : plateName(living);
+		final float nameLen = (model != null ? model.nameWidth : mc.font.width(name)) * TEXT_SCALE;
+		final float halfSize = Math.max(profile.plateSize, nameLen / 2.0F + 10.0F);
 
 		Vec3 vec3 = entityRenderer.getRenderOffset(entity, partialTicks);
 		double d2 = x + vec3.x();
@@ -351,71 +596,73 @@ public class HealthBarRenderer {
 
 		poseStack.pushPose();
 		poseStack.translate(d2, d3, d0);
-		poseStack.translate(attachmentPoint.x, attachmentPoint.y + NeatConfig.instance.heightAbove(), attachmentPoint.z);
+		poseStack.translate(attachmentPoint.x, attachmentPoint.y + profile.heightAbove, attachmentPoint.z);
 		poseStack.mulPose(camera.rotation());
 		poseStack.mulPose(Axis.YP.rotationDegrees(180));
 
+		// A plate whose content hasn't changed is one quad from the impostor atlas
+		if (!PlateImpostors.isActive() || !PlateImpostors.draw(plate, name, halfSize, poseStack, buffers)) {
+			drawContents(plate, name, halfSize, poseStack, buffers, plate.alpha);
+		}
+
+		poseStack.popPose();
+	}
+
+	/**
+	 * Draws a plate's background, bar, text and icons around the origin of a camera-facing pose. Used for
+	 * plates in the world and, at full alpha, for plates rendered into the impostor atlas.
+	 */
+	static void drawContents(PlateSnapshot plate, String name, float halfSize, PoseStack poseStack, MultiBufferSource buffers, float alpha) {
+		final Minecraft mc = Minecraft.getInstance();
+		final LivingEntity living = plate.entity;
+		final PlateModel model = plate.model;
+
+		// Constants
+		final int light = PlateGeometry.LIGHT;
+		final float globalScale = GLOBAL_SCALE;
+		final float textScale = TEXT_SCALE;
+		final int barHeight = NeatConfig.instance.barHeight();
+		final boolean boss = plate.boss;
+		final DisplayProfile profile = plate.profile;
+
 		// Plate background, bars, and text operate with globalScale, but icons don't
 		poseStack.pushPose();
 		poseStack.scale(-globalScale, -globalScale, globalScale);
 
 		// Background
-		if (NeatConfig.instance.drawBackground()) {
+		if (profile.drawBackground) {
 			float padding = NeatConfig.instance.backgroundPadding();
 			int bgHeight = NeatConfig.instance.backgroundHeight();
-			if (!NeatConfig.instance.showEntityName()) {
+			if (!profile.showEntityName) {
 				bgHeight -= (int) 4F;
 			}
-			int bgAlpha = (int) (60 * alpha);
 			VertexConsumer builder = buffers.getBuffer(NeatRenderType.BAR_TEXTURE_TYPE);
-			builder.addVertex(poseStack.last().pose(), -halfSize - padding, -bgHeight, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(0.0F, 0.0F).setLight(light);
-			builder.addVertex(poseStack.last().pose(), -halfSize - padding, barHeight + padding, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(0.0F, 0.5F).setLight(light);
-			builder.addVertex(poseStack.last().pose(), halfSize + padding, barHeight + padding, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(1.0F, 0.5F).setLight(light);
-			builder.addVertex(poseStack.last().pose(), halfSize + padding, -bgHeight, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(1.0F, 0.0F).setLight(light);
+			int vertices = PlateGeometry.background(poseStack.last().pose(), builder, halfSize, padding, bgHeight, barHeight, alpha);
+			if (NeatStats.isEnabled()) {
+				NeatStats.add(NeatStats.Counter.VERTICES, vertices);
+			}
 		}
 
 		// Health Bar
 		{
-			int argb = getColor(living, NeatConfig.instance.colorByType(), boss);
-			int r = (argb >> 16) & 0xFF;
-			int g = (argb >> 8) & 0xFF;
-			int b = argb & 0xFF;
-			// There are scenarios in vanilla where the current health
-			// can temporarily exceed the max health.
-			// Use animated health for smooth transitions
-			float animatedHealth = HealthAnimationManager.getAnimatedHealth(living);
-			float maxHealth = Math.max(getEffectiveCurrentHealth(living), getEffectiveMaxHealth(living));
-			float healthHalfSize = halfSize * (animatedHealth / maxHealth);
-			
-			// Apply alpha to health bar
-			int barAlpha = (int) (127 * alpha);
-
 			VertexConsumer builder = buffers.getBuffer(NeatRenderType.BAR_TEXTURE_TYPE);
-			builder.addVertex(poseStack.last().pose(), -halfSize, 0, 0.001F).setColor(r, g, b, barAlpha).setUv(0.0F, 0.75F).setLight(light);
-			builder.addVertex(poseStack.last().pose(), -halfSize, barHeight, 0.001F).setColor(r, g, b, barAlpha).setUv(0.0F, 1.0F).setLight(light);
-			builder.addVertex(poseStack.last().pose(), -halfSize + 2 * healthHalfSize, barHeight, 0.001F).setColor(r, g, b, barAlpha).setUv(1.0F, 1.0F).setLight(light);
-			builder.addVertex(poseStack.last().pose(), -halfSize + 2 * healthHalfSize, 0, 0.001F).setColor(r, g, b, barAlpha).setUv(1.0F, 0.75F).setLight(light);
-
-			// Blank part of the bar
-			if (healthHalfSize < halfSize) {
-				builder.addVertex(poseStack.last().pose(), -halfSize + 2 * healthHalfSize, 0, 0.001F).setColor(0, 0, 0, barAlpha).setUv(0.0F, 0.5F).setLight(light);
-				builder.addVertex(poseStack.last().pose(), -halfSize + 2 * healthHalfSize, barHeight, 0.001F).setColor(0, 0, 0, barAlpha).setUv(0.0F, 0.75F).setLight(light);
-				builder.addVertex(poseStack.last().pose(), halfSize, barHeight, 0.001F).setColor(0, 0, 0, barAlpha).setUv(1.0F, 0.75F).setLight(light);
-				builder.addVertex(poseStack.last().pose(), halfSize, 0, 0.001F).setColor(0, 0, 0, barAlpha).setUv(1.0F, 0.5F).setLight(light);
+			int vertices = PlateGeometry.bar(poseStack.last().pose(), builder, plate, halfSize, barHeight, alpha, NeatConfig.instance.colorByType());
+			if (NeatStats.isEnabled()) {
+				NeatStats.add(NeatStats.Counter.VERTICES, vertices);
 			}
 		}
 
 		// Text
 		{
 			// Apply alpha to text color
-			int baseTextColor = HexFormat.fromHexDigits(NeatConfig.instance.textColor());
+			int baseTextColor = CompiledConfig.get().textColor;
 			int textAlpha = (int) (255 * alpha);
 			int textColor = (textAlpha << 24) | (baseTextColor & 0x00FFFFFF);
 			final int black = 0;
 
 			// Name
 			{
-				if (NeatConfig.instance.showEntityName()) {
+				if (profile.showEntityName) {
 					poseStack.pushPose();
 					poseStack.translate(-halfSize, -4.5F, 0F);
 					poseStack.scale(textScale, textScale, textScale);
@@ -432,41 +679,23 @@ public class HealthBarRenderer {
 				poseStack.scale(healthValueTextScale, healthValueTextScale, healthValueTextScale);
 
 				int h = NeatConfig.instance.hpTextHeight();
-				DecimalFormat health_format = new DecimalFormat(NeatConfig.instance.decimalFormat());
-				
-				// Check if we should hide exact HP for this entity (enemy Pokemon with config enabled)
-				boolean hideExactHp = NeatConfig.instance.cobblemonRespectEnemyHpHiding() && isEnemyPokemon(living);
-
-				if (NeatConfig.instance.showCurrentHP()) {
-					// Use animated health for text display too
-					float animatedHealth = HealthAnimationManager.getAnimatedHealth(living);
-					String hpStr;
-					if (hideExactHp) {
-						// Show percentage for enemy Pokemon (matches Cobblemon's UI behavior)
-						int percent = (int) (100 * animatedHealth / getEffectiveMaxHealth(living));
-						hpStr = percent + "%";
-					} else {
-						hpStr = health_format.format(animatedHealth);
-					}
+				captureText(plate);
+				String hpStr = plate.currentHealthText;
+				String maxHpStr = plate.maxHealthText;
+				String percStr = plate.percentageText;
+
+				if (hpStr != null) {
 					mc.font.drawInBatch(hpStr, 2, h, textColor, false, poseStack.last().pose(), buffers, Font.DisplayMode.NORMAL, black, light);
 				}
-				if (NeatConfig.instance.showMaxHP() && !hideExactHp) {
-					// Don't show max HP for enemy Pokemon when respecting HP hiding
-					String maxHpStr = ChatFormatting.BOLD + health_format.format(getEffectiveMaxHealth(living));
+				if (maxHpStr != null) {
 					mc.font.drawInBatch(maxHpStr, (int) (halfSize / healthValueTextScale * 2) - mc.font.width(maxHpStr) - 2, h, textColor, false, poseStack.last().pose(), buffers, Font.DisplayMode.NORMAL, black, light);
 				}
-				if (NeatConfig.instance.showPercentage()) {
-					// Use animated health for percentage display too
-					float animatedHealth = HealthAnimationManager.getAnimatedHealth(living);
-					String percStr = (int) (100 * animatedHealth / getEffectiveMaxHealth(living)) + "%";
-					// Only show percentage if not already showing it in place of current HP
-					if (!hideExactHp || !NeatConfig.instance.showCurrentHP()) {
-						mc.font.drawInBatch(percStr, (int) (halfSize / healthValueTextScale) - mc.font.width(percStr) / 2.0F, h, textColor, false, poseStack.last().pose(), buffers, Font.DisplayMode.NORMAL, black, light);
-					}
+				if (percStr != null) {
+					mc.font.drawInBatch(percStr, (int) (halfSize / healthValueTextScale) - mc.font.width(percStr) / 2.0F, h, textColor, false, poseStack.last().pose(), buffers, Font.DisplayMode.NORMAL, black, light);
 				}
 				if (NeatConfig.instance.enableDebugInfo() && mc.getDebugOverlay().showDebugScreen()) {
 					var id = BuiltInRegistries.ENTITY_TYPE.getKey(living.getType());
-					mc.font.drawInBatch("ID: \"" + id + "\"", 0, h + 16, textColor, false, poseStack.last().pose(), buffers, Font.DisplayMode.NORMAL, black, light);
+					mc.font.drawInBatch("ID: \"" + id + "\", profile: " + profile.name, 0, h + 16, textColor, false, poseStack.last().pose(), buffers, Font.DisplayMode.NORMAL, black, light);
 				}
 				poseStack.popPose();
 			}
@@ -481,16 +710,16 @@ public class HealthBarRenderer {
 
 			float iconOffset = 2.85F;
 			float zShift = 0F;
-			if (NeatConfig.instance.showAttributes()) {
-				var icon = getIcon(living, boss);
+			if (profile.showAttributes) {
+				var icon = model != null ? model.icon : getIcon(living, boss);
 				renderIcon(living.level(), icon, poseStack, buffers,
 						globalScale, halfSize, iconOffset, zShift);
 				iconOffset += 5F;
 				zShift += zBump;
 			}
 
-			int armor = living.getArmorValue();
-			if (armor > 0 && NeatConfig.instance.showArmor()) {
+			int armor = plate.armor;
+			if (armor > 0 && profile.showArmor) {
 				int ironArmor = armor % 5;
 				int diamondArmor = armor / 5;
 				if (!NeatConfig.instance.groupArmor()) {
@@ -498,7 +727,7 @@ public class HealthBarRenderer {
 					diamondArmor = 0;
 				}
 
-				var iron = new ItemStack(Items.IRON_CHESTPLATE);
+				var iron = IRON_ARMOR_ICON;
 				for (int i = 0; i < ironArmor; i++) {
 					renderIcon(living.level(), iron, poseStack, buffers,
 							globalScale, halfSize, iconOffset, zShift);
@@ -506,7 +735,7 @@ public class HealthBarRenderer {
 					zShift += zBump;
 				}
 
-				var diamond = new ItemStack(Items.DIAMOND_CHESTPLATE);
+				var diamond = DIAMOND_ARMOR_ICON;
 				for (int i = 0; i < diamondArmor; i++) {
 					renderIcon(living.level(), diamond, poseStack, buffers,
 							globalScale, halfSize, iconOffset, zShift);
@@ -517,8 +746,6 @@ public class HealthBarRenderer {
 
 			poseStack.popPose();
 		}
-
-		poseStack.popPose();
 	}
 
 	private static void renderIcon(Level level, ItemStack icon, PoseStack poseStack,
@@ -0,0 +1,176 @@
+package vazkii.neat;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.HealthText;
+import vazkii.neat.jfr.NeatJfr;
+
+import java.text.DecimalFormat;
+
+/**
+ * The HUD_LIST display mode: instead of a billboarded plate per entity, the entity pass offers every
+ * shown entity here and the best few are drawn as a compact list in GUI space, once per frame. Ranking
+ * is the focused entity first, then Pokemon in battle, then bosses, then the nearest.
+ *
+ * Entries are this frame's {@link PlateSnapshot}s, which stay valid until the next frame begins, so the
+ * list renders the same health data the world plates would without capturing anything twice.
+ */
+public class HudList {
+
+	private static final int MAX_SIZE = 16;
+	private static final int ROW_WIDTH = 120;
+	private static final int ROW_HEIGHT = 16;
+	private static final int BAR_HEIGHT = 3;
+	private static final int MARGIN = 6;
+
+	private static final int FOCUSED = 3;
+	private static final int IN_BATTLE = 2;
+	private static final int BOSS = 1;
+
+	// Best first: higher priority, then nearer
+	private static final PlateSnapshot[] entries = new PlateSnapshot[MAX_SIZE];
+	private static final int[] priorities = new int[MAX_SIZE];
+	private static int count = 0;
+
+	public static boolean isActive() {
+		return NeatConfig.instance.displayMode() == NeatConfig.DisplayMode.HUD_LIST;
+	}
+
+	public static void beginFrame() {
+		clearEntries();
+	}
+
+	/**
+	 * Offers an entity whose plate is shown this frame. Keeps it if it ranks among the best hudListSize.
+	 */
+	static void offer(PlateSnapshot plate, Entity cameraEntity) {
+		int size = Math.clamp(NeatConfig.instance.hudListSize(), 1, MAX_SIZE);
+		// Fading plates skip the filter, which is what measures the distance otherwise
+		plate.distance = plate.entity.distanceTo(cameraEntity);
+		int priority = priority(plate, cameraEntity);
+		int index = count;
+		while (index > 0 && ranksBefore(priority, plate.distance, priorities[index - 1], entries[index - 1].distance)) {
+			index--;
+		}
+		if (index >= size) {
+			return;
+		}
+		int last = Math.min(count, size - 1);
+		System.arraycopy(entries, index, entries, index + 1, last - index);
+		System.arraycopy(priorities, index, priorities, index + 1, last - index);
+		entries[index] = plate;
+		priorities[index] = priority;
+		count = Math.min(count + 1, size);
+	}
+
+	private static int priority(PlateSnapshot plate, Entity cameraEntity) {
+		if (HealthBarRenderer.getFocusedEntity(cameraEntity) == plate.entity) {
+			return FOCUSED;
+		}
+		if (plate.pokemon && CobblemonIntegration.isInBattle(plate.entity)) {
+			return IN_BATTLE;
+		}
+		return plate.boss ? BOSS : 0;
+	}
+
+	private static boolean ranksBefore(int priority, float distance, int otherPriority, float otherDistance) {
+		return priority > otherPriority || (priority == otherPriority && distance < otherDistance);
+	}
+
+	/**
+	 * Draws this frame's list at the right edge of the screen. Called once per frame from the HUD pass.
+	 */
+	public static void render(GuiGraphics graphics) {
+		if (count == 0) {
+			return;
+		}
+		if (!isActive()) {
+			clearEntries();
+			return;
+		}
+		boolean stats = NeatStats.isEnabled();
+		long start = stats ? System.nanoTime() : 0;
+
+		Font font = Minecraft.getInstance().font;
+		CompiledConfig compiled = CompiledConfig.get();
+		boolean colorByType = NeatConfig.instance.colorByType();
+		int x = graphics.guiWidth() - ROW_WIDTH - MARGIN;
+		int y = (graphics.guiHeight() - count * ROW_HEIGHT) / 2;
+		for (int i = 0; i < count; i++) {
+			PlateSnapshot plate = entries[i];
+			HealthBarRenderer.captureHealth(plate);
+			drawRow(graphics, font, plate, compiled, colorByType, x, y);
+			y += ROW_HEIGHT;
+		}
+		NeatJfr.platesDrawn(count);
+		if (stats) {
+			NeatStats.add(NeatStats.Counter.PLATES_DRAWN, count);
+			NeatStats.add(NeatStats.Counter.RENDER_NANOS, System.nanoTime() - start);
+		}
+		clearEntries();
+	}
+
+	private static void drawRow(GuiGraphics graphics, Font font, PlateSnapshot plate, CompiledConfig compiled, boolean colorByType, int x, int y) {
+		DisplayProfile profile = plate.profile;
+		LivingEntity living = plate.entity;
+		int alpha = (int) (255 * Math.clamp(plate.alpha, 0.0F, 1.0F));
+		if (alpha < 4) {
+			// The font draws colors with almost no alpha fully opaque
+			return;
+		}
+		int textColor = (alpha << 24) | (compiled.textColor & 0x00FFFFFF);
+
+		if (profile.drawBackground) {
+			graphics.fill(x - 2, y - 2, x + ROW_WIDTH + 2, y + ROW_HEIGHT - 3, (alpha / 4) << 24);
+		}
+
+		if (profile.showEntityName) {
+			String name = plate.model != null ? plate.model.name : HealthBarRenderer.plateName(living);
+			graphics.drawString(font, name, x, y, textColor, false);
+		}
+
+		// Health values, right aligned and drawn right to left so nothing is concatenated
+		DecimalFormat format = compiled.healthFormat;
+		boolean hideExactHp = NeatConfig.instance.cobblemonRespectEnemyHpHiding() && plate.enemyPokemon;
+		int right = x + ROW_WIDTH;
+		if (profile.showPercentage && (!hideExactHp || !profile.showCurrentHP)) {
+			right = drawRightAligned(graphics, font, HealthText.percentage(plate.animatedHealth, plate.maxHealth), right, y, textColor);
+		}
+		if (profile.showMaxHP && !hideExactHp) {
+			right = drawRightAligned(graphics, font, HealthText.maxHealth(plate.maxHealth, format), right, y, textColor);
+		}
+		if (profile.showCurrentHP) {
+			drawRightAligned(graphics, font, HealthText.currentHealth(plate.animatedHealth, plate.maxHealth, hideExactHp, format), right, y, textColor);
+		}
+
+		// Bar, same color and fill as the world plate's
+		int barTop = y + font.lineHeight + 1;
+		float maxHealth = Math.max(plate.currentHealth, plate.maxHealth);
+		int filled = maxHealth > 0 ? (int) (ROW_WIDTH * Math.clamp(plate.animatedHealth / maxHealth, 0.0F, 1.0F)) : 0;
+		int barAlpha = (alpha / 2) << 24;
+		graphics.fill(x, barTop, x + ROW_WIDTH, barTop + BAR_HEIGHT, barAlpha);
+		graphics.fill(x, barTop, x + filled, barTop + BAR_HEIGHT, barAlpha | (PlateGeometry.barColor(plate, colorByType) & 0x00FFFFFF));
+	}
+
+	/**
+	 * @return the x coordinate the next text to the left should end at
+	 */
+	private static int drawRightAligned(GuiGraphics graphics, Font font, String text, int right, int y, int color) {
+		int left = right - font.width(text);
+		graphics.drawString(font, text, left, y, color, false);
+		return left - 4;
+	}
+
+	private static void clearEntries() {
+		// Don't keep entities alive until the next frame
+		for (int i = 0; i < count; i++) {
+			entries[i] = null;
+		}
+		count = 0;
+	}
+}
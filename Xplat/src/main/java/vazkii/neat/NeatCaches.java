@@ -0,0 +1,67 @@
+package vazkii.neat;
+
+import vazkii.neat.core.BoundedCache;
+import vazkii.neat.core.HealthText;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lifecycle of Neat's caches. Entity-keyed caches are capped by the maxTrackedEntities option and
+ * emptied whenever the client level changes, since entity ids and UUIDs from the old level are
+ * unreachable after a dimension change or reconnect. Formatted text caches keep their own fixed cap
+ * and survive level changes. Client thread only.
+ */
+public class NeatCaches {
+
+	static final int DEFAULT_ENTITY_CAPACITY = 2048;
+
+	private static int appliedEntityCapacity = DEFAULT_ENTITY_CAPACITY;
+
+	private static List<BoundedCache> entityCaches() {
+		return List.of(HealthAnimationManager.cache(), HealthBarRenderer.clientHealthCache(), OcclusionQueries.cache());
+	}
+
+	/**
+	 * Picks up a changed maxTrackedEntities option. Called at the start of every frame.
+	 */
+	public static void beginFrame() {
+		int capacity = Math.max(1, NeatConfig.instance.maxTrackedEntities());
+		if (capacity != appliedEntityCapacity) {
+			appliedEntityCapacity = capacity;
+			for (BoundedCache cache : entityCaches()) {
+				cache.setCapacity(capacity);
+			}
+		}
+	}
+
+	/**
+	 * Drops everything keyed by entities of the previous level. That includes the synced battle health,
+	 * which isn't capped since the server owns it: the server forgets what it sent a player when they
+	 * change worlds and sends the new level's battles in full, so old ids can't match new entities.
+	 */
+	public static void levelChanged() {
+		HealthAnimationManager.clear();
+		BattleHealthSync.clear();
+		HealthBarRenderer.clientHealthCache().clear();
+		OcclusionQueries.clear();
+		PlatePipeline.clear();
+		PlateImpostors.clear();
+		// A stress test run doesn't carry over into another level
+		StressBench.levelChanged();
+	}
+
+	static void appendDebugLines(List<String> lines) {
+		appendDebugLines(lines, entityCaches());
+		appendDebugLines(lines, List.of(PlateImpostors.cache()));
+		appendDebugLines(lines, HealthText.caches());
+	}
+
+	private static void appendDebugLines(List<String> lines, List<BoundedCache> caches) {
+		for (BoundedCache cache : caches) {
+			long lookups = cache.getHits() + cache.getMisses();
+			lines.add(String.format(Locale.ROOT, "Cache %s: %d/%d, %d%% hit, %d evicted", cache.getName(), cache.size(),
+					cache.getCapacity(), lookups == 0 ? 100 : cache.getHits() * 100 / lookups, cache.getEvictions()));
+		}
+	}
+}
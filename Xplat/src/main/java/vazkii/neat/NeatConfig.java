@@ -10,6 +10,7 @@ public class NeatConfig {
 	public interface ConfigAccess {
 		int maxDistance();
 		int maxDistanceWithoutLineOfSight();
+		boolean occlusionQueries();
 		boolean renderInF1();
 		double heightAbove();
 		boolean drawBackground();
@@ -33,6 +34,8 @@ public class NeatConfig {
 		boolean showOnBosses();
 		boolean showOnlyFocused();
 		boolean showFullHealth();
+		boolean showOnlyRecentlyDamaged();
+		int recentDamageSeconds();
 		boolean enableDebugInfo();
 		boolean showEntityName();
 		NameTagRenderBehavior nameTagRenderBehavior();
@@ -40,8 +43,14 @@ public class NeatConfig {
 		double iconOffsetY();
 		String decimalFormat();
 		List<String> blacklist();
+		List<String> displayProfiles();
 		boolean cobblemonBattleOnly();
 		boolean cobblemonRespectEnemyHpHiding();
+		int maxTrackedEntities();
+		DisplayMode displayMode();
+		int hudListSize();
+		boolean preparePlatesOffThread();
+		boolean plateImpostors();
 	}
 
 	public static final List<String> DEFAULT_DISABLED = List.of("minecraft:shulker", "minecraft:armor_stand", "minecraft:cod", "minecraft:salmon", "minecraft:pufferfish", "minecraft:tropical_fish", "minecraft:tadpole");
@@ -52,5 +61,10 @@ public class NeatConfig {
 		WHEN_NO_HEALTHBAR
 	}
 
+	public enum DisplayMode {
+		WORLD,
+		HUD_LIST
+	}
+
 	public static ConfigAccess instance;
 }
@@ -1,5 +1,7 @@
 package vazkii.neat;
 
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.VertexFormat;
 
 import net.minecraft.client.renderer.RenderStateShard;
@@ -14,7 +16,19 @@ public class NeatRenderType extends RenderStateShard {
 
 	//https://github.com/UpcraftLP/Orderly/blob/master/src/main/resources/assets/orderly/textures/ui/default_health_bar.png
 	public static final ResourceLocation HEALTH_BAR_TEXTURE = ResourceLocation.fromNamespaceAndPath(NeatConfig.MOD_ID, "textures/ui/health_bar_texture.png");
+
+	// The impostor atlas holds colors already multiplied by alpha, from blending plates into a transparent target
+	private static final TransparencyStateShard PREMULTIPLIED_TRANSPARENCY = new TransparencyStateShard("neat_premultiplied_transparency", () -> {
+		RenderSystem.enableBlend();
+		RenderSystem.blendFuncSeparate(GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA,
+				GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+	}, () -> {
+		RenderSystem.disableBlend();
+		RenderSystem.defaultBlendFunc();
+	});
+
 	public static final RenderType BAR_TEXTURE_TYPE = getHealthBarType();
+	public static final RenderType IMPOSTOR_TYPE = getImpostorType();
 
 	private NeatRenderType(String string, Runnable r, Runnable r1) {
 		super(string, r, r1);
@@ -30,4 +44,15 @@ public class NeatRenderType extends RenderStateShard {
 				.createCompositeState(false);
 		return AccessorRenderType.neat_create("neat_health_bar", POSITION_COLOR_TEX_LIGHTMAP, VertexFormat.Mode.QUADS, 256, true, false, renderTypeState);
 	}
+
+	private static RenderType getImpostorType() {
+		RenderType.CompositeState renderTypeState = RenderType.CompositeState.builder()
+				.setShaderState(POSITION_COLOR_TEX_LIGHTMAP_SHADER)
+				.setTextureState(new EmptyTextureStateShard(() -> RenderSystem.setShaderTexture(0, PlateImpostors.textureId()), () -> {}))
+				.setTransparencyState(PREMULTIPLIED_TRANSPARENCY)
+				.setCullState(NO_CULL)
+				.setLightmapState(LIGHTMAP)
+				.createCompositeState(false);
+		return AccessorRenderType.neat_create("neat_plate_impostor", POSITION_COLOR_TEX_LIGHTMAP, VertexFormat.Mode.QUADS, 1024, false, true, renderTypeState);
+	}
 }
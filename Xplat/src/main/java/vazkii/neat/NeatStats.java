@@ -0,0 +1,188 @@
+package vazkii.neat;
+
+import net.minecraft.ChatFormatting;
+
+import vazkii.neat.core.RejectReason;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight counters and timers for Neat's render and tick paths, aggregated into per-second totals.
+ * Shown in the F3 overlay when enableDebugInfo is on, and readable by other mods or automated
+ * client runs through the static getters.
+ *
+ * Nothing is counted or timed while stats are disabled, so the render path only pays one boolean check.
+ * Except for reflective calls, counters are only updated from the client thread.
+ */
+public class NeatStats {
+
+	public enum Counter {
+		ENTITIES_CONSIDERED,
+		PLATES_DRAWN,
+		// Vertices Neat writes itself (background and bar quads), excluding font glyphs and item icons
+		VERTICES,
+		REFLECTIVE_CALLS,
+		CLIENT_HEALTH_CACHE_HITS,
+		CLIENT_HEALTH_CACHE_MISSES,
+		// Plates drawn from a model PlatePipeline prepared off the render path
+		PREPARED_PLATES,
+		// Plates rendered into the impostor atlas because their content changed
+		IMPOSTORS_RENDERED,
+		RENDER_NANOS,
+		ANIMATION_TICK_NANOS,
+		OCCLUSION_QUERIES,
+		FRAMES,
+		TICKS
+	}
+
+	private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+	private static final Counter[] COUNTERS = Counter.values();
+	private static final RejectReason[] REJECT_REASONS = RejectReason.values();
+
+	private static boolean forceEnabled = false;
+
+	private static final long[] current = new long[COUNTERS.length];
+	// Counter values when the current frame started, and how much each counter grew during the last frame
+	private static final long[] frameMark = new long[COUNTERS.length];
+	private static final long[] lastFrame = new long[COUNTERS.length];
+	private static final long[] currentRejected = new long[REJECT_REASONS.length];
+	private static final LongAdder reflectiveCalls = new LongAdder();
+	private static long windowStart = System.nanoTime();
+
+	// Totals for the last complete second, swapped in by roll()
+	private static volatile long[] lastSecond = new long[COUNTERS.length];
+	private static volatile long[] lastSecondRejected = new long[REJECT_REASONS.length];
+
+	/**
+	 * Whether counters are being collected, either because the debug info option is on or because
+	 * {@link #setForceEnabled(boolean)} was called.
+	 */
+	public static boolean isEnabled() {
+		return forceEnabled || NeatConfig.instance.enableDebugInfo();
+	}
+
+	/**
+	 * Collect stats regardless of the enableDebugInfo option, for automated runs that scrape them.
+	 */
+	public static void setForceEnabled(boolean enabled) {
+		forceEnabled = enabled;
+	}
+
+	public static boolean isForceEnabled() {
+		return forceEnabled;
+	}
+
+	public static void add(Counter counter, long amount) {
+		current[counter.ordinal()] += amount;
+	}
+
+	public static void increment(Counter counter) {
+		current[counter.ordinal()]++;
+	}
+
+	public static void reject(RejectReason reason) {
+		currentRejected[reason.ordinal()]++;
+	}
+
+	/**
+	 * Counts one reflective Cobblemon lookup. Safe to call from any thread.
+	 */
+	public static void reflectiveCall() {
+		reflectiveCalls.increment();
+	}
+
+	/**
+	 * Called once per frame. Publishes the last second's totals when the window is over.
+	 */
+	public static void frame() {
+		// Folded in every frame, so the last frame's delta covers the calls made during it
+		current[Counter.REFLECTIVE_CALLS.ordinal()] += reflectiveCalls.sumThenReset();
+		for (int i = 0; i < current.length; i++) {
+			lastFrame[i] = current[i] - frameMark[i];
+		}
+		current[Counter.FRAMES.ordinal()]++;
+		long now = System.nanoTime();
+		if (now - windowStart >= WINDOW_NANOS) {
+			windowStart = now;
+			lastSecond = current.clone();
+			lastSecondRejected = currentRejected.clone();
+			Arrays.fill(current, 0L);
+			Arrays.fill(currentRejected, 0L);
+		}
+		System.arraycopy(current, 0, frameMark, 0, current.length);
+	}
+
+	/**
+	 * @return how much the counter grew during the last complete frame, including ticks run in it
+	 */
+	public static long lastFrame(Counter counter) {
+		return lastFrame[counter.ordinal()];
+	}
+
+	/**
+	 * @return the counter's total over the last complete second
+	 */
+	public static long get(Counter counter) {
+		return lastSecond[counter.ordinal()];
+	}
+
+	/**
+	 * @return how many entities were rejected for this reason over the last complete second
+	 */
+	public static long getRejected(RejectReason reason) {
+		return lastSecondRejected[reason.ordinal()];
+	}
+
+	public static void appendDebugLines(List<String> lines) {
+		long[] stats = lastSecond;
+		long frames = Math.max(1, stats[Counter.FRAMES.ordinal()]);
+		long ticks = Math.max(1, stats[Counter.TICKS.ordinal()]);
+		long hits = stats[Counter.CLIENT_HEALTH_CACHE_HITS.ordinal()];
+		long lookups = hits + stats[Counter.CLIENT_HEALTH_CACHE_MISSES.ordinal()];
+
+		lines.add("");
+		lines.add(ChatFormatting.UNDERLINE + "Neat");
+		lines.add(String.format(Locale.ROOT, "Plates: %d drawn / %d considered per frame, %d vertices",
+				stats[Counter.PLATES_DRAWN.ordinal()] / frames, stats[Counter.ENTITIES_CONSIDERED.ordinal()] / frames,
+				stats[Counter.VERTICES.ordinal()] / frames));
+		lines.add(String.format(Locale.ROOT, "Render: %.1f us/frame, tick: %.1f us",
+				stats[Counter.RENDER_NANOS.ordinal()] / frames / 1000.0, stats[Counter.ANIMATION_TICK_NANOS.ordinal()] / ticks / 1000.0));
+		lines.add(String.format(Locale.ROOT, "Cobblemon: %d calls/s, battle cache %d%% hit",
+				stats[Counter.REFLECTIVE_CALLS.ordinal()], lookups == 0 ? 100 : hits * 100 / lookups));
+
+		long prepared = stats[Counter.PREPARED_PLATES.ordinal()];
+		if (prepared > 0) {
+			lines.add(String.format(Locale.ROOT, "Prepared plates: %d per frame", prepared / frames));
+		}
+
+		if (PlateImpostors.isActive()) {
+			lines.add(String.format(Locale.ROOT, "Impostors: %d redrawn per frame", stats[Counter.IMPOSTORS_RENDERED.ordinal()] / frames));
+		}
+
+		long queries = stats[Counter.OCCLUSION_QUERIES.ordinal()];
+		if (queries > 0) {
+			lines.add(String.format(Locale.ROOT, "Occlusion queries: %d per frame", queries / frames));
+		}
+
+		StringBuilder rejected = new StringBuilder("Rejected/s:");
+		long[] rejectedStats = lastSecondRejected;
+		for (RejectReason reason : REJECT_REASONS) {
+			long count = rejectedStats[reason.ordinal()];
+			if (count > 0) {
+				rejected.append(' ').append(reason.name().toLowerCase(Locale.ROOT)).append('=').append(count);
+			}
+		}
+		lines.add(rejected.toString());
+		NeatCaches.appendDebugLines(lines);
+		for (CircuitBreaker breaker : CobblemonIntegration.getCircuitBreakers()) {
+			if (breaker.getTotalFailures() > 0) {
+				lines.add(String.format(Locale.ROOT, "Cobblemon %s: %d failures, %d trips%s", breaker.getName(),
+						breaker.getTotalFailures(), breaker.getTrips(), breaker.isOpen() ? " (open)" : ""));
+			}
+		}
+	}
+}
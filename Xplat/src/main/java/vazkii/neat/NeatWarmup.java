@@ -0,0 +1,57 @@
+package vazkii.neat;
+
+import com.mojang.logging.LogUtils;
+
+import net.minecraft.Util;
+
+import org.slf4j.Logger;
+
+import vazkii.neat.jfr.NeatJfr;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Moves Neat's one-time setup off the render thread. Without this, the first frame with a living entity
+ * resolves every Cobblemon reflection handle, compiles the config and initializes the render type
+ * and icon stacks, which shows up as a hitch when joining a world.
+ */
+public class NeatWarmup {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+
+	// True unless a warm-up is in flight, so loaders that never start one behave as before
+	private static volatile boolean ready = true;
+
+	/**
+	 * Starts the warm-up on Minecraft's background executor. Call once from client init.
+	 */
+	public static void start() {
+		ready = false;
+		CompletableFuture.runAsync(NeatWarmup::run, Util.backgroundExecutor());
+	}
+
+	private static void run() {
+		long start = System.nanoTime();
+		try {
+			CobblemonIntegration.isClientBattleSystemAvailable();
+			CompiledConfig.get();
+			// Class init creates the render type and the cached icon stacks
+			HealthBarRenderer.warmup();
+			// Registers Neat's Flight Recorder event types
+			NeatJfr.isPlatePassActive();
+			LOGGER.debug("Neat warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+		} catch (RuntimeException e) {
+			LOGGER.warn("Neat warm-up failed, setup will finish lazily on the render thread", e);
+		} finally {
+			ready = true;
+		}
+	}
+
+	/**
+	 * Whether the warm-up has finished. Until then the render and tick paths skip Neat's work rather than
+	 * block on the integration's initialization lock.
+	 */
+	public static boolean isReady() {
+		return ready;
+	}
+}
@@ -0,0 +1,246 @@
+package vazkii.neat;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.logging.LogUtils;
+
+import net.minecraft.client.Camera;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.phys.Vec3;
+
+import org.joml.Vector3f;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GLCapabilities;
+import org.slf4j.Logger;
+
+import vazkii.neat.core.BoundedCache;
+import vazkii.neat.core.IntLruCache;
+
+import java.util.function.Predicate;
+
+/**
+ * Line of sight for the maxDistanceWithoutLineOfSight rule from GPU occlusion queries instead of block
+ * raycasts. Each frame a small camera-facing quad above every candidate's head, where vanilla anchors
+ * name tags, is drawn against the depth buffer, with color and depth writes off, inside an occlusion query. Results are read back once the GPU
+ * has them, usually a frame or two later, so the render thread never waits on them and never raycasts.
+ *
+ * Entities read as hidden until their first result arrives, so plates pop in a frame or two late rather
+ * than flashing. When the option is off or queries aren't supported, {@link #isActive()} is false and
+ * HealthBarRenderer raycasts as before.
+ */
+public class OcclusionQueries {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+
+	// Queries per entity that can be in flight at once. If the GPU is further behind, probes are skipped.
+	private static final int IN_FLIGHT = 3;
+	// Probes that weren't requested for this many frames are deleted along with their queries
+	private static final int EXPIRE_FRAMES = 60;
+	private static final float PROBE_HALF_SIZE = 0.15F;
+
+	private static final IntLruCache<Probe> probes = new IntLruCache<>("occlusion probes", NeatCaches.DEFAULT_ENTITY_CAPACITY, OcclusionQueries::delete);
+	private static final Predicate<Probe> pollProbe = OcclusionQueries::poll;
+	private static boolean probesPending = false;
+	private static int pollFrame;
+
+	// 0 until checked on the render thread, then the query target or -1 when unsupported
+	private static int target = 0;
+
+	private static class Probe {
+		final int[] queries = new int[IN_FLIGHT];
+		final boolean[] inFlight = new boolean[IN_FLIGHT];
+		final int[] issuedFrame = new int[IN_FLIGHT];
+		boolean visible = false;
+		// Frame of the newest result, so an older query finishing late doesn't overwrite it
+		int resultFrame = -1;
+		int requestedFrame;
+		double x;
+		double y;
+		double z;
+	}
+
+	/**
+	 * Whether visibility comes from occlusion queries. Render thread only.
+	 */
+	public static boolean isActive() {
+		if (!NeatConfig.instance.occlusionQueries()) {
+			return false;
+		}
+		if (target == 0) {
+			target = detectTarget();
+		}
+		return target > 0;
+	}
+
+	private static int detectTarget() {
+		try {
+			GLCapabilities caps = GL.getCapabilities();
+			if (caps.OpenGL33 || caps.GL_ARB_occlusion_query2) {
+				// Stops counting at the first sample, cheaper than an exact count
+				return GL33.GL_ANY_SAMPLES_PASSED;
+			}
+			if (caps.OpenGL15) {
+				return GL15.GL_SAMPLES_PASSED;
+			}
+			LOGGER.info("Occlusion queries aren't supported, using raycasts for line of sight");
+		} catch (IllegalStateException e) {
+			LOGGER.warn("Couldn't check for occlusion query support, using raycasts for line of sight", e);
+		}
+		return -1;
+	}
+
+	/**
+	 * Requests a visibility test for the entity this frame and returns the latest known result.
+	 */
+	static boolean isVisible(LivingEntity entity, Camera camera) {
+		Probe probe = probes.get(entity.getId());
+		if (probe == null) {
+			probe = new Probe();
+			probes.put(entity.getId(), probe);
+		}
+		Vec3 cameraPos = camera.getPosition();
+		probe.requestedFrame = PlateSnapshot.currentFrame();
+		probe.x = entity.getX() - cameraPos.x;
+		// Above the head rather than at the eyes, solid entity batches are already drawn when probes are
+		probe.y = entity.getY() + entity.getBbHeight() + 0.5 - cameraPos.y;
+		probe.z = entity.getZ() - cameraPos.z;
+		probesPending = true;
+		return probe.visible;
+	}
+
+	/**
+	 * Collects results the GPU has finished and drops probes that are no longer requested. Called at the
+	 * start of a frame; never waits on the GPU.
+	 */
+	public static void beginFrame() {
+		if (probes.size() == 0) {
+			return;
+		}
+		if (target <= 0 || !NeatConfig.instance.occlusionQueries()) {
+			clear();
+			return;
+		}
+		pollFrame = PlateSnapshot.currentFrame();
+		probes.removeIf(pollProbe);
+	}
+
+	/**
+	 * @return whether the probe expired and its queries were deleted
+	 */
+	private static boolean poll(Probe probe) {
+		for (int i = 0; i < IN_FLIGHT; i++) {
+			if (probe.inFlight[i] && GL15.glGetQueryObjecti(probe.queries[i], GL15.GL_QUERY_RESULT_AVAILABLE) != 0) {
+				probe.inFlight[i] = false;
+				boolean visible = GL15.glGetQueryObjecti(probe.queries[i], GL15.GL_QUERY_RESULT) != 0;
+				if (probe.issuedFrame[i] > probe.resultFrame) {
+					probe.visible = visible;
+					probe.resultFrame = probe.issuedFrame[i];
+				}
+			}
+		}
+		if (pollFrame - probe.requestedFrame > EXPIRE_FRAMES) {
+			delete(probe);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Draws this frame's probes inside occlusion queries. Called after the terrain is drawn and before
+	 * translucent geometry, with the camera's rotation on the model view stack.
+	 */
+	public static void issue(Camera camera) {
+		if (!probesPending) {
+			return;
+		}
+		probesPending = false;
+		int frame = PlateSnapshot.currentFrame();
+		Vector3f left = camera.getLeftVector();
+		Vector3f up = camera.getUpVector();
+		float lx = left.x() * PROBE_HALF_SIZE;
+		float ly = left.y() * PROBE_HALF_SIZE;
+		float lz = left.z() * PROBE_HALF_SIZE;
+		float ux = up.x() * PROBE_HALF_SIZE;
+		float uy = up.y() * PROBE_HALF_SIZE;
+		float uz = up.z() * PROBE_HALF_SIZE;
+
+		RenderSystem.setShader(GameRenderer::getPositionShader);
+		RenderSystem.enableDepthTest();
+		RenderSystem.depthMask(false);
+		RenderSystem.colorMask(false, false, false, false);
+		RenderSystem.disableCull();
+		int issued = 0;
+		for (Probe probe : probes.values()) {
+			if (probe.requestedFrame != frame) {
+				continue;
+			}
+			int slot = freeSlot(probe);
+			if (slot < 0) {
+				continue;
+			}
+			if (probe.queries[slot] == 0) {
+				probe.queries[slot] = GL15.glGenQueries();
+			}
+			float x = (float) probe.x;
+			float y = (float) probe.y;
+			float z = (float) probe.z;
+			BufferBuilder builder = Tesselator.getInstance().begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION);
+			builder.addVertex(x - lx - ux, y - ly - uy, z - lz - uz);
+			builder.addVertex(x + lx - ux, y + ly - uy, z + lz - uz);
+			builder.addVertex(x + lx + ux, y + ly + uy, z + lz + uz);
+			builder.addVertex(x - lx + ux, y - ly + uy, z - lz + uz);
+			GL15.glBeginQuery(target, probe.queries[slot]);
+			BufferUploader.drawWithShader(builder.buildOrThrow());
+			GL15.glEndQuery(target);
+			probe.inFlight[slot] = true;
+			probe.issuedFrame[slot] = frame;
+			issued++;
+		}
+		RenderSystem.enableCull();
+		RenderSystem.colorMask(true, true, true, true);
+		RenderSystem.depthMask(true);
+		if (NeatStats.isEnabled()) {
+			NeatStats.add(NeatStats.Counter.OCCLUSION_QUERIES, issued);
+		}
+	}
+
+	private static int freeSlot(Probe probe) {
+		for (int i = 0; i < IN_FLIGHT; i++) {
+			if (!probe.inFlight[i]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static void delete(Probe probe) {
+		for (int i = 0; i < IN_FLIGHT; i++) {
+			if (probe.queries[i] != 0) {
+				GL15.glDeleteQueries(probe.queries[i]);
+				probe.queries[i] = 0;
+			}
+		}
+	}
+
+	static BoundedCache cache() {
+		return probes;
+	}
+
+	/**
+	 * Deletes every probe and its queries, e.g. when leaving a world or turning the option off.
+	 */
+	public static void clear() {
+		for (Probe probe : probes.values()) {
+			delete(probe);
+		}
+		probes.clear();
+		probesPending = false;
+	}
+}
@@ -0,0 +1,100 @@
+package vazkii.neat;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+
+import net.minecraft.client.Camera;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.entity.EntityRenderer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+
+import vazkii.neat.core.DepthOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plates requested during the entity pass, drawn together back to front once it ends. Plates are
+ * translucent and share one buffer that isn't sorted on upload, so drawing them in entity order made
+ * overlapping plates blend wrongly. {@link DepthOrder} reuses last frame's order, so sorting stays
+ * close to linear.
+ *
+ * Requests are pooled and reused across frames like {@link PlateSnapshot}s.
+ */
+public class PlateBatch {
+
+	private static final List<Request> pool = new ArrayList<>();
+	private static final DepthOrder order = new DepthOrder();
+	private static final PoseStack flushPose = new PoseStack();
+	private static Camera camera;
+
+	private static class Request {
+		LivingEntity entity;
+		MultiBufferSource buffers;
+		EntityRenderer<? super Entity> entityRenderer;
+		float partialTicks;
+		double x;
+		double y;
+		double z;
+		final PoseStack.Pose pose = new PoseStack().last();
+	}
+
+	/**
+	 * Drops requests left over from a frame that never reached {@link #flush()}.
+	 */
+	public static void beginFrame() {
+		order.clear();
+		camera = null;
+	}
+
+	/**
+	 * Queues a plate for the entity at camera-relative {@code x, y, z}.
+	 */
+	static void add(LivingEntity entity, PoseStack poseStack, MultiBufferSource buffers, Camera camera,
+			EntityRenderer<? super Entity> entityRenderer, float partialTicks, double x, double y, double z) {
+		int index = order.add(entity.getId(), (float) (x * x + y * y + z * z));
+		if (index == pool.size()) {
+			pool.add(new Request());
+		}
+		Request request = pool.get(index);
+		request.entity = entity;
+		request.buffers = buffers;
+		request.entityRenderer = entityRenderer;
+		request.partialTicks = partialTicks;
+		request.x = x;
+		request.y = y;
+		request.z = z;
+		request.pose.pose().set(poseStack.last().pose());
+		request.pose.normal().set(poseStack.last().normal());
+		PlateBatch.camera = camera;
+	}
+
+	/**
+	 * Draws this frame's plates furthest first. Called once the entity pass is over, while its buffers
+	 * haven't been drawn yet.
+	 */
+	public static void flush() {
+		int size = order.size();
+		if (size == 0) {
+			return;
+		}
+		int[] sorted = order.sort();
+		for (int i = 0; i < size; i++) {
+			Request request = pool.get(sorted[i]);
+			flushPose.pushPose();
+			flushPose.last().pose().set(request.pose.pose());
+			flushPose.last().normal().set(request.pose.normal());
+			HealthBarRenderer.drawPlate(request.entity, flushPose, request.buffers, camera, request.entityRenderer,
+					request.partialTicks, request.x, request.y, request.z);
+			flushPose.popPose();
+			// Don't keep entities or buffers alive until the next time this slot is used
+			request.entity = null;
+			request.buffers = null;
+			request.entityRenderer = null;
+		}
+		// Plates drawn from the impostor atlas only queued their quads
+		PlateImpostors.flush();
+		order.clear();
+		camera = null;
+	}
+}
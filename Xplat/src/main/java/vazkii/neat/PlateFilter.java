@@ -0,0 +1,40 @@
+package vazkii.neat;
+
+import vazkii.neat.core.RejectReason;
+import vazkii.neat.core.TypeFilter;
+
+/**
+ * The config-driven part of the plate filter. It only reads values already captured in a
+ * {@link PlateSnapshot}, so it runs before any raycast or Cobblemon lookup and can be exercised
+ * without a running game.
+ */
+public class PlateFilter {
+
+	/**
+	 * Compiles the type options of the config, see {@link CompiledConfig}.
+	 */
+	public static TypeFilter typeFilter(NeatConfig.ConfigAccess config) {
+		return new TypeFilter(config.showOnBosses(), config.showOnPlayers(), config.showOnPassive(), config.showOnHostile());
+	}
+
+	/**
+	 * Checks the entity's type flags against the compiled config and its distance against its display profile.
+	 *
+	 * @return why the entity shouldn't get a plate, or null if it passes these checks
+	 */
+	public static RejectReason rejectByType(PlateSnapshot plate, TypeFilter filter) {
+		return filter.reject(plate.blacklisted, plate.distance, plate.profile.maxDistance, plate.boss, plate.player, plate.friendly);
+	}
+
+	/**
+	 * Checks captured health against the config. Only meaningful once health has been captured.
+	 *
+	 * @return why the entity shouldn't get a plate, or null if it passes this check
+	 */
+	public static RejectReason rejectByHealth(PlateSnapshot plate, NeatConfig.ConfigAccess config) {
+		if (!config.showFullHealth() && plate.currentHealth >= plate.maxHealth) {
+			return RejectReason.FULL_HEALTH;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,88 @@
+package vazkii.neat;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import org.joml.Matrix4f;
+
+import vazkii.neat.core.PlateColors;
+
+/**
+ * The background and health bar quads of a plate. Only needs a pose and a {@link VertexConsumer},
+ * so the scene replay can build plates without a game. In game, quads for a BufferBuilder are written
+ * in bulk by {@link PlateVertexWriter}.
+ */
+public class PlateGeometry {
+
+	static final int LIGHT = 0xF000F0;
+
+	/**
+	 * @return the number of vertices emitted
+	 */
+	static int background(Matrix4f pose, VertexConsumer builder, float halfSize, float padding, int bgHeight, int barHeight, float alpha) {
+		int bgAlpha = (int) (60 * alpha);
+		if (PlateVertexWriter.accepts(builder)) {
+			PlateVertexWriter.begin(pose);
+			long pointer = PlateVertexWriter.reserve(builder, 4);
+			PlateVertexWriter.quad(pointer, PlateVertexWriter.BACKGROUND, -halfSize - padding, -bgHeight, halfSize + padding, barHeight + padding, 0.01F, 0, 0, 0, bgAlpha);
+			return 4;
+		}
+		builder.addVertex(pose, -halfSize - padding, -bgHeight, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(0.0F, 0.0F).setLight(LIGHT);
+		builder.addVertex(pose, -halfSize - padding, barHeight + padding, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(0.0F, 0.5F).setLight(LIGHT);
+		builder.addVertex(pose, halfSize + padding, barHeight + padding, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(1.0F, 0.5F).setLight(LIGHT);
+		builder.addVertex(pose, halfSize + padding, -bgHeight, 0.01F).setColor(0, 0, 0, bgAlpha).setUv(1.0F, 0.0F).setLight(LIGHT);
+		return 4;
+	}
+
+	/**
+	 * @return the number of vertices emitted
+	 */
+	static int bar(Matrix4f pose, VertexConsumer builder, PlateSnapshot plate, float halfSize, int barHeight, float alpha, boolean colorByType) {
+		int argb = barColor(plate, colorByType);
+		int r = (argb >> 16) & 0xFF;
+		int g = (argb >> 8) & 0xFF;
+		int b = argb & 0xFF;
+		// There are scenarios in vanilla where the current health
+		// can temporarily exceed the max health.
+		// Use animated health for smooth transitions
+		float maxHealth = Math.max(plate.currentHealth, plate.maxHealth);
+		float healthHalfSize = halfSize * (plate.animatedHealth / maxHealth);
+
+		// Apply alpha to health bar
+		int barAlpha = (int) (127 * alpha);
+
+		if (PlateVertexWriter.accepts(builder)) {
+			boolean empty = healthHalfSize < halfSize;
+			PlateVertexWriter.begin(pose);
+			long pointer = PlateVertexWriter.reserve(builder, empty ? 8 : 4);
+			pointer = PlateVertexWriter.quad(pointer, PlateVertexWriter.BAR_FILLED, -halfSize, 0, -halfSize + 2 * healthHalfSize, barHeight, 0.001F, r, g, b, barAlpha);
+			if (empty) {
+				PlateVertexWriter.quad(pointer, PlateVertexWriter.BAR_EMPTY, -halfSize + 2 * healthHalfSize, 0, halfSize, barHeight, 0.001F, 0, 0, 0, barAlpha);
+				return 8;
+			}
+			return 4;
+		}
+
+		builder.addVertex(pose, -halfSize, 0, 0.001F).setColor(r, g, b, barAlpha).setUv(0.0F, 0.75F).setLight(LIGHT);
+		builder.addVertex(pose, -halfSize, barHeight, 0.001F).setColor(r, g, b, barAlpha).setUv(0.0F, 1.0F).setLight(LIGHT);
+		builder.addVertex(pose, -halfSize + 2 * healthHalfSize, barHeight, 0.001F).setColor(r, g, b, barAlpha).setUv(1.0F, 1.0F).setLight(LIGHT);
+		builder.addVertex(pose, -halfSize + 2 * healthHalfSize, 0, 0.001F).setColor(r, g, b, barAlpha).setUv(1.0F, 0.75F).setLight(LIGHT);
+
+		// Blank part of the bar
+		if (healthHalfSize < halfSize) {
+			builder.addVertex(pose, -halfSize + 2 * healthHalfSize, 0, 0.001F).setColor(0, 0, 0, barAlpha).setUv(0.0F, 0.5F).setLight(LIGHT);
+			builder.addVertex(pose, -halfSize + 2 * healthHalfSize, barHeight, 0.001F).setColor(0, 0, 0, barAlpha).setUv(0.0F, 0.75F).setLight(LIGHT);
+			builder.addVertex(pose, halfSize, barHeight, 0.001F).setColor(0, 0, 0, barAlpha).setUv(1.0F, 0.75F).setLight(LIGHT);
+			builder.addVertex(pose, halfSize, 0, 0.001F).setColor(0, 0, 0, barAlpha).setUv(1.0F, 0.5F).setLight(LIGHT);
+			return 8;
+		}
+		return 4;
+	}
+
+	static int barColor(PlateSnapshot plate, boolean colorByType) {
+		if (colorByType) {
+			return PlateColors.byType(plate.boss, plate.friendly);
+		}
+		// Use animated health for color calculation too
+		return PlateColors.byHealth(plate.animatedHealth, plate.maxHealth);
+	}
+}
@@ -0,0 +1,471 @@
+package vazkii.neat;
+
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.platform.Lighting;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexSorting;
+import com.mojang.logging.LogUtils;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.FogRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.world.item.ItemStack;
+
+import org.joml.Matrix4f;
+import org.joml.Matrix4fStack;
+import org.lwjgl.opengl.GL11;
+import org.slf4j.Logger;
+
+import vazkii.neat.core.BoundedCache;
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.IntLruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Draws unchanged plates as a single textured quad. Each plate's background, bar, text and icons are
+ * rendered into a cell of an off-screen atlas only when its content changes: name, health text, bar
+ * length and color, icon, armor, size or config. Every frame the plate is then one quad sampling its cell,
+ * faded by vertex color, so fading out doesn't re-render anything either.
+ *
+ * Plates queue their quads while {@link PlateBatch} flushes; changed cells are rendered in one pass
+ * afterwards and the quads emitted, all before the entity buffers are drawn. Cells are recycled least
+ * recently used first and the atlas grows, up to a limit, when every cell is in use in one frame. Plates
+ * that don't fit a cell or find none free are drawn directly as before. Render thread only.
+ */
+public class PlateImpostors {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+
+	// Atlas pixels per plate unit. Name glyphs get 3 pixels per font pixel, health text a little over 2
+	private static final float PIXELS_PER_UNIT = 6.0F;
+	// 128 x 16 plate units, enough for a boss plate with a long name
+	private static final int CELL_WIDTH = 768;
+	private static final int CELL_HEIGHT = 96;
+	// Blank pixels kept around the content, so filtering doesn't pick up the neighbouring cell
+	private static final int CELL_MARGIN = 1;
+	private static final int[] ATLAS_SIZES = { 1536, 3072 };
+	private static final int MAX_CELLS = (ATLAS_SIZES[ATLAS_SIZES.length - 1] / CELL_WIDTH) * (ATLAS_SIZES[ATLAS_SIZES.length - 1] / CELL_HEIGHT);
+	// Half the size of an icon in plate units: items are a block across, drawn at 0.12 blocks
+	private static final float ICON_HALF_SIZE = 0.06F / HealthBarRenderer.GLOBAL_SCALE;
+
+	private static TextureTarget atlas = null;
+	private static ByteBufferBuilder atlasBuffer = null;
+	private static MultiBufferSource.BufferSource atlasBuffers = null;
+	private static int sizeIndex = 0;
+	private static int columns;
+	private static boolean growRequested = false;
+	private static boolean failed = false;
+
+	// Cells are never evicted by the cache itself: it can hold every cell of the largest atlas
+	private static final IntLruCache<Slot> slots = new IntLruCache<>("plate impostors", MAX_CELLS);
+	private static final IntArrayList freeCells = new IntArrayList();
+	private static final List<Slot> dirty = new ArrayList<>();
+	private static final List<Quad> quads = new ArrayList<>();
+	private static int quadCount = 0;
+	private static final PoseStack cellPose = new PoseStack();
+
+	// Bounds of the plate being drawn, in plate units
+	private static float xMin;
+	private static float yMin;
+	private static float xMax;
+	private static float yMax;
+
+	private static class Slot {
+		final int entityId;
+		final int cell;
+		int frame;
+
+		// Content key, null config until rendered
+		CompiledConfig config;
+		DisplayProfile profile;
+		float halfSize;
+		String name;
+		String currentHealthText;
+		String maxHealthText;
+		String percentageText;
+		int barWidth;
+		int barColor;
+		ItemStack icon;
+		int armor;
+
+		float xMin;
+		float yMin;
+		float xMax;
+		float yMax;
+
+		// Set while the cell waits to be rendered this frame
+		PlateSnapshot plate;
+
+		Slot(int entityId, int cell) {
+			this.entityId = entityId;
+			this.cell = cell;
+		}
+	}
+
+	private static class Quad {
+		final Matrix4f pose = new Matrix4f();
+		Slot slot;
+		MultiBufferSource buffers;
+		float alpha;
+	}
+
+	/**
+	 * Whether plates are drawn from the atlas. Not while per-plate debug text is shown.
+	 */
+	public static boolean isActive() {
+		return NeatConfig.instance.plateImpostors() && !failed
+				&& !(NeatConfig.instance.enableDebugInfo() && Minecraft.getInstance().getDebugOverlay().showDebugScreen());
+	}
+
+	/**
+	 * Frees the atlas once the option is turned off and grows it when the last frame ran out of cells.
+	 * Called at the start of every frame.
+	 */
+	public static void beginFrame() {
+		// A frame that never flushed leaves its queue behind
+		for (Slot slot : dirty) {
+			slot.config = null;
+			slot.plate = null;
+		}
+		dirty.clear();
+		clearQuads();
+		if (atlas == null) {
+			return;
+		}
+		if (!NeatConfig.instance.plateImpostors()) {
+			destroy();
+			return;
+		}
+		if (growRequested) {
+			growRequested = false;
+			if (sizeIndex + 1 < ATLAS_SIZES.length && ATLAS_SIZES[sizeIndex + 1] <= RenderSystem.maxSupportedTextureSize()) {
+				destroy();
+				sizeIndex++;
+			}
+		}
+	}
+
+	/**
+	 * Queues the plate as a quad at the origin of the camera-facing pose, and its content to be rendered
+	 * if it changed.
+	 *
+	 * @return false if the plate has to be drawn directly
+	 */
+	static boolean draw(PlateSnapshot plate, String name, float halfSize, PoseStack poseStack, MultiBufferSource buffers) {
+		DisplayProfile profile = plate.profile;
+		ItemStack icon = ItemStack.EMPTY;
+		if (profile.showAttributes) {
+			icon = plate.model != null ? plate.model.icon : HealthBarRenderer.getIcon(plate.entity, plate.boss);
+		}
+		int armor = profile.showArmor ? plate.armor : 0;
+		bounds(profile, halfSize, armor);
+		if (pixels(xMax - xMin) + 2 * CELL_MARGIN > CELL_WIDTH || pixels(yMax - yMin) + 2 * CELL_MARGIN > CELL_HEIGHT) {
+			return false;
+		}
+		if (atlas == null && !create()) {
+			return false;
+		}
+
+		int frame = PlateSnapshot.currentFrame();
+		int id = plate.entity.getId();
+		Slot slot = slots.get(id);
+		if (slot == null) {
+			slot = allocate(id, frame);
+			if (slot == null) {
+				return false;
+			}
+		}
+		slot.frame = frame;
+
+		HealthBarRenderer.captureText(plate);
+		CompiledConfig config = CompiledConfig.get();
+		float maxHealth = Math.max(plate.currentHealth, plate.maxHealth);
+		int barWidth = maxHealth > 0.0F ? pixels(2.0F * halfSize * plate.animatedHealth / maxHealth) : 0;
+		int barColor = PlateGeometry.barColor(plate, NeatConfig.instance.colorByType());
+		if (slot.plate == null && (slot.config != config || slot.profile != profile || slot.halfSize != halfSize
+				|| slot.barWidth != barWidth || slot.barColor != barColor || slot.icon != icon || slot.armor != armor
+				|| !slot.name.equals(name) || !Objects.equals(slot.currentHealthText, plate.currentHealthText)
+				|| !Objects.equals(slot.maxHealthText, plate.maxHealthText) || !Objects.equals(slot.percentageText, plate.percentageText))) {
+			slot.config = config;
+			slot.profile = profile;
+			slot.halfSize = halfSize;
+			slot.name = name;
+			slot.currentHealthText = plate.currentHealthText;
+			slot.maxHealthText = plate.maxHealthText;
+			slot.percentageText = plate.percentageText;
+			slot.barWidth = barWidth;
+			slot.barColor = barColor;
+			slot.icon = icon;
+			slot.armor = armor;
+			slot.xMin = xMin;
+			slot.yMin = yMin;
+			slot.xMax = xMax;
+			slot.yMax = yMax;
+			slot.plate = plate;
+			dirty.add(slot);
+		}
+
+		if (quadCount == quads.size()) {
+			quads.add(new Quad());
+		}
+		Quad quad = quads.get(quadCount++);
+		poseStack.pushPose();
+		poseStack.scale(-HealthBarRenderer.GLOBAL_SCALE, -HealthBarRenderer.GLOBAL_SCALE, HealthBarRenderer.GLOBAL_SCALE);
+		quad.pose.set(poseStack.last().pose());
+		poseStack.popPose();
+		quad.slot = slot;
+		quad.buffers = buffers;
+		quad.alpha = plate.alpha;
+		return true;
+	}
+
+	/**
+	 * Computes the plate's bounds in plate units, the same layout HealthBarRenderer.drawContents draws.
+	 */
+	private static void bounds(DisplayProfile profile, float halfSize, int armor) {
+		float padding = NeatConfig.instance.backgroundPadding();
+		int bgHeight = NeatConfig.instance.backgroundHeight();
+		if (!profile.showEntityName) {
+			bgHeight -= 4;
+		}
+		// Background, and the name above the bar
+		xMin = -halfSize - padding;
+		xMax = halfSize + padding;
+		yMin = Math.min(-bgHeight, -4.5F);
+		yMax = NeatConfig.instance.barHeight() + padding;
+		// Health text, scaled down from the name's line
+		float healthTextScale = 0.75F * HealthBarRenderer.TEXT_SCALE;
+		int hpTextHeight = NeatConfig.instance.hpTextHeight();
+		yMin = Math.min(yMin, -4.5F + hpTextHeight * healthTextScale);
+		yMax = Math.max(yMax, -4.5F + (hpTextHeight + Minecraft.getInstance().font.lineHeight) * healthTextScale);
+
+		// Icons are right to left from the right edge, offset in blocks
+		int icons = 0;
+		float leftShift = 2.85F;
+		if (profile.showAttributes) {
+			icons++;
+			leftShift += 5.0F;
+		}
+		if (armor > 0) {
+			int armorIcons = NeatConfig.instance.groupArmor() ? armor % 5 + armor / 5 : armor;
+			icons += armorIcons;
+			leftShift += armorIcons;
+		}
+		if (icons > 0) {
+			float offsetX = (float) NeatConfig.instance.iconOffsetX() / HealthBarRenderer.GLOBAL_SCALE;
+			float centerY = -3.0F - (float) NeatConfig.instance.iconOffsetY() / HealthBarRenderer.GLOBAL_SCALE;
+			xMin = Math.min(xMin, halfSize - leftShift + 1.0F + offsetX - ICON_HALF_SIZE);
+			xMax = Math.max(xMax, halfSize - 2.85F + offsetX + ICON_HALF_SIZE);
+			yMin = Math.min(yMin, centerY - ICON_HALF_SIZE);
+			yMax = Math.max(yMax, centerY + ICON_HALF_SIZE);
+		}
+	}
+
+	private static int pixels(float units) {
+		return (int) Math.ceil(units * PIXELS_PER_UNIT);
+	}
+
+	/**
+	 * @return a slot with a free or recycled cell, or null if every cell is in use this frame
+	 */
+	private static Slot allocate(int entityId, int frame) {
+		int cell;
+		if (!freeCells.isEmpty()) {
+			cell = freeCells.popInt();
+		} else {
+			Slot eldest = slots.values().iterator().next();
+			if (eldest.frame == frame) {
+				growRequested = true;
+				return null;
+			}
+			slots.remove(eldest.entityId);
+			cell = eldest.cell;
+		}
+		Slot slot = new Slot(entityId, cell);
+		slots.put(entityId, slot);
+		return slot;
+	}
+
+	/**
+	 * Renders changed cells, then emits this frame's quads into the buffers their plates were drawn with.
+	 * Called once PlateBatch has drawn every plate, before the entity buffers are drawn.
+	 */
+	static void flush() {
+		if (quadCount == 0) {
+			return;
+		}
+		boolean stats = NeatStats.isEnabled();
+		long start = stats ? System.nanoTime() : 0;
+		if (!dirty.isEmpty()) {
+			if (stats) {
+				NeatStats.add(NeatStats.Counter.IMPOSTORS_RENDERED, dirty.size());
+			}
+			renderDirty();
+		}
+		float width = atlas.width;
+		float height = atlas.height;
+		for (int i = 0; i < quadCount; i++) {
+			Quad quad = quads.get(i);
+			Slot slot = quad.slot;
+			// Colors in the atlas are premultiplied, so alpha scales all four channels
+			int c = (int) (255 * quad.alpha);
+			float u0 = (cellX(slot.cell) + CELL_MARGIN) / width;
+			float u1 = (cellX(slot.cell) + CELL_MARGIN + (slot.xMax - slot.xMin) * PIXELS_PER_UNIT) / width;
+			float v0 = (cellY(slot.cell) + CELL_MARGIN) / height;
+			float v1 = (cellY(slot.cell) + CELL_MARGIN + (slot.yMax - slot.yMin) * PIXELS_PER_UNIT) / height;
+			VertexConsumer builder = quad.buffers.getBuffer(NeatRenderType.IMPOSTOR_TYPE);
+			// The atlas is upside down: the plate's top edge, yMin, is at the top of the cell
+			builder.addVertex(quad.pose, slot.xMin, slot.yMin, 0.0F).setColor(c, c, c, c).setUv(u0, v1).setLight(PlateGeometry.LIGHT);
+			builder.addVertex(quad.pose, slot.xMin, slot.yMax, 0.0F).setColor(c, c, c, c).setUv(u0, v0).setLight(PlateGeometry.LIGHT);
+			builder.addVertex(quad.pose, slot.xMax, slot.yMax, 0.0F).setColor(c, c, c, c).setUv(u1, v0).setLight(PlateGeometry.LIGHT);
+			builder.addVertex(quad.pose, slot.xMax, slot.yMin, 0.0F).setColor(c, c, c, c).setUv(u1, v1).setLight(PlateGeometry.LIGHT);
+		}
+		if (stats) {
+			NeatStats.add(NeatStats.Counter.VERTICES, quadCount * 4L);
+			NeatStats.add(NeatStats.Counter.RENDER_NANOS, System.nanoTime() - start);
+		}
+		clearQuads();
+	}
+
+	/**
+	 * Clears and renders every changed cell in one pass over the atlas, with an orthographic projection
+	 * in atlas pixels and no fog, then rebinds the main target.
+	 */
+	private static void renderDirty() {
+		Minecraft mc = Minecraft.getInstance();
+		atlas.bindWrite(true);
+		RenderSystem.backupProjectionMatrix();
+		RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(0.0F, atlas.width, 0.0F, atlas.height, -1000.0F, 1000.0F), VertexSorting.ORTHOGRAPHIC_Z);
+		Matrix4fStack modelView = RenderSystem.getModelViewStack();
+		modelView.pushMatrix();
+		modelView.identity();
+		RenderSystem.applyModelViewMatrix();
+		float fogStart = RenderSystem.getShaderFogStart();
+		FogRenderer.setupNoFog();
+		Lighting.setupFor3DItems();
+
+		RenderSystem.depthMask(true);
+		RenderSystem.clearColor(0.0F, 0.0F, 0.0F, 0.0F);
+		for (Slot slot : dirty) {
+			RenderSystem.enableScissor(cellX(slot.cell), cellY(slot.cell), CELL_WIDTH, CELL_HEIGHT);
+			RenderSystem.clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT, Minecraft.ON_OSX);
+		}
+		RenderSystem.disableScissor();
+
+		float scale = PIXELS_PER_UNIT / HealthBarRenderer.GLOBAL_SCALE;
+		for (Slot slot : dirty) {
+			// Camera-facing pose to atlas pixels: plate x to the right, plate y downwards, nearer plate z towards the viewer
+			cellPose.pushPose();
+			cellPose.translate(cellX(slot.cell) + CELL_MARGIN - slot.xMin * PIXELS_PER_UNIT,
+					cellY(slot.cell) + CELL_MARGIN + slot.yMax * PIXELS_PER_UNIT, 0.0F);
+			cellPose.scale(-scale, scale, -scale);
+			HealthBarRenderer.drawContents(slot.plate, slot.name, slot.halfSize, cellPose, atlasBuffers, 1.0F);
+			cellPose.popPose();
+			slot.plate = null;
+		}
+		atlasBuffers.endBatch();
+		dirty.clear();
+
+		if (mc.level != null && mc.level.effects().constantAmbientLight()) {
+			Lighting.setupNetherLevel();
+		} else {
+			Lighting.setupLevel();
+		}
+		RenderSystem.setShaderFogStart(fogStart);
+		modelView.popMatrix();
+		RenderSystem.applyModelViewMatrix();
+		RenderSystem.restoreProjectionMatrix();
+		mc.getMainRenderTarget().bindWrite(true);
+	}
+
+	private static int cellX(int cell) {
+		return (cell % columns) * CELL_WIDTH;
+	}
+
+	private static int cellY(int cell) {
+		return (cell / columns) * CELL_HEIGHT;
+	}
+
+	/**
+	 * @return the atlas color texture, for {@link NeatRenderType#IMPOSTOR_TYPE}
+	 */
+	static int textureId() {
+		return atlas != null ? atlas.getColorTextureId() : 0;
+	}
+
+	private static boolean create() {
+		int size = ATLAS_SIZES[sizeIndex];
+		try {
+			atlas = new TextureTarget(size, size, true, Minecraft.ON_OSX);
+		} catch (RuntimeException e) {
+			// Plates keep being drawn directly
+			LOGGER.error("Couldn't create the plate impostor atlas", e);
+			failed = true;
+			return false;
+		}
+		atlas.setClearColor(0.0F, 0.0F, 0.0F, 0.0F);
+		atlas.clear(Minecraft.ON_OSX);
+		atlas.setFilterMode(GL11.GL_LINEAR);
+		atlasBuffer = new ByteBufferBuilder(262144);
+		atlasBuffers = MultiBufferSource.immediate(atlasBuffer);
+		columns = size / CELL_WIDTH;
+		int cells = columns * (size / CELL_HEIGHT);
+		// Lowest cells first
+		for (int cell = cells - 1; cell >= 0; cell--) {
+			freeCells.add(cell);
+		}
+		Minecraft.getInstance().getMainRenderTarget().bindWrite(true);
+		LOGGER.info("Created a {}x{} plate impostor atlas with {} cells", size, size, cells);
+		return true;
+	}
+
+	private static void destroy() {
+		slots.clear();
+		freeCells.clear();
+		if (atlas != null) {
+			atlas.destroyBuffers();
+			atlas = null;
+		}
+		if (atlasBuffer != null) {
+			atlasBuffer.close();
+			atlasBuffer = null;
+		}
+		atlasBuffers = null;
+	}
+
+	private static void clearQuads() {
+		// Don't keep buffers alive until the next frame
+		for (int i = 0; i < quadCount; i++) {
+			quads.get(i).slot = null;
+			quads.get(i).buffers = null;
+		}
+		quadCount = 0;
+	}
+
+	/**
+	 * Forgets every cell's content, e.g. when the level changes. The atlas itself is kept.
+	 */
+	public static void clear() {
+		if (atlas == null) {
+			return;
+		}
+		slots.clear();
+		freeCells.clear();
+		int cells = columns * (atlas.height / CELL_HEIGHT);
+		for (int cell = cells - 1; cell >= 0; cell--) {
+			freeCells.add(cell);
+		}
+	}
+
+	static BoundedCache cache() {
+		return slots;
+	}
+}
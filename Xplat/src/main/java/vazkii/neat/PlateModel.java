@@ -0,0 +1,84 @@
+package vazkii.neat;
+
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.HealthText;
+
+import java.text.DecimalFormat;
+
+/**
+ * Everything about a plate that doesn't depend on the camera, prepared by {@link PlatePipeline} once per
+ * tick: resolved health, name and its width, the health strings to draw, the attribute icon and armor.
+ * Models are pooled by the pipeline. The client thread fills in what it captured from the entity, a
+ * worker adds the strings, and once published a model is only read until the pipeline fills it again.
+ */
+final class PlateModel {
+
+	LivingEntity entity;
+	int entityId;
+	DisplayProfile profile;
+
+	boolean enemyPokemon;
+	boolean hideExactHp;
+	float currentHealth;
+	float maxHealth;
+	float animatedHealth;
+
+	String name;
+	int nameWidth;
+	ItemStack icon;
+	int armor;
+
+	// Null when the profile doesn't draw them
+	String currentHealthText;
+	String maxHealthText;
+	String percentageText;
+
+	/**
+	 * Fills in what the client thread captured. Animated health is set once the animation tick has swept,
+	 * and the strings by {@link #formatText}.
+	 *
+	 * @param entity the entity, or null when driven without a world, e.g. from benchmarks
+	 */
+	void set(LivingEntity entity, int entityId, DisplayProfile profile, boolean enemyPokemon, boolean hideExactHp,
+			float currentHealth, float maxHealth, String name, int nameWidth, ItemStack icon, int armor) {
+		this.entity = entity;
+		this.entityId = entityId;
+		this.profile = profile;
+		this.enemyPokemon = enemyPokemon;
+		this.hideExactHp = hideExactHp;
+		this.currentHealth = currentHealth;
+		this.maxHealth = maxHealth;
+		animatedHealth = currentHealth;
+		this.name = name;
+		this.nameWidth = nameWidth;
+		this.icon = icon;
+		this.armor = armor;
+	}
+
+	/**
+	 * Formats the health strings, same rules as HealthBarRenderer's text.
+	 *
+	 * @param memo the calling thread's memo
+	 */
+	void formatText(HealthText.Memo memo, DecimalFormat format) {
+		currentHealthText = profile.showCurrentHP ? memo.currentHealth(animatedHealth, maxHealth, hideExactHp, format) : null;
+		maxHealthText = profile.showMaxHP && !hideExactHp ? memo.maxHealth(maxHealth, format) : null;
+		percentageText = profile.showPercentage && (!hideExactHp || !profile.showCurrentHP) ? HealthText.percentage(animatedHealth, maxHealth) : null;
+	}
+
+	/**
+	 * Drops the references a model in the pool no longer needs, so it doesn't keep an old level's entities alive.
+	 */
+	void release() {
+		entity = null;
+		profile = null;
+		name = null;
+		icon = null;
+		currentHealthText = null;
+		maxHealthText = null;
+		percentageText = null;
+	}
+}
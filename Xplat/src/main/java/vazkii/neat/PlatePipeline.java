@@ -0,0 +1,330 @@
+package vazkii.neat;
+
+import com.mojang.logging.LogUtils;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+
+import org.slf4j.Logger;
+
+import vazkii.neat.core.DisplayProfile;
+import vazkii.neat.core.HealthText;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prepares plates once per tick instead of once per frame. While the animation tick goes over the
+ * world's entities it hands each one to {@link #capture}, with the effective health and battle state it
+ * already resolved. Entities the render path would turn away on type, distance, battle-only, recent
+ * damage or full health are dropped before anything is looked up; the rest get their max health, name,
+ * name width, icon and armor captured on the client thread, since entities, Cobblemon and the font
+ * aren't thread-safe. A small fork-join pool then formats the health strings through per-worker memos
+ * and publishes the models; the render thread never waits for it.
+ *
+ * While a model is published for an entity, the render path takes its health and strings and only
+ * decides visibility and emits vertices. Entities without one, e.g. the frame they appear, are prepared
+ * inline as before. Animated health only moves once per tick, so a model shows the same values the
+ * inline path would, at most one tick behind packets that arrived since.
+ *
+ * Models are pooled in two batches that take turns: the client thread fills one while the render thread
+ * reads the other, so a steady tick doesn't allocate models, arrays or maps.
+ */
+public class PlatePipeline {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+
+	// Ranges at most this long are formatted by one task, smaller ones cost more to fork than to format
+	private static final int SPLIT_THRESHOLD = 64;
+	private static final int CPUS = Runtime.getRuntime().availableProcessors();
+
+	private static final Batch EMPTY = new Batch();
+	private static final Batch[] batches = { new Batch(), new Batch() };
+	private static volatile Batch published = EMPTY;
+	// Set while a job is in flight, the client thread doesn't queue another behind it
+	private static final AtomicBoolean building = new AtomicBoolean(false);
+	// Bumped on level change, so a job started in the old level doesn't publish its entities
+	private static volatile int generation = 0;
+	// The batch handed to the workers last, only theirs while building is set
+	private static Batch inFlight = null;
+
+	// Client thread only, set by beginTick for the captures that follow
+	private static Batch capturing = null;
+	private static Entity camera = null;
+	private static CompiledConfig compiled = null;
+	private static Font font = null;
+	private static boolean respectHpHiding;
+	private static boolean recentDamageOnly;
+	private static int recentDamageTicks;
+	private static final PlateSnapshot scratch = new PlateSnapshot();
+	// Workers only clone it, nothing formats with it, so they can share it
+	private static DecimalFormat formatSource = null;
+	private static DecimalFormat formatTemplate = null;
+
+	private static class Workers {
+		static final ForkJoinPool POOL = new ForkJoinPool(Math.clamp(CPUS - 1, 1, 2), pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("Neat Plate Worker-" + thread.getPoolIndex());
+			return thread;
+		}, (thread, e) -> LOGGER.error("Preparing health plates failed", e), false);
+		static final ThreadLocal<HealthText.Memo> MEMOS = ThreadLocal.withInitial(HealthText.Memo::new);
+	}
+
+	/**
+	 * One tick's models, reused tick after tick along with its map.
+	 */
+	static final class Batch implements Runnable {
+		private PlateModel[] models = new PlateModel[64];
+		private int size = 0;
+		// Models past size that still hold references from an earlier tick
+		private int used = 0;
+		private final Int2ObjectOpenHashMap<PlateModel> byEntity = new Int2ObjectOpenHashMap<>();
+		private DecimalFormat format;
+		private int generation;
+
+		void reset(DecimalFormat format, int generation) {
+			size = 0;
+			this.format = format;
+			this.generation = generation;
+		}
+
+		/**
+		 * @return a pooled model to fill for the next entity
+		 */
+		PlateModel add() {
+			if (size == models.length) {
+				models = Arrays.copyOf(models, size * 2);
+			}
+			PlateModel model = models[size];
+			if (model == null) {
+				model = new PlateModel();
+				models[size] = model;
+			}
+			size++;
+			return model;
+		}
+
+		int size() {
+			return size;
+		}
+
+		void format(int from, int to, HealthText.Memo memo) {
+			for (int i = from; i < to; i++) {
+				models[i].formatText(memo, format);
+			}
+		}
+
+		/**
+		 * Replaces the previous tick's models in the map with this tick's.
+		 */
+		void index() {
+			byEntity.clear();
+			for (int i = 0; i < size; i++) {
+				byEntity.put(models[i].entityId, models[i]);
+			}
+		}
+
+		PlateModel get(int entityId) {
+			return byEntity.get(entityId);
+		}
+
+		/**
+		 * Drops the references held by models this tick didn't fill.
+		 */
+		void releaseUnused() {
+			for (int i = size; i < used; i++) {
+				models[i].release();
+			}
+			used = size;
+		}
+
+		void release() {
+			size = 0;
+			releaseUnused();
+			byEntity.clear();
+		}
+
+		// Runs on a worker
+		@Override
+		public void run() {
+			build(this);
+		}
+	}
+
+	/**
+	 * Whether plates are prepared by the pipeline. Never on a single core, where it would compete with
+	 * the render thread instead of freeing it.
+	 */
+	public static boolean isActive() {
+		return NeatConfig.instance.preparePlatesOffThread() && CPUS > 1;
+	}
+
+	/**
+	 * Starts preparing this tick's plates. Called by the animation tick before it goes over the entities.
+	 *
+	 * @return whether to {@link #capture} entities and {@link #submit()} once the animation tick has swept
+	 */
+	static boolean beginTick(Minecraft mc) {
+		Entity cameraEntity = mc.getCameraEntity();
+		boolean hidden = (!NeatConfig.instance.renderInF1() && !Minecraft.renderNames()) || !NeatConfig.draw;
+		if (!isActive() || cameraEntity == null || hidden) {
+			published = EMPTY;
+			return false;
+		}
+		// The previous job is still formatting, keep showing its models rather than pile up work
+		if (building.get()) {
+			return false;
+		}
+		compiled = CompiledConfig.get();
+		// The compiled format is only ever used on this thread, so cloning it here is safe
+		if (compiled.healthFormat != formatSource) {
+			formatSource = compiled.healthFormat;
+			formatTemplate = (DecimalFormat) formatSource.clone();
+		}
+		capturing = published == batches[0] ? batches[1] : batches[0];
+		capturing.reset(formatTemplate, generation);
+		camera = cameraEntity;
+		font = mc.font;
+		respectHpHiding = NeatConfig.instance.cobblemonRespectEnemyHpHiding();
+		recentDamageOnly = NeatConfig.instance.showOnlyRecentlyDamaged();
+		recentDamageTicks = NeatConfig.instance.recentDamageSeconds() * SharedConstants.TICKS_PER_SECOND;
+		return true;
+	}
+
+	/**
+	 * Captures one entity if the render path could draw a plate for it.
+	 *
+	 * @param currentHealth the effective current health the animation tick resolved
+	 * @param inBattle whether it's a Pokemon in battle
+	 */
+	static void capture(LivingEntity living, float currentHealth, boolean pokemon, boolean inBattle) {
+		if (living == camera) {
+			return;
+		}
+		DisplayProfile profile = compiled.profile(living.getType());
+		PlateSnapshot plate = scratch;
+		plate.entity = living;
+		plate.profile = profile;
+		plate.pokemon = pokemon;
+		plate.boss = profile.boss;
+		plate.friendly = living.getType().getCategory().isFriendly();
+		plate.player = living instanceof Player;
+		plate.blacklisted = profile.hidden;
+		plate.distance = living.distanceTo(camera);
+		// Same cheap checks as the render path, before any lookup
+		if (PlateFilter.rejectByType(plate, compiled.typeFilter) != null
+				|| (profile.cobblemonBattleOnly && pokemon && !inBattle)
+				|| (recentDamageOnly && !inBattle && !HealthAnimationManager.wasDamagedWithin(living.getUUID(), recentDamageTicks))) {
+			return;
+		}
+		plate.enemyPokemon = false;
+		HealthBarRenderer.resolveHealth(plate, currentHealth);
+		if (PlateFilter.rejectByHealth(plate, NeatConfig.instance) != null) {
+			return;
+		}
+		String name = HealthBarRenderer.plateName(living);
+		ItemStack icon = profile.showAttributes ? HealthBarRenderer.getIcon(living, profile.boss) : ItemStack.EMPTY;
+		capturing.add().set(living, living.getId(), profile, plate.enemyPokemon, respectHpHiding && plate.enemyPokemon,
+				plate.currentHealth, plate.maxHealth, name, font.width(name), icon, living.getArmorValue());
+	}
+
+	/**
+	 * Takes animated health from the sweep that just ran and hands the batch to the workers.
+	 */
+	static void submit() {
+		Batch batch = capturing;
+		capturing = null;
+		camera = null;
+		font = null;
+		scratch.entity = null;
+		for (int i = 0; i < batch.size; i++) {
+			PlateModel model = batch.models[i];
+			model.animatedHealth = HealthAnimationManager.getAnimatedHealth(model.entity, model.currentHealth);
+		}
+		batch.releaseUnused();
+		inFlight = batch;
+		building.set(true);
+		try {
+			Workers.POOL.execute(batch);
+		} catch (RuntimeException e) {
+			building.set(false);
+			throw e;
+		}
+	}
+
+	/**
+	 * Runs on a worker: formats every model, then publishes them all at once.
+	 */
+	private static void build(Batch batch) {
+		try {
+			if (batch.size > SPLIT_THRESHOLD) {
+				new Format(batch, 0, batch.size).invoke();
+			} else {
+				batch.format(0, batch.size, Workers.MEMOS.get());
+			}
+			batch.index();
+			if (batch.generation == generation) {
+				published = batch;
+			}
+		} finally {
+			building.set(false);
+		}
+	}
+
+	private static class Format extends RecursiveAction {
+		private final Batch batch;
+		private final int from;
+		private final int to;
+
+		Format(Batch batch, int from, int to) {
+			this.batch = batch;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Format(batch, from, mid), new Format(batch, mid, to));
+				return;
+			}
+			// DecimalFormat and the memos aren't thread-safe, each worker formats with its own
+			batch.format(from, to, Workers.MEMOS.get());
+		}
+	}
+
+	/**
+	 * @return the latest model for this entity, or null if it has none yet
+	 */
+	static PlateModel get(LivingEntity entity) {
+		PlateModel model = published.get(entity.getId());
+		return model != null && model.entity == entity ? model : null;
+	}
+
+	/**
+	 * Drops every model, e.g. when the level changes.
+	 */
+	public static void clear() {
+		generation++;
+		published = EMPTY;
+		boolean busy = building.get();
+		for (Batch batch : batches) {
+			// A batch a worker is still formatting is left alone, it's overwritten the next time it's filled
+			if (!busy || batch != inFlight) {
+				batch.release();
+			}
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package vazkii.neat;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+
+import vazkii.neat.core.DisplayProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything one frame of plate rendering needs to know about an entity, computed once and then read
+ * by the filter, bar, text and icon stages. Before this, a single hookRender call resolved effective
+ * max health up to five times and animated health three times, each going through Cobblemon reflection.
+ *
+ * Snapshots are pooled: they're handed out per entity for the current frame and recycled when the
+ * next frame begins, so steady-state rendering doesn't allocate them.
+ */
+public class PlateSnapshot {
+
+	private static final List<PlateSnapshot> pool = new ArrayList<>();
+	private static final Int2ObjectOpenHashMap<PlateSnapshot> byEntity = new Int2ObjectOpenHashMap<>();
+	private static int poolCursor = 0;
+	private static int frame = 0;
+
+	static final byte VISIBILITY_UNKNOWN = 0;
+	static final byte VISIBILITY_SHOWN = 1;
+	static final byte VISIBILITY_HIDDEN = 2;
+
+	LivingEntity entity;
+
+	// Whether a plate is drawn this frame, decided once by HealthBarRenderer.isPlateShown
+	byte visibility;
+	float alpha;
+
+	// Identity, filled on acquire
+	DisplayProfile profile;
+	boolean pokemon;
+	boolean boss;
+	boolean friendly;
+	boolean player;
+	boolean blacklisted;
+
+	// Distance to the camera entity, filled by the filter
+	float distance;
+
+	// Health, filled by HealthBarRenderer.captureHealth
+	boolean healthCaptured;
+	boolean enemyPokemon;
+	float currentHealth;
+	float maxHealth;
+	float animatedHealth;
+	// Set by captureHealth when PlatePipeline prepared this entity
+	PlateModel model;
+
+	// Health text, filled by HealthBarRenderer.captureText, null when the profile doesn't draw it
+	boolean textCaptured;
+	String currentHealthText;
+	String maxHealthText;
+	String percentageText;
+
+	// Filled by HealthBarRenderer.hookRender once the plate is known to be drawn
+	int armor;
+
+	/**
+	 * Starts a new frame, recycling every snapshot handed out during the previous one.
+	 */
+	public static void beginFrame() {
+		frame++;
+		poolCursor = 0;
+		byEntity.clear();
+	}
+
+	public static int currentFrame() {
+		return frame;
+	}
+
+	/**
+	 * Returns this frame's snapshot for an entity, creating and filling the identity fields on first use.
+	 */
+	static PlateSnapshot acquire(LivingEntity entity) {
+		PlateSnapshot snapshot = byEntity.get(entity.getId());
+		if (snapshot != null && snapshot.entity == entity) {
+			return snapshot;
+		}
+		if (poolCursor == pool.size()) {
+			pool.add(new PlateSnapshot());
+		}
+		snapshot = pool.get(poolCursor++);
+		snapshot.reset(entity);
+		byEntity.put(entity.getId(), snapshot);
+		return snapshot;
+	}
+
+	private void reset(LivingEntity entity) {
+		this.entity = entity;
+		visibility = VISIBILITY_UNKNOWN;
+		alpha = 1.0F;
+		profile = CompiledConfig.get().profile(entity.getType());
+		pokemon = CobblemonIntegration.isPokemonEntity(entity);
+		boss = profile.boss;
+		friendly = entity.getType().getCategory().isFriendly();
+		player = entity instanceof Player;
+		blacklisted = profile.hidden;
+		distance = 0.0F;
+		healthCaptured = false;
+		enemyPokemon = false;
+		currentHealth = 0.0F;
+		maxHealth = 0.0F;
+		animatedHealth = 0.0F;
+		model = null;
+		textCaptured = false;
+		currentHealthText = null;
+		maxHealthText = null;
+		percentageText = null;
+		armor = 0;
+	}
+}
@@ -0,0 +1,170 @@
+package vazkii.neat;
+
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormatElement;
+
+import org.joml.Matrix4f;
+import org.lwjgl.system.MemoryUtil;
+
+import vazkii.neat.mixin.AccessorBufferBuilder;
+
+import java.nio.ByteOrder;
+
+/**
+ * Writes plate background and bar quads straight into a {@link com.mojang.blaze3d.vertex.BufferBuilder}'s
+ * memory instead of through the {@link VertexConsumer} chain, which costs four calls and a matrix
+ * transform per vertex.
+ *
+ * UVs and light never change, so each quad's vertices start as a copy of an off-heap template; only
+ * positions and color are written per plate. The plate's rectangles are axis aligned in plate space,
+ * so the pose is reduced once to an origin and three axes and every corner is a couple of adds.
+ *
+ * Used only for BufferBuilders in {@link NeatRenderType#BAR_TEXTURE_TYPE}'s format and mode. Anything else,
+ * e.g. a wrapping consumer from another mod or the benchmarks' counting consumer, goes through
+ * {@link VertexConsumer} as before. Render thread only.
+ */
+public class PlateVertexWriter {
+
+	private static final VertexFormat FORMAT = DefaultVertexFormat.POSITION_COLOR_TEX_LIGHTMAP;
+	private static final int STRIDE = FORMAT.getVertexSize();
+	private static final int POSITION = FORMAT.getOffset(VertexFormatElement.POSITION);
+	private static final int COLOR = FORMAT.getOffset(VertexFormatElement.COLOR);
+	private static final int UV = FORMAT.getOffset(VertexFormatElement.UV0);
+	private static final int LIGHT = FORMAT.getOffset(VertexFormatElement.UV2);
+	private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+	// Offsets of the quad templates, in the texture regions PlateGeometry uses
+	static final int BACKGROUND = 0;
+	static final int BAR_FILLED = 4 * STRIDE;
+	static final int BAR_EMPTY = 8 * STRIDE;
+
+	// The pose as origin plus axes, set by begin()
+	private static float originX;
+	private static float originY;
+	private static float originZ;
+	private static float axisXx;
+	private static float axisXy;
+	private static float axisXz;
+	private static float axisYx;
+	private static float axisYy;
+	private static float axisYz;
+	private static float axisZx;
+	private static float axisZy;
+	private static float axisZz;
+
+	// Allocated on the first quad rather than with the class, so consumers that never take this path, e.g. in the
+	// benchmarks, don't need LWJGL's native allocator. Kept for the life of the game.
+	private static class Templates {
+		static final long ADDRESS = create();
+
+		private static long create() {
+			long templates = MemoryUtil.nmemAlloc(12L * STRIDE);
+			template(templates + BACKGROUND, 0.0F, 0.5F);
+			template(templates + BAR_FILLED, 0.75F, 1.0F);
+			template(templates + BAR_EMPTY, 0.5F, 0.75F);
+			return templates;
+		}
+	}
+
+	/**
+	 * Fills a quad's UVs and light, corners in the order PlateGeometry emits them: (x0, y0), (x0, y1), (x1, y1), (x1, y0).
+	 */
+	private static void template(long quad, float v0, float v1) {
+		float[] us = { 0.0F, 0.0F, 1.0F, 1.0F };
+		float[] vs = { v0, v1, v1, v0 };
+		for (int i = 0; i < 4; i++) {
+			long vertex = quad + (long) i * STRIDE;
+			MemoryUtil.memSet(vertex, 0, STRIDE);
+			MemoryUtil.memPutFloat(vertex + UV, us[i]);
+			MemoryUtil.memPutFloat(vertex + UV + 4, vs[i]);
+			MemoryUtil.memPutShort(vertex + LIGHT, (short) (PlateGeometry.LIGHT & 0xFFFF));
+			MemoryUtil.memPutShort(vertex + LIGHT + 2, (short) (PlateGeometry.LIGHT >> 16 & 0xFFFF));
+		}
+	}
+
+	/**
+	 * @return whether quads for this consumer can be written directly
+	 */
+	static boolean accepts(VertexConsumer builder) {
+		// Without the mixin, e.g. in the benchmarks, no BufferBuilder implements the accessor unless it stands in for it
+		return builder instanceof AccessorBufferBuilder buffer && buffer.neat_getFormat() == FORMAT
+				&& buffer.neat_getMode() == VertexFormat.Mode.QUADS;
+	}
+
+	/**
+	 * Reduces the pose to an origin and axes for the following quads.
+	 */
+	static void begin(Matrix4f pose) {
+		originX = pose.m30();
+		originY = pose.m31();
+		originZ = pose.m32();
+		axisXx = pose.m00();
+		axisXy = pose.m01();
+		axisXz = pose.m02();
+		axisYx = pose.m10();
+		axisYy = pose.m11();
+		axisYz = pose.m12();
+		axisZx = pose.m20();
+		axisZy = pose.m21();
+		axisZz = pose.m22();
+	}
+
+	/**
+	 * Appends {@code vertices} vertices to the builder, as if they had been added one by one.
+	 *
+	 * @param builder a consumer {@link #accepts} accepted
+	 * @return the address of the first one
+	 */
+	static long reserve(VertexConsumer builder, int vertices) {
+		AccessorBufferBuilder buffer = (AccessorBufferBuilder) builder;
+		buffer.neat_ensureBuilding();
+		// Checks the last vertex added through the builder is complete
+		buffer.neat_endLastVertex();
+		long pointer = buffer.neat_getBuffer().reserve(vertices * STRIDE);
+		buffer.neat_setVertices(buffer.neat_getVertices() + vertices);
+		buffer.neat_setVertexPointer(pointer + (long) (vertices - 1) * STRIDE);
+		return pointer;
+	}
+
+	/**
+	 * Writes one quad covering (x0, y0) to (x1, y1) in plate space at depth z, from the template at
+	 * {@code template}.
+	 *
+	 * @return the address after the quad
+	 */
+	static long quad(long pointer, int template, float x0, float y0, float x1, float y1, float z, int r, int g, int b, int a) {
+		MemoryUtil.memCopy(Templates.ADDRESS + template, pointer, 4L * STRIDE);
+		// Depth and both x edges are shared by two corners each
+		float baseX = originX + z * axisZx;
+		float baseY = originY + z * axisZy;
+		float baseZ = originZ + z * axisZz;
+		float leftX = x0 * axisXx;
+		float leftY = x0 * axisXy;
+		float leftZ = x0 * axisXz;
+		float rightX = x1 * axisXx;
+		float rightY = x1 * axisXy;
+		float rightZ = x1 * axisXz;
+		float topX = baseX + y0 * axisYx;
+		float topY = baseY + y0 * axisYy;
+		float topZ = baseZ + y0 * axisYz;
+		float bottomX = baseX + y1 * axisYx;
+		float bottomY = baseY + y1 * axisYy;
+		float bottomZ = baseZ + y1 * axisYz;
+		int color = LITTLE_ENDIAN ? (a << 24 | b << 16 | g << 8 | r) : (r << 24 | g << 16 | b << 8 | a);
+
+		position(pointer, topX + leftX, topY + leftY, topZ + leftZ, color);
+		position(pointer + STRIDE, bottomX + leftX, bottomY + leftY, bottomZ + leftZ, color);
+		position(pointer + 2L * STRIDE, bottomX + rightX, bottomY + rightY, bottomZ + rightZ, color);
+		position(pointer + 3L * STRIDE, topX + rightX, topY + rightY, topZ + rightZ, color);
+		return pointer + 4L * STRIDE;
+	}
+
+	private static void position(long vertex, float x, float y, float z, int color) {
+		MemoryUtil.memPutFloat(vertex + POSITION, x);
+		MemoryUtil.memPutFloat(vertex + POSITION + 4, y);
+		MemoryUtil.memPutFloat(vertex + POSITION + 8, z);
+		MemoryUtil.memPutInt(vertex + COLOR, color);
+	}
+}
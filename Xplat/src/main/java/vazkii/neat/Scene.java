@@ -0,0 +1,171 @@
+package vazkii.neat;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A recorded sequence of ticks: where the camera was and what every living entity around it looked like.
+ * Written by {@link SceneRecorder} and replayed by the benchmark harness, so it only uses plain Java types.
+ *
+ * The file is gzipped. Entities are written in full the first time they appear and referenced by index
+ * afterwards, so a tick costs about 25 bytes per entity before compression.
+ */
+public class Scene {
+
+	private static final int MAGIC = 0x4E534345; // "NSCE"
+	private static final int VERSION = 1;
+
+	public static final int FLAG_POKEMON = 1;
+	public static final int FLAG_BOSS = 1 << 1;
+	public static final int FLAG_FRIENDLY = 1 << 2;
+	public static final int FLAG_PLAYER = 1 << 3;
+	public static final int FLAG_IN_BATTLE = 1 << 4;
+	public static final int FLAG_ENEMY_POKEMON = 1 << 5;
+	public static final int FLAG_LINE_OF_SIGHT = 1 << 6;
+	public static final int FLAG_DEAD = 1 << 7;
+
+	/**
+	 * The parts of an entity that don't change while it's recorded.
+	 *
+	 * @param type       the entity type's registry id
+	 * @param customName the custom name, or null
+	 */
+	public record Actor(UUID uuid, String type, String displayName, String customName) {}
+
+	/**
+	 * One entity in one tick.
+	 *
+	 * @param actor index into {@link #actors()}
+	 */
+	public record Sample(int actor, float x, float y, float z, float health, float maxHealth, int armor, int flags) {
+		public boolean has(int flag) {
+			return (flags & flag) != 0;
+		}
+	}
+
+	public record Tick(float cameraX, float cameraY, float cameraZ, Sample[] samples) {}
+
+	private final List<Actor> actors;
+	private final List<Tick> ticks;
+
+	public Scene(List<Actor> actors, List<Tick> ticks) {
+		this.actors = actors;
+		this.ticks = ticks;
+	}
+
+	public List<Actor> actors() {
+		return actors;
+	}
+
+	public List<Tick> ticks() {
+		return ticks;
+	}
+
+	public int sampleCount() {
+		int count = 0;
+		for (Tick tick : ticks) {
+			count += tick.samples.length;
+		}
+		return count;
+	}
+
+	public void write(OutputStream stream) throws IOException {
+		GZIPOutputStream gzip = new GZIPOutputStream(stream);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip));
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		writeVarInt(out, ticks.size());
+		int actorsWritten = 0;
+		for (Tick tick : ticks) {
+			out.writeFloat(tick.cameraX);
+			out.writeFloat(tick.cameraY);
+			out.writeFloat(tick.cameraZ);
+			writeVarInt(out, tick.samples.length);
+			for (Sample sample : tick.samples) {
+				writeVarInt(out, sample.actor);
+				if (sample.actor == actorsWritten) {
+					// First appearance, write the actor inline. Samples always introduce actors in index order.
+					Actor actor = actors.get(actorsWritten++);
+					out.writeLong(actor.uuid.getMostSignificantBits());
+					out.writeLong(actor.uuid.getLeastSignificantBits());
+					out.writeUTF(actor.type);
+					out.writeUTF(actor.displayName);
+					out.writeBoolean(actor.customName != null);
+					if (actor.customName != null) {
+						out.writeUTF(actor.customName);
+					}
+				}
+				out.writeFloat(sample.x);
+				out.writeFloat(sample.y);
+				out.writeFloat(sample.z);
+				out.writeFloat(sample.health);
+				out.writeFloat(sample.maxHealth);
+				out.writeByte(sample.armor);
+				out.writeByte(sample.flags);
+			}
+		}
+		// Writes the gzip trailer without closing the stream, the caller owns it
+		out.flush();
+		gzip.finish();
+	}
+
+	public static Scene read(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a Neat scene file");
+		}
+		int version = in.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported scene version " + version);
+		}
+		int tickCount = readVarInt(in);
+		List<Actor> actors = new ArrayList<>();
+		List<Tick> ticks = new ArrayList<>(tickCount);
+		for (int t = 0; t < tickCount; t++) {
+			float cameraX = in.readFloat();
+			float cameraY = in.readFloat();
+			float cameraZ = in.readFloat();
+			Sample[] samples = new Sample[readVarInt(in)];
+			for (int i = 0; i < samples.length; i++) {
+				int actor = readVarInt(in);
+				if (actor == actors.size()) {
+					UUID uuid = new UUID(in.readLong(), in.readLong());
+					String type = in.readUTF();
+					String displayName = in.readUTF();
+					String customName = in.readBoolean() ? in.readUTF() : null;
+					actors.add(new Actor(uuid, type, displayName, customName));
+				} else if (actor > actors.size()) {
+					throw new IOException("Corrupt scene: actor " + actor + " referenced before it was defined");
+				}
+				samples[i] = new Sample(actor, in.readFloat(), in.readFloat(), in.readFloat(),
+						in.readFloat(), in.readFloat(), in.readUnsignedByte(), in.readUnsignedByte());
+			}
+			ticks.add(new Tick(cameraX, cameraY, cameraZ, samples));
+		}
+		return new Scene(actors, ticks);
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("VarInt too long");
+	}
+}
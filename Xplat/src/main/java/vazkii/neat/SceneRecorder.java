@@ -0,0 +1,176 @@
+package vazkii.neat;
+
+import com.mojang.logging.LogUtils;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import net.minecraft.Util;
+import net.minecraft.client.KeyMapping;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.phys.Vec3;
+
+import org.lwjgl.glfw.GLFW;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records the entities around the camera into a {@link Scene} file, so a real situation (a mob farm,
+ * a 4v4 battle) can be replayed as a reproducible benchmark workload. Press the keybind to start, press
+ * it again or wait {@link #MAX_TICKS} ticks to stop. Files go to {@code neat/scenes} in the game directory.
+ */
+public class SceneRecorder {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static final int MAX_TICKS = 20 * 60 * 5;
+	private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+
+	public static final KeyMapping KEY = new KeyMapping("neat.keybind.record_scene", GLFW.GLFW_KEY_UNKNOWN, "key.categories.misc");
+
+	private static boolean recording = false;
+	private static final Object2IntOpenHashMap<UUID> actorIndices = new Object2IntOpenHashMap<>();
+	private static final List<Scene.Actor> actors = new ArrayList<>();
+	private static final List<Scene.Tick> ticks = new ArrayList<>();
+
+	static {
+		actorIndices.defaultReturnValue(-1);
+	}
+
+	public static void handle() {
+		while (KEY.consumeClick()) {
+			if (recording) {
+				stop();
+			} else {
+				start();
+			}
+		}
+	}
+
+	private static void start() {
+		recording = true;
+		actorIndices.clear();
+		actors.clear();
+		ticks.clear();
+		message(Component.translatable("neat.scene.recording"));
+	}
+
+	private static void stop() {
+		recording = false;
+		if (ticks.isEmpty()) {
+			return;
+		}
+		Scene scene = new Scene(List.copyOf(actors), List.copyOf(ticks));
+		actors.clear();
+		ticks.clear();
+		actorIndices.clear();
+
+		Path file = Minecraft.getInstance().gameDirectory.toPath()
+				.resolve("neat").resolve("scenes").resolve(LocalDateTime.now().format(FILE_NAME) + ".neatscene");
+		Util.ioPool().execute(() -> {
+			try {
+				Files.createDirectories(file.getParent());
+				try (OutputStream out = Files.newOutputStream(file)) {
+					scene.write(out);
+				}
+				LOGGER.info("Saved scene with {} ticks and {} entities to {}", scene.ticks().size(), scene.actors().size(), file);
+				Minecraft.getInstance().execute(() -> message(Component.translatable("neat.scene.saved", scene.ticks().size(), file.getFileName().toString())));
+			} catch (IOException e) {
+				LOGGER.error("Failed to save scene to {}", file, e);
+			}
+		});
+	}
+
+	/**
+	 * Captures one tick while recording. Call every client tick.
+	 */
+	public static void tick() {
+		if (!recording) {
+			return;
+		}
+		Minecraft mc = Minecraft.getInstance();
+		Entity camera = mc.getCameraEntity();
+		if (mc.level == null || camera == null) {
+			stop();
+			return;
+		}
+
+		List<Scene.Sample> samples = new ArrayList<>();
+		double range = NeatConfig.instance.maxDistance() * 2;
+		for (Entity entity : mc.level.entitiesForRendering()) {
+			if (!(entity instanceof LivingEntity living) || living == camera || living.distanceToSqr(camera) > range * range) {
+				continue;
+			}
+			samples.add(sample(living, camera));
+		}
+		Vec3 position = camera.position();
+		ticks.add(new Scene.Tick((float) position.x, (float) position.y, (float) position.z, samples.toArray(new Scene.Sample[0])));
+
+		if (ticks.size() >= MAX_TICKS) {
+			stop();
+		}
+	}
+
+	private static Scene.Sample sample(LivingEntity living, Entity camera) {
+		int actor = actorIndices.getInt(living.getUUID());
+		if (actor < 0) {
+			actor = actors.size();
+			actors.add(new Scene.Actor(living.getUUID(),
+					BuiltInRegistries.ENTITY_TYPE.getKey(living.getType()).toString(),
+					living.getDisplayName().getString(),
+					living.hasCustomName() ? living.getCustomName().getString() : null));
+			actorIndices.put(living.getUUID(), actor);
+		}
+
+		boolean pokemon = CobblemonIntegration.isPokemonEntity(living);
+		float health = HealthBarRenderer.getEffectiveCurrentHealth(living);
+		int flags = 0;
+		if (pokemon) {
+			flags |= Scene.FLAG_POKEMON;
+			if (CobblemonIntegration.isInBattle(living)) {
+				flags |= Scene.FLAG_IN_BATTLE;
+			}
+			if (HealthBarRenderer.isEnemyPokemon(living)) {
+				flags |= Scene.FLAG_ENEMY_POKEMON;
+			}
+		}
+		if (HealthBarRenderer.isBoss(living)) {
+			flags |= Scene.FLAG_BOSS;
+		}
+		if (living.getType().getCategory().isFriendly()) {
+			flags |= Scene.FLAG_FRIENDLY;
+		}
+		if (living instanceof Player) {
+			flags |= Scene.FLAG_PLAYER;
+		}
+		if (living.hasLineOfSight(camera)) {
+			flags |= Scene.FLAG_LINE_OF_SIGHT;
+		}
+		if (living.isDeadOrDying() || health <= 0.0F) {
+			flags |= Scene.FLAG_DEAD;
+		}
+
+		Vec3 position = living.position();
+		return new Scene.Sample(actor, (float) position.x, (float) position.y, (float) position.z,
+				health, HealthBarRenderer.getEffectiveMaxHealth(living), Math.min(living.getArmorValue(), 255), flags);
+	}
+
+	private static void message(Component message) {
+		Player player = Minecraft.getInstance().player;
+		if (player != null) {
+			player.displayClientMessage(message, false);
+		}
+	}
+}
@@ -0,0 +1,333 @@
+package vazkii.neat;
+
+import com.mojang.logging.LogUtils;
+
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import org.slf4j.Logger;
+
+import vazkii.neat.core.LongSamples;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The {@code /neat bench} stress test. In a singleplayer world it spawns a swarm of mixed mobs around the
+ * player, with random damage, custom names, armor and a boss per hundred, all without AI so the scene
+ * stays put. After a short warm-up it turns the camera around the player for the given duration, records
+ * every frame's total time and Neat's share of it, then removes the mobs and writes a CSV summary to
+ * {@code neat/bench} in the game directory.
+ *
+ * Neat's share comes from {@link NeatStats}, which is forced on for the run.
+ *
+ * Leaving the world or changing dimension ends a run without results. Mobs a run leaves behind because
+ * the server went away first are removed when the integrated server stops, before it saves.
+ */
+public class StressBench {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+
+	public static final int DEFAULT_ENTITIES = 200;
+	public static final int DEFAULT_SECONDS = 20;
+	public static final int MAX_ENTITIES = 2000;
+	public static final int MAX_SECONDS = 300;
+
+	// Spawned mobs carry this tag so they can be found and removed again
+	private static final String TAG = "neat_bench";
+	private static final long WARMUP_NANOS = 2_000_000_000L;
+	private static final double MIN_RADIUS = 3.0;
+	private static final double MAX_RADIUS = 24.0;
+	private static final float TURNS = 2.0F;
+
+	private static final EntityType<?>[] MOBS = {
+			EntityType.ZOMBIE, EntityType.SKELETON, EntityType.HUSK, EntityType.SPIDER, EntityType.PILLAGER,
+			EntityType.VILLAGER, EntityType.IRON_GOLEM, EntityType.COW, EntityType.PIG, EntityType.SHEEP
+	};
+	private static final String[] NAMES = { "Bob", "Sir Reginald the Unusually Long-Named", "Nugget", "Steve's Nemesis", "Dinnerbone" };
+	private static final EquipmentSlot[] ARMOR_SLOTS = { EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET };
+	private static final ItemStack[][] ARMOR = {
+			{ new ItemStack(Items.IRON_HELMET), new ItemStack(Items.IRON_CHESTPLATE), new ItemStack(Items.IRON_LEGGINGS), new ItemStack(Items.IRON_BOOTS) },
+			{ new ItemStack(Items.DIAMOND_HELMET), new ItemStack(Items.DIAMOND_CHESTPLATE), new ItemStack(Items.DIAMOND_LEGGINGS), new ItemStack(Items.DIAMOND_BOOTS) }
+	};
+
+	private enum Phase {
+		IDLE,
+		WARMUP,
+		RECORDING
+	}
+
+	private static Phase phase = Phase.IDLE;
+	private static int entities;
+	private static long durationNanos;
+	private static long phaseStart;
+	private static long lastFrameStart;
+	private static float startYaw;
+	private static boolean statsWereForced;
+	// Server thread only, whether mobs of a run may still be in the world
+	private static boolean spawned;
+
+	private static final LongSamples frameNanos = new LongSamples();
+	private static final LongSamples neatRenderNanos = new LongSamples();
+	private static final LongSamples neatTickNanos = new LongSamples();
+	private static final LongSamples platesDrawn = new LongSamples();
+
+	/**
+	 * Starts a run. Client thread only.
+	 *
+	 * @return 1 if the run started, 0 otherwise, as a command result
+	 */
+	public static int start(int entityCount, int seconds) {
+		Minecraft mc = Minecraft.getInstance();
+		MinecraftServer server = mc.getSingleplayerServer();
+		LocalPlayer player = mc.player;
+		if (server == null || player == null) {
+			message(Component.translatable("neat.bench.singleplayer"));
+			return 0;
+		}
+		if (phase != Phase.IDLE) {
+			message(Component.translatable("neat.bench.running"));
+			return 0;
+		}
+
+		entities = entityCount;
+		durationNanos = seconds * 1_000_000_000L;
+		frameNanos.clear();
+		neatRenderNanos.clear();
+		neatTickNanos.clear();
+		platesDrawn.clear();
+		statsWereForced = NeatStats.isForceEnabled();
+		NeatStats.setForceEnabled(true);
+
+		UUID playerId = player.getUUID();
+		long seed = player.getRandom().nextLong();
+		server.execute(() -> spawn(server, playerId, entityCount, seed));
+
+		startYaw = player.getYRot();
+		phase = Phase.WARMUP;
+		phaseStart = System.nanoTime();
+		message(Component.translatable("neat.bench.started", entityCount, seconds));
+		return 1;
+	}
+
+	/**
+	 * Cancels a run without writing results.
+	 *
+	 * @return 1 if a run was cancelled, 0 otherwise, as a command result
+	 */
+	public static int stop() {
+		if (phase == Phase.IDLE) {
+			return 0;
+		}
+		end();
+		message(Component.translatable("neat.bench.stopped"));
+		return 1;
+	}
+
+	/**
+	 * Records the last frame and turns the camera. Called at the start of every frame, after
+	 * {@link NeatStats#frame()}.
+	 */
+	public static void frame() {
+		if (phase == Phase.IDLE) {
+			return;
+		}
+		Minecraft mc = Minecraft.getInstance();
+		LocalPlayer player = mc.player;
+		if (player == null || mc.getSingleplayerServer() == null) {
+			end();
+			return;
+		}
+		long now = System.nanoTime();
+		long elapsed = now - phaseStart;
+		if (phase == Phase.WARMUP) {
+			if (elapsed >= WARMUP_NANOS) {
+				phase = Phase.RECORDING;
+				phaseStart = now;
+				lastFrameStart = now;
+			}
+			return;
+		}
+
+		frameNanos.add(now - lastFrameStart);
+		neatRenderNanos.add(NeatStats.lastFrame(NeatStats.Counter.RENDER_NANOS));
+		neatTickNanos.add(NeatStats.lastFrame(NeatStats.Counter.ANIMATION_TICK_NANOS));
+		platesDrawn.add(NeatStats.lastFrame(NeatStats.Counter.PLATES_DRAWN));
+		lastFrameStart = now;
+		if (elapsed >= durationNanos) {
+			finish();
+			return;
+		}
+
+		// Sweep all the way around, nodding up and down, so plates enter and leave the view
+		float progress = (float) elapsed / durationNanos;
+		float yaw = startYaw + 360.0F * TURNS * progress;
+		float pitch = 25.0F * Mth.sin(progress * Mth.TWO_PI * 3.0F);
+		player.setYRot(yaw);
+		player.setXRot(pitch);
+		player.yRotO = yaw;
+		player.xRotO = pitch;
+	}
+
+	/**
+	 * Ends a run when the player leaves the world or changes dimension, so it doesn't carry on in the next
+	 * one. Called by {@link NeatCaches#levelChanged()}.
+	 */
+	public static void levelChanged() {
+		if (phase != Phase.IDLE) {
+			end();
+		}
+	}
+
+	/**
+	 * Removes mobs left by a run that ended while the world was closing, before the server saves them.
+	 * Called on the server thread when the integrated server stops.
+	 */
+	public static void serverStopping(MinecraftServer server) {
+		if (spawned) {
+			discardSpawned(server);
+		}
+	}
+
+	private static void spawn(MinecraftServer server, UUID playerId, int count, long seed) {
+		ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+		if (player == null) {
+			return;
+		}
+		spawned = true;
+		ServerLevel level = player.serverLevel();
+		RandomSource random = RandomSource.create(seed);
+		for (int i = 0; i < count; i++) {
+			EntityType<?> type = i % 100 == 99 ? EntityType.WITHER : MOBS[random.nextInt(MOBS.length)];
+			if (!(type.create(level) instanceof Mob mob)) {
+				continue;
+			}
+			double angle = random.nextDouble() * Math.PI * 2.0;
+			double radius = MIN_RADIUS + random.nextDouble() * (MAX_RADIUS - MIN_RADIUS);
+			double x = player.getX() + Math.cos(angle) * radius;
+			double z = player.getZ() + Math.sin(angle) * radius;
+			int y = level.getHeight(Heightmap.Types.MOTION_BLOCKING, Mth.floor(x), Mth.floor(z));
+			mob.moveTo(x, y, z, random.nextFloat() * 360.0F, 0.0F);
+			// Without AI nothing wanders off, attacks or, for the wither, explodes. Not made persistent, so
+			// anything a run leaves behind despawns like any other mob.
+			mob.setNoAi(true);
+			mob.setInvulnerable(true);
+			mob.addTag(TAG);
+			if (random.nextInt(3) == 0) {
+				mob.setCustomName(Component.literal(NAMES[random.nextInt(NAMES.length)]));
+			}
+			if (random.nextBoolean()) {
+				ItemStack[] material = ARMOR[random.nextInt(ARMOR.length)];
+				for (int slot = 0; slot < ARMOR_SLOTS.length; slot++) {
+					if (random.nextBoolean()) {
+						mob.setItemSlot(ARMOR_SLOTS[slot], material[slot].copy());
+					}
+				}
+			}
+			mob.setHealth(Math.max(1.0F, mob.getMaxHealth() * random.nextFloat()));
+			level.addFreshEntity(mob);
+		}
+	}
+
+	private static void despawn(MinecraftServer server) {
+		server.execute(() -> discardSpawned(server));
+	}
+
+	private static void discardSpawned(MinecraftServer server) {
+		for (ServerLevel level : server.getAllLevels()) {
+			List<Entity> tagged = new ArrayList<>();
+			for (Entity entity : level.getAllEntities()) {
+				if (entity.getTags().contains(TAG)) {
+					tagged.add(entity);
+				}
+			}
+			tagged.forEach(Entity::discard);
+		}
+		spawned = false;
+	}
+
+	private static void end() {
+		phase = Phase.IDLE;
+		NeatStats.setForceEnabled(statsWereForced);
+		MinecraftServer server = Minecraft.getInstance().getSingleplayerServer();
+		if (server != null) {
+			despawn(server);
+		}
+	}
+
+	private static void finish() {
+		end();
+		if (frameNanos.size() == 0) {
+			return;
+		}
+		String csv = summary();
+		String frameP50 = String.format(Locale.ROOT, "%.2f", frameNanos.percentile(0.5) / 1.0E6);
+		String frameP99 = String.format(Locale.ROOT, "%.2f", frameNanos.percentile(0.99) / 1.0E6);
+		String neatP99 = String.format(Locale.ROOT, "%.1f", neatRenderNanos.percentile(0.99) / 1.0E3);
+		Path file = Minecraft.getInstance().gameDirectory.toPath()
+				.resolve("neat").resolve("bench").resolve(LocalDateTime.now().format(FILE_NAME) + ".csv");
+		Util.ioPool().execute(() -> {
+			try {
+				Files.createDirectories(file.getParent());
+				try (Writer out = Files.newBufferedWriter(file)) {
+					out.write(csv);
+				}
+				LOGGER.info("Saved bench results to {}", file);
+				Minecraft.getInstance().execute(() -> message(Component.translatable("neat.bench.saved", frameP50, frameP99, neatP99, file.getFileName().toString())));
+			} catch (IOException e) {
+				LOGGER.error("Failed to save bench results to {}", file, e);
+			}
+		});
+	}
+
+	/**
+	 * One row per metric, with the run's settings repeated on every row so results from several runs
+	 * can be concatenated.
+	 */
+	private static String summary() {
+		StringBuilder csv = new StringBuilder("entities,seconds,display_mode,metric,unit,frames,mean,p50,p90,p99,p99.9,max\n");
+		row(csv, "frame_time", "ms", frameNanos, 1.0E6);
+		row(csv, "neat_render", "us", neatRenderNanos, 1.0E3);
+		row(csv, "neat_tick", "us", neatTickNanos, 1.0E3);
+		row(csv, "plates_drawn", "count", platesDrawn, 1.0);
+		return csv.toString();
+	}
+
+	private static void row(StringBuilder csv, String metric, String unit, LongSamples samples, double scale) {
+		csv.append(String.format(Locale.ROOT, "%d,%d,%s,%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n",
+				entities, durationNanos / 1_000_000_000L, NeatConfig.instance.displayMode().name().toLowerCase(Locale.ROOT), metric, unit,
+				samples.size(), samples.mean() / scale, samples.percentile(0.5) / scale, samples.percentile(0.9) / scale,
+				samples.percentile(0.99) / scale, samples.percentile(0.999) / scale, samples.max() / scale));
+	}
+
+	private static void message(Component message) {
+		Player player = Minecraft.getInstance().player;
+		if (player != null) {
+			player.displayClientMessage(message, false);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package vazkii.neat.jfr;
+
+import jdk.jfr.*;
+
+@Name("vazkii.neat.AnimationTick")
+@Label("Neat Animation Tick")
+@Category("Neat")
+@Description("One HealthAnimationManager.tick")
+@Enabled(false)
+@StackTrace(false)
+public class AnimationTickEvent extends Event {
+	@Label("Tracked Entities")
+	public int tracked;
+
+	@Label("Removed Entities")
+	@Description("Entities whose animation and fade state was dropped this tick")
+	public int removed;
+}
@@ -0,0 +1,23 @@
+package vazkii.neat.jfr;
+
+import jdk.jfr.*;
+
+@Name("vazkii.neat.CobblemonLookup")
+@Label("Neat Cobblemon Lookup")
+@Category("Neat")
+@Description("A Cobblemon health lookup and the integration path that answered it")
+@Enabled(false)
+@StackTrace(false)
+public class CobblemonLookupEvent extends Event {
+	public static final String PATH_CLIENT_BATTLE = "client battle";
+	public static final String PATH_SERVER_SYNC = "server sync";
+	public static final String PATH_SERVER_BATTLE = "server battle";
+	public static final String PATH_FALLBACK = "fallback";
+
+	@Label("Path")
+	public String path;
+
+	@Label("Found")
+	@Description("Whether the path produced a value, otherwise the caller falls back further")
+	public boolean found;
+}
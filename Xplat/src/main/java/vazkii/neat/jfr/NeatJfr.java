@@ -0,0 +1,85 @@
+package vazkii.neat.jfr;
+
+import com.mojang.logging.LogUtils;
+
+import org.slf4j.Logger;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+
+/**
+ * Entry point for Neat's JDK Flight Recorder events. All events are disabled by default; enable them
+ * in a recording's settings (e.g. {@code vazkii.neat.PlatePass#enabled=true}) to correlate Neat's cost
+ * with GC and frame spikes in JMC.
+ *
+ * Callers check the cached {@link EventType}s before creating an event, so when recording is off
+ * the only cost is a flag read.
+ */
+public class NeatJfr {
+
+	private static final Logger LOGGER = LogUtils.getLogger();
+
+	private static final EventType PLATE_PASS = eventType(PlatePassEvent.class);
+	private static final EventType ANIMATION_TICK = eventType(AnimationTickEvent.class);
+	private static final EventType COBBLEMON_LOOKUP = eventType(CobblemonLookupEvent.class);
+
+	// The plate pass of the frame being rendered, or null when that event isn't enabled
+	private static PlatePassEvent platePass = null;
+
+	private static EventType eventType(Class<? extends Event> eventClass) {
+		try {
+			return EventType.getEventType(eventClass);
+		} catch (RuntimeException e) {
+			LOGGER.debug("Flight Recorder unavailable, Neat events disabled", e);
+			return null;
+		}
+	}
+
+	public static boolean isAnimationTickEnabled() {
+		return ANIMATION_TICK != null && ANIMATION_TICK.isEnabled();
+	}
+
+	public static boolean isCobblemonLookupEnabled() {
+		return COBBLEMON_LOOKUP != null && COBBLEMON_LOOKUP.isEnabled();
+	}
+
+	/**
+	 * Commits the previous frame's plate pass and starts the next one. Called once per frame.
+	 */
+	public static void beginFrame() {
+		if (platePass != null) {
+			platePass.commit();
+			platePass = null;
+		}
+		if (PLATE_PASS != null && PLATE_PASS.isEnabled()) {
+			platePass = new PlatePassEvent();
+			platePass.begin();
+		}
+	}
+
+	public static boolean isPlatePassActive() {
+		return platePass != null;
+	}
+
+	public static void plateConsidered(boolean shown) {
+		if (platePass != null) {
+			if (shown) {
+				platePass.shown++;
+			} else {
+				platePass.culled++;
+			}
+		}
+	}
+
+	public static void platesDrawn(int count) {
+		if (platePass != null) {
+			platePass.plates += count;
+		}
+	}
+
+	public static void plateRenderTime(long nanos) {
+		if (platePass != null) {
+			platePass.renderTime += nanos;
+		}
+	}
+}
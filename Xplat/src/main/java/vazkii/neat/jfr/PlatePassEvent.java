@@ -0,0 +1,28 @@
+package vazkii.neat.jfr;
+
+import jdk.jfr.*;
+
+@Name("vazkii.neat.PlatePass")
+@Label("Neat Plate Pass")
+@Category("Neat")
+@Description("Health plates considered during one rendered frame. The event spans the frame.")
+@Enabled(false)
+@StackTrace(false)
+public class PlatePassEvent extends Event {
+	@Label("Plates Drawn")
+	@Description("Plates drawn in the world or listed in the HUD")
+	public int plates;
+
+	@Label("Plates Shown")
+	@Description("Entities the filter gave a plate, including ones the name tag mixin only asked about")
+	public int shown;
+
+	@Label("Plates Culled")
+	@Description("Entities considered for a plate but rejected by the filter")
+	public int culled;
+
+	@Label("Render Time")
+	@Description("Time spent deciding which entities get a plate and drawing plates in the world, excluding the HUD list and impostor atlas")
+	@Timespan(Timespan.NANOSECONDS)
+	public long renderTime;
+}
@@ -0,0 +1,36 @@
+package vazkii.neat.mixin;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.VertexFormat;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(BufferBuilder.class)
+public interface AccessorBufferBuilder {
+	@Accessor("buffer")
+	ByteBufferBuilder neat_getBuffer();
+
+	@Accessor("format")
+	VertexFormat neat_getFormat();
+
+	@Accessor("mode")
+	VertexFormat.Mode neat_getMode();
+
+	@Accessor("vertices")
+	int neat_getVertices();
+
+	@Accessor("vertices")
+	void neat_setVertices(int vertices);
+
+	@Accessor("vertexPointer")
+	void neat_setVertexPointer(long pointer);
+
+	@Invoker("ensureBuilding")
+	void neat_ensureBuilding();
+
+	@Invoker("endLastVertex")
+	void neat_endLastVertex();
+}
@@ -0,0 +1,23 @@
+package vazkii.neat.mixin;
+
+import net.minecraft.client.gui.components.DebugScreenOverlay;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import vazkii.neat.NeatConfig;
+import vazkii.neat.NeatStats;
+
+import java.util.List;
+
+@Mixin(DebugScreenOverlay.class)
+public class DebugScreenOverlayMixin {
+	@Inject(method = "getGameInformation", at = @At("RETURN"))
+	private void neat_addStats(CallbackInfoReturnable<List<String>> cir) {
+		if (NeatConfig.instance.enableDebugInfo()) {
+			NeatStats.appendDebugLines(cir.getReturnValue());
+		}
+	}
+}
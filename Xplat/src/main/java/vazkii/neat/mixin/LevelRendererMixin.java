@@ -2,6 +2,7 @@ package vazkii.neat.mixin;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
+import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.entity.EntityRenderDispatcher;
@@ -16,6 +17,15 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import vazkii.neat.HealthBarRenderer;
+import vazkii.neat.HudList;
+import vazkii.neat.NeatCaches;
+import vazkii.neat.NeatStats;
+import vazkii.neat.OcclusionQueries;
+import vazkii.neat.PlateBatch;
+import vazkii.neat.PlateImpostors;
+import vazkii.neat.PlateSnapshot;
+import vazkii.neat.StressBench;
+import vazkii.neat.jfr.NeatJfr;
 
 @Mixin(LevelRenderer.class)
 public class LevelRendererMixin {
@@ -24,6 +34,24 @@ public class LevelRendererMixin {
 	@Final
 	private EntityRenderDispatcher entityRenderDispatcher;
 
+	@Inject(method = "setLevel", at = @At("HEAD"))
+	private void neat_levelChanged(ClientLevel level, CallbackInfo ci) {
+		NeatCaches.levelChanged();
+	}
+
+	@Inject(method = "renderLevel", at = @At("HEAD"))
+	private void neat_beginFrame(CallbackInfo ci) {
+		PlateSnapshot.beginFrame();
+		PlateBatch.beginFrame();
+		PlateImpostors.beginFrame();
+		HudList.beginFrame();
+		OcclusionQueries.beginFrame();
+		NeatCaches.beginFrame();
+		NeatStats.frame();
+		StressBench.frame();
+		NeatJfr.beginFrame();
+	}
+
 	/**
 	 * This hooks right after the EntityRenderDispatcher
 	 *
@@ -41,4 +69,14 @@ public class LevelRendererMixin {
 		double d2 = Mth.lerp(partialTick, entity.zOld, entity.getZ());
 		HealthBarRenderer.hookRender(entity, poseStack, buffers, entityRenderDispatcher.camera, entityRenderDispatcher.getRenderer(entity), partialTick, d0 - camX, d1 - camY, d2 - camZ);
 	}
+
+	/**
+	 * Block entities come right after the entity pass, whose buffers haven't been drawn yet
+	 */
+	@Inject(method = "renderLevel", at = @At(value = "CONSTANT", args = "stringValue=blockentities"))
+	private void neat_flushHealthBars(CallbackInfo ci) {
+		// Terrain depth is complete here, and this frame's probes were requested during the entity pass
+		OcclusionQueries.issue(entityRenderDispatcher.camera);
+		PlateBatch.flush();
+	}
 }
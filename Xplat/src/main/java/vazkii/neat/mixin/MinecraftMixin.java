@@ -8,6 +8,7 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import vazkii.neat.HealthAnimationManager;
+import vazkii.neat.SceneRecorder;
 import vazkii.neat.ToggleKeybind;
 
 @Mixin(Minecraft.class)
@@ -15,10 +16,12 @@ public class MinecraftMixin {
 	@Inject(at = @At("HEAD"), method = "handleKeybinds")
 	private void neat_keybind(CallbackInfo ci) {
 		ToggleKeybind.handle();
+		SceneRecorder.handle();
 	}
 	
 	@Inject(at = @At("HEAD"), method = "tick")
 	private void neat_tick(CallbackInfo ci) {
 		HealthAnimationManager.tick();
+		SceneRecorder.tick();
 	}
 }